@@ -23,8 +23,13 @@ CREATE TABLE matching_cycles (
     start_date TIMESTAMPTZ,
     end_date TIMESTAMPTZ,
     status VARCHAR(20) NOT NULL DEFAULT 'DRAFT' CHECK (status IN ('DRAFT', 'OPEN', 'PROCESSING', 'COMPLETED')),
+    -- 分配算法: 贪心后的优化阶段
+    algorithm VARCHAR(20) CHECK (algorithm IN ('GREEDY', 'ANNEALING', 'GENETIC')), -- NULL 表示使用全局默认算法
     created_at TIMESTAMPTZ NOT NULL DEFAULT now()
 );
+-- 学生端按状态查找当前周期 (OPEN / 最新的 PROCESSING 或 COMPLETED)，草稿周期不进索引
+CREATE INDEX idx_matching_cycles_status_created ON matching_cycles (status, created_at DESC)
+    WHERE status IN ('OPEN', 'PROCESSING', 'COMPLETED');
 
 -- 3. 动态问卷维度表
 CREATE TABLE survey_dimensions (
@@ -130,6 +135,8 @@ CREATE TABLE notifications (
     is_read BOOLEAN NOT NULL DEFAULT FALSE,
     created_at TIMESTAMPTZ NOT NULL DEFAULT now()
 );
+-- 通知分页、未读列表与未读数均按 用户 + 已读状态 查找并按时间排序
+CREATE INDEX idx_notifications_user_read_created ON notifications (user_id, is_read, created_at);
 
 -- 13. 内容发布表 (心理健康/宿舍文化)
 CREATE TABLE content_articles (
@@ -140,3 +147,24 @@ CREATE TABLE content_articles (
     author_id UUID REFERENCES users(id),
     created_at TIMESTAMPTZ NOT NULL DEFAULT now()
 );
+
+-- 14. 周期冲突规则表: 每个宿舍最多 max_per_room 名学生同时满足 expression
+CREATE TABLE room_constraint_rules (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    cycle_id UUID NOT NULL REFERENCES matching_cycles(id) ON DELETE CASCADE,
+    name VARCHAR(100) NOT NULL,
+    -- 例如 'neuroticism > 0.7 AND agreeableness < 0.4'，比较归一化后的维度得分
+    expression VARCHAR(255) NOT NULL,
+    max_per_room INT NOT NULL DEFAULT 1 CHECK (max_per_room >= 1),
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    UNIQUE(cycle_id, name)
+);
+
+-- 15. 已吊销的 API 令牌: 保存到令牌本身过期为止，首次校验令牌时载入内存过滤器
+CREATE TABLE revoked_tokens (
+    jti UUID PRIMARY KEY,
+    student_id VARCHAR(50) NOT NULL,
+    expires_at TIMESTAMPTZ NOT NULL,
+    revoked_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
@@ -0,0 +1,41 @@
+package com.smartdorm.backend.config;
+
+import com.smartdorm.backend.matching.MatchingAlgorithm;
+import com.smartdorm.backend.matching.SolverOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Thread pool and tuning of the assignment solver.
+ * The pool is kept separate from the common pool so a long matching run cannot starve parallel streams elsewhere.
+ */
+@Configuration
+public class MatchingConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool matchingPool(@Value("${smartdorm.matching.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads);
+    }
+
+    /**
+     * Defaults of every run; the algorithm is overridden per cycle (see {@code MatchingCycle#getAlgorithm()}).
+     */
+    @Bean
+    public SolverOptions solverOptions(@Value("${smartdorm.matching.default-algorithm:ANNEALING}") MatchingAlgorithm algorithm,
+                                       @Value("${smartdorm.matching.exact-max-students:200}") int exactMaxStudents,
+                                       @Value("${smartdorm.matching.anneal-ms:5000}") long annealMillis,
+                                       @Value("${smartdorm.matching.anneal-iterations-per-student:5000}") int iterationsPerStudent,
+                                       @Value("${smartdorm.matching.ga.time-ms:10000}") long geneticMillis,
+                                       @Value("${smartdorm.matching.ga.population:64}") int populationSize,
+                                       @Value("${smartdorm.matching.ga.max-generations:500}") int maxGenerations,
+                                       @Value("${smartdorm.matching.ga.plateau-generations:40}") int plateauGenerations,
+                                       @Value("${smartdorm.matching.distance-cache-mb:256}") long distanceCacheMb,
+                                       @Value("${smartdorm.matching.seed:42}") long seed) {
+        return new SolverOptions(algorithm, exactMaxStudents, annealMillis, iterationsPerStudent,
+                geneticMillis, populationSize, maxGenerations, plateauGenerations, distanceCacheMb * 1024 * 1024, seed);
+    }
+}
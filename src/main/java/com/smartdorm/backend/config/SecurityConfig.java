@@ -1,9 +1,14 @@
 // src/main/java/com/smartdorm/backend/config/SecurityConfig.java
 package com.smartdorm.backend.config;
 
+import com.smartdorm.backend.security.BoundedPasswordEncoder;
 import com.smartdorm.backend.security.JwtAccessDeniedHandler;
 import com.smartdorm.backend.security.JwtAuthenticationEntryPoint;
 import com.smartdorm.backend.security.JwtRequestFilter;
+import com.smartdorm.backend.security.LoginRateLimitFilter;
+import com.smartdorm.backend.security.LoginRateLimiter;
+import com.smartdorm.backend.security.LoginThrottledException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -17,9 +22,13 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.ExceptionMappingAuthenticationFailureHandler;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
@@ -28,19 +37,25 @@ public class SecurityConfig {
     private final JwtRequestFilter jwtRequestFilter;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtAccessDeniedHandler jwtAccessDeniedHandler;
+    private final LoginRateLimiter loginRateLimiter;
 
     public SecurityConfig(JwtRequestFilter jwtRequestFilter,
                           JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint,
-                          JwtAccessDeniedHandler jwtAccessDeniedHandler) {
+                          JwtAccessDeniedHandler jwtAccessDeniedHandler,
+                          LoginRateLimiter loginRateLimiter) {
         this.jwtRequestFilter = jwtRequestFilter;
         this.jwtAuthenticationEntryPoint = jwtAuthenticationEntryPoint;
         this.jwtAccessDeniedHandler = jwtAccessDeniedHandler;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
-    // --- 现有 Bean 保持不变 ---
+    // BCrypt 在独立的有界线程池中计算，登录高峰时排队已满的请求直接返回 429，而不是占满 Tomcat 线程
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${smartdorm.security.bcrypt-strength:10}") int strength,
+                                           @Value("${smartdorm.security.hashing-threads:0}") int threads,
+                                           @Value("${smartdorm.security.hashing-queue:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity);
     }
 
     @Bean
@@ -59,6 +74,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/ping").permitAll() // 确保 API 登录端点是公开的
                         .requestMatchers("/api/auth/login").permitAll() // 确保 API 登录端点是公开的
+                        .requestMatchers("/api/auth/refresh").permitAll() // 凭刷新令牌换取新令牌，无需访问令牌
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -73,6 +89,7 @@ public class SecurityConfig {
     @Bean
     @Order(2) // View Security Chain (for Thymeleaf)
     public SecurityFilterChain formLoginFilterChain(HttpSecurity http) throws Exception {
+        AuthenticationFailureHandler loginFailureHandler = loginFailureHandler();
         http
                 .authorizeHttpRequests(auth -> auth
                         // Publicly accessible resources
@@ -87,14 +104,25 @@ public class SecurityConfig {
                         .loginPage("/login")
                         .loginProcessingUrl("/perform_login")
                         .defaultSuccessUrl("/view/home", true) // Redirect to home after login
-                        .failureUrl("/login?error=true")
+                        .failureHandler(loginFailureHandler)
                 )
                 .logout(logout -> logout
                         .logoutUrl("/perform_logout")
                         .logoutSuccessUrl("/login?logout=true")
                         .invalidateHttpSession(true)
                         .deleteCookies("JSESSIONID")
-                );
+                )
+                // 超出登录频率限制的表单登录在校验密码之前被拒绝
+                .addFilterBefore(new LoginRateLimitFilter(loginRateLimiter, "/perform_login", loginFailureHandler),
+                        UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
-}
\ No newline at end of file
+
+    // 登录过于频繁或繁忙（密码哈希队列已满）时提示稍后重试，其余失败仍显示学号或密码错误
+    private ExceptionMappingAuthenticationFailureHandler loginFailureHandler() {
+        ExceptionMappingAuthenticationFailureHandler handler = new ExceptionMappingAuthenticationFailureHandler();
+        handler.setExceptionMappings(Map.of(LoginThrottledException.class.getName(), "/login?busy=true"));
+        handler.setDefaultFailureUrl("/login?error=true");
+        return handler;
+    }
+}
@@ -1,12 +1,19 @@
 package com.smartdorm.backend.controller;
 
 import com.smartdorm.backend.dto.AdminDtos.AdminAssignmentValidationDto;
+import com.smartdorm.backend.dto.AdminDtos.AssignmentJobDto;
 import com.smartdorm.backend.dto.AdminDtos.AssignmentResultAdminDto;
+import com.smartdorm.backend.dto.AdminDtos.ResultCursor;
 import com.smartdorm.backend.service.AdminAssignmentService;
+import com.smartdorm.backend.service.AssignmentJobService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -17,15 +24,34 @@ import java.util.UUID;
 public class AdminAssignmentController {
 
     private final AdminAssignmentService adminAssignmentService;
+    private final AssignmentJobService assignmentJobService;
 
-    public AdminAssignmentController(AdminAssignmentService adminAssignmentService) {
+    public AdminAssignmentController(AdminAssignmentService adminAssignmentService, AssignmentJobService assignmentJobService) {
         this.adminAssignmentService = adminAssignmentService;
+        this.assignmentJobService = assignmentJobService;
     }
 
+    /**
+     * Starts an assignment run in the background and points at its progress resource.
+     * Corresponds to use case ADM-03.
+     */
     @PostMapping("/trigger-assignment")
     public ResponseEntity<Map<String, String>> triggerAssignment(@PathVariable UUID cycleId) {
-        adminAssignmentService.triggerAssignment(cycleId);
-        return ResponseEntity.accepted().body(Map.of("message", "Assignment process started."));
+        AssignmentJobDto job = assignmentJobService.startJob(cycleId);
+        URI location = URI.create("/api/admin/cycles/" + cycleId + "/assignment-jobs/" + job.jobId());
+        return ResponseEntity.accepted()
+                .location(location)
+                .body(Map.of("message", "Assignment process started.", "jobId", job.jobId().toString()));
+    }
+
+    @GetMapping("/assignment-jobs/{jobId}")
+    public ResponseEntity<AssignmentJobDto> getAssignmentJob(@PathVariable UUID cycleId, @PathVariable UUID jobId) {
+        return ResponseEntity.ok(assignmentJobService.getJob(cycleId, jobId));
+    }
+
+    @PostMapping("/assignment-jobs/{jobId}/cancel")
+    public ResponseEntity<AssignmentJobDto> cancelAssignmentJob(@PathVariable UUID cycleId, @PathVariable UUID jobId) {
+        return ResponseEntity.accepted().body(assignmentJobService.cancelJob(cycleId, jobId));
     }
 
     /**
@@ -38,6 +64,50 @@ public class AdminAssignmentController {
         return ResponseEntity.ok(results);
     }
 
+    /**
+     * One page of the results, ordered by building, room and bed, of at most {@code limit} rows (capped at
+     * {@link AdminAssignmentService#MAX_PAGE_SIZE}). The next page starts after the last row; its address is returned
+     * in a {@code Link: <...>; rel="next"} header while more rows may follow.
+     */
+    @GetMapping(value = "/results", params = "limit")
+    public ResponseEntity<List<AssignmentResultAdminDto>> getAssignmentResultsPage(
+            @PathVariable UUID cycleId,
+            @RequestParam int limit,
+            @RequestParam(required = false) String afterBuilding,
+            @RequestParam(required = false) String afterRoom,
+            @RequestParam(required = false) Integer afterBed) {
+        ResultCursor after = afterBuilding == null || afterRoom == null || afterBed == null
+                ? null : new ResultCursor(afterBuilding, afterRoom, afterBed);
+        int pageSize = KeysetPages.pageSize(limit, AdminAssignmentService.MAX_PAGE_SIZE);
+        List<AssignmentResultAdminDto> results = adminAssignmentService.getAssignmentResults(cycleId, after, pageSize);
+        return KeysetPages.respond(results, pageSize, row -> {
+            ResultCursor next = ResultCursor.after(row);
+            return Map.of("afterBuilding", next.building(), "afterRoom", next.room(), "afterBed", next.bed());
+        });
+    }
+
+    /**
+     * Streams all results of a cycle as CSV, ordered by building, room and bed.
+     */
+    @GetMapping("/results/export.csv")
+    public void exportResultsCsv(@PathVariable UUID cycleId, HttpServletResponse response) throws IOException {
+        adminAssignmentService.requireCycle(cycleId);
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"results-" + cycleId + ".csv\"");
+        adminAssignmentService.exportResultsCsv(cycleId, response.getOutputStream());
+    }
+
+    /**
+     * Streams all results of a cycle as newline-delimited JSON, ordered by building, room and bed.
+     */
+    @GetMapping("/results/export.ndjson")
+    public void exportResultsNdjson(@PathVariable UUID cycleId, HttpServletResponse response) throws IOException {
+        adminAssignmentService.requireCycle(cycleId);
+        response.setContentType("application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"results-" + cycleId + ".ndjson\"");
+        adminAssignmentService.exportResultsNdjson(cycleId, response.getOutputStream());
+    }
+
     /**
      * [ENHANCED] Endpoint to validate the quality of assignment results.
      * Corresponds to use case ADM-08.
@@ -1,9 +1,11 @@
 // src/main/java/com/smartdorm/backend/controller/AdminCycleViewController.java
 package com.smartdorm.backend.controller;
 
+import com.smartdorm.backend.dto.AdminDtos;
 import com.smartdorm.backend.dto.CycleDtos;
 import com.smartdorm.backend.exception.ResourceNotFoundException;
 import com.smartdorm.backend.service.AdminAssignmentService;
+import com.smartdorm.backend.service.AssignmentJobService;
 import com.smartdorm.backend.service.CycleManagementService;
 import jakarta.validation.Valid;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -25,15 +27,20 @@ import java.util.stream.IntStream;
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminCycleViewController {
 
+    private static final int RESULTS_PAGE_SIZE = 100;
+
     private final CycleManagementService cycleService;
 
     // 注入新的 Service
     private final AdminAssignmentService adminAssignmentService;
+    private final AssignmentJobService assignmentJobService;
 
     // 更新构造函数
-    public AdminCycleViewController(CycleManagementService cycleService, AdminAssignmentService adminAssignmentService) {
+    public AdminCycleViewController(CycleManagementService cycleService, AdminAssignmentService adminAssignmentService,
+                                    AssignmentJobService assignmentJobService) {
         this.cycleService = cycleService;
         this.adminAssignmentService = adminAssignmentService;
+        this.assignmentJobService = assignmentJobService;
     }
 
     @GetMapping
@@ -67,7 +74,7 @@ public class AdminCycleViewController {
     public String showEditCycleForm(@PathVariable UUID id, Model model) {
         if (!model.containsAttribute("cycleDto")) {
             CycleDtos.MatchingCycleDto cycle = cycleService.getCycleById(id);
-            CycleDtos.MatchingCycleUpdateDto updateDto = new CycleDtos.MatchingCycleUpdateDto(cycle.name(), cycle.startDate(), cycle.endDate(), cycle.status());
+            CycleDtos.MatchingCycleUpdateDto updateDto = new CycleDtos.MatchingCycleUpdateDto(cycle.name(), cycle.startDate(), cycle.endDate(), cycle.status(), cycle.algorithm());
             model.addAttribute("cycleDto", updateDto);
         }
         model.addAttribute("cycleId", id);
@@ -160,12 +167,12 @@ public class AdminCycleViewController {
     @PostMapping("/{cycleId}/trigger-assignment")
     public String triggerAssignment(@PathVariable UUID cycleId, RedirectAttributes redirectAttributes) {
         try {
-            adminAssignmentService.triggerAssignment(cycleId);
-            redirectAttributes.addFlashAttribute("successMessage", "分配流程已成功启动并完成！");
+            assignmentJobService.startJob(cycleId);
+            redirectAttributes.addFlashAttribute("successMessage", "分配任务已在后台启动，请稍后刷新结果页面。");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", "分配失败: " + e.getMessage());
         }
-        // 分配完成后，重定向到结果页面
+        // 任务在后台运行，先重定向到结果页面
         return "redirect:/view/admin/cycles/" + cycleId + "/results";
     }
 
@@ -174,9 +181,22 @@ public class AdminCycleViewController {
      * 对应 use case: ADM-04
      */
     @GetMapping("/{cycleId}/results")
-    public String showResultsList(@PathVariable UUID cycleId, Model model) {
+    public String showResultsList(@PathVariable UUID cycleId,
+                                  @RequestParam(required = false) String afterBuilding,
+                                  @RequestParam(required = false) String afterRoom,
+                                  @RequestParam(required = false) Integer afterBed,
+                                  Model model) {
+        // 按楼栋/房间/床位的键集分页，每页固定条数
+        AdminDtos.ResultCursor after = afterBuilding == null || afterRoom == null || afterBed == null
+                ? null : new AdminDtos.ResultCursor(afterBuilding, afterRoom, afterBed);
+        List<AdminDtos.AssignmentResultAdminDto> results =
+                adminAssignmentService.getAssignmentResults(cycleId, after, RESULTS_PAGE_SIZE);
         model.addAttribute("cycle", cycleService.getCycleById(cycleId));
-        model.addAttribute("results", adminAssignmentService.getAssignmentResults(cycleId));
+        model.addAttribute("results", results);
+        model.addAttribute("firstPage", after == null);
+        if (results.size() == RESULTS_PAGE_SIZE) {
+            model.addAttribute("nextCursor", AdminDtos.ResultCursor.after(results.get(results.size() - 1)));
+        }
         return "admin/cycle/results-list";
     }
 
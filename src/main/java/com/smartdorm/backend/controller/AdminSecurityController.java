@@ -0,0 +1,28 @@
+package com.smartdorm.backend.controller;
+
+import com.smartdorm.backend.dto.AdminDtos.LoginLimiterStatsDto;
+import com.smartdorm.backend.security.LoginRateLimiter;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/security")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminSecurityController {
+
+    private final LoginRateLimiter loginRateLimiter;
+
+    public AdminSecurityController(LoginRateLimiter loginRateLimiter) {
+        this.loginRateLimiter = loginRateLimiter;
+    }
+
+    /**
+     * Allowed and rejected login attempts since startup, to watch the rate limiter during a login burst.
+     */
+    @GetMapping("/login-limiter")
+    public LoginLimiterStatsDto loginLimiterStats() {
+        return loginRateLimiter.stats();
+    }
+}
@@ -1,16 +1,14 @@
 package com.smartdorm.backend.controller;
 
 import com.smartdorm.backend.dto.SupportDtos.*;
-import com.smartdorm.backend.entity.User;
-import com.smartdorm.backend.exception.ResourceNotFoundException;
-import com.smartdorm.backend.repository.UserRepository;
+import com.smartdorm.backend.security.AuthenticatedUser;
+import com.smartdorm.backend.security.CurrentUser;
 import com.smartdorm.backend.service.SupportService;
+import com.smartdorm.backend.service.SwapReassignmentService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -22,16 +20,11 @@ import java.util.UUID;
 public class AdminSupportController {
 
     private final SupportService supportService;
-    private final UserRepository userRepository;
+    private final SwapReassignmentService swapReassignmentService;
 
-    public AdminSupportController(SupportService supportService, UserRepository userRepository) {
+    public AdminSupportController(SupportService supportService, SwapReassignmentService swapReassignmentService) {
         this.supportService = supportService;
-        this.userRepository = userRepository;
-    }
-
-    private User getCurrentUser(UserDetails userDetails) {
-        return userRepository.findByStudentId(userDetails.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("Authenticated user not found in database."));
+        this.swapReassignmentService = swapReassignmentService;
     }
 
     // --- Swap Requests ---
@@ -47,10 +40,20 @@ public class AdminSupportController {
         return ResponseEntity.ok(supportService.processSwapRequest(requestId, dto));
     }
 
+    /**
+     * Processes all pending swap requests of a cycle at once as exchange cycles; a preview unless {@code apply=true}.
+     */
+    @PostMapping("/cycles/{cycleId}/swap-requests/exchange")
+    public ResponseEntity<SwapBatchResultDto> exchangeSwapRequests(
+            @PathVariable UUID cycleId,
+            @RequestParam(defaultValue = "false") boolean apply) {
+        return ResponseEntity.ok(swapReassignmentService.exchangePending(cycleId, apply));
+    }
+
     // --- Articles ---
     @PostMapping("/articles")
-    public ResponseEntity<ArticleDto> createArticle(@Valid @RequestBody ArticleCreateDto dto, @AuthenticationPrincipal UserDetails userDetails) {
-        ArticleDto createdArticle = supportService.createArticle(dto, getCurrentUser(userDetails));
+    public ResponseEntity<ArticleDto> createArticle(@Valid @RequestBody ArticleCreateDto dto, @CurrentUser AuthenticatedUser currentUser) {
+        ArticleDto createdArticle = supportService.createArticle(dto, currentUser.getId());
         return new ResponseEntity<>(createdArticle, HttpStatus.CREATED);
     }
 
@@ -2,14 +2,11 @@
 package com.smartdorm.backend.controller;
 
 import com.smartdorm.backend.dto.SupportDtos;
-import com.smartdorm.backend.entity.User;
-import com.smartdorm.backend.exception.ResourceNotFoundException;
-import com.smartdorm.backend.repository.UserRepository;
+import com.smartdorm.backend.security.AuthenticatedUser;
+import com.smartdorm.backend.security.CurrentUser;
 import com.smartdorm.backend.service.SupportService;
 import jakarta.validation.Valid;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -24,16 +21,9 @@ import java.util.UUID;
 public class AdminSupportViewController {
 
     private final SupportService supportService;
-    private final UserRepository userRepository;
 
-    public AdminSupportViewController(SupportService supportService, UserRepository userRepository) {
+    public AdminSupportViewController(SupportService supportService) {
         this.supportService = supportService;
-        this.userRepository = userRepository;
-    }
-
-    private User getCurrentUser(UserDetails userDetails) {
-        return userRepository.findByStudentId(userDetails.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("Authenticated user not found in database."));
     }
 
     // --- Swap Request Views ---
@@ -78,13 +68,13 @@ public class AdminSupportViewController {
     public String createArticle(@Valid @ModelAttribute("articleDto") SupportDtos.ArticleCreateDto dto,
                                 BindingResult result,
                                 RedirectAttributes redirectAttributes,
-                                @AuthenticationPrincipal UserDetails userDetails) {
+                                @CurrentUser AuthenticatedUser currentUser) {
         if (result.hasErrors()) {
             redirectAttributes.addFlashAttribute("org.springframework.validation.BindingResult.articleDto", result);
             redirectAttributes.addFlashAttribute("articleDto", dto);
             return "redirect:/view/admin/support/articles/new";
         }
-        supportService.createArticle(dto, getCurrentUser(userDetails));
+        supportService.createArticle(dto, currentUser.getId());
         redirectAttributes.addFlashAttribute("successMessage", "文章 '" + dto.title() + "' 已成功发布！");
         return "redirect:/view/admin/support/articles";
     }
@@ -2,11 +2,17 @@ package com.smartdorm.backend.controller;
 
 import com.smartdorm.backend.dto.LoginRequest;
 import com.smartdorm.backend.dto.LoginResponse;
+import com.smartdorm.backend.dto.RefreshTokenRequest;
+import com.smartdorm.backend.security.AuthenticatedUser;
+import com.smartdorm.backend.security.CurrentUser;
 import com.smartdorm.backend.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -21,7 +27,24 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
-        return ResponseEntity.ok(authService.login(loginRequest));
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        return ResponseEntity.ok(authService.login(loginRequest, request.getRemoteAddr()));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request.refreshToken()));
+    }
+
+    /**
+     * Revokes the access token of this request and, if sent, the refresh token obtained with it.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@CurrentUser AuthenticatedUser user,
+                                       @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                       @RequestBody(required = false) RefreshTokenRequest request) {
+        authService.logout(user.getUsername(), authorization.substring("Bearer ".length()),
+                request == null ? null : request.refreshToken());
+        return ResponseEntity.noContent().build();
+    }
+}
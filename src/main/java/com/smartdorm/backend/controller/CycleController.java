@@ -71,4 +71,21 @@ public class CycleController {
         cycleService.deleteDimension(dimensionId);
         return ResponseEntity.noContent().build();
     }
+
+    // --- Conflict Rule Endpoints ---
+    @GetMapping("/{cycleId}/constraint-rules")
+    public ResponseEntity<List<ConstraintRuleDto>> getConstraintRules(@PathVariable UUID cycleId) {
+        return ResponseEntity.ok(cycleService.getConstraintRules(cycleId));
+    }
+
+    @PostMapping("/{cycleId}/constraint-rules")
+    public ResponseEntity<ConstraintRuleDto> createConstraintRule(@PathVariable UUID cycleId, @Valid @RequestBody ConstraintRuleCreateDto dto) {
+        return new ResponseEntity<>(cycleService.createConstraintRule(cycleId, dto), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{cycleId}/constraint-rules/{ruleId}")
+    public ResponseEntity<Void> deleteConstraintRule(@PathVariable UUID cycleId, @PathVariable UUID ruleId) {
+        cycleService.deleteConstraintRule(ruleId);
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.smartdorm.backend.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Responses of the keyset-paginated list endpoints: the page in the body and, while more rows may follow, the address
+ * of the next page in a {@code Link: <...>; rel="next"} header. The next page is the current request with the cursor
+ * parameters of the page's last row.
+ */
+final class KeysetPages {
+
+    private KeysetPages() {
+    }
+
+    /** The page size actually used for a requested {@code limit}: at least 1 and at most {@code max}. */
+    static int pageSize(int limit, int max) {
+        return Math.max(1, Math.min(limit, max));
+    }
+
+    /**
+     * @param pageSize   the size the page was queried with (see {@link #pageSize}); a full page may have a successor
+     * @param nextCursor query parameters that continue after the given (last) row
+     */
+    static <T> ResponseEntity<List<T>> respond(List<T> page, int pageSize, Function<T, Map<String, ?>> nextCursor) {
+        if (page.size() < pageSize) {
+            return ResponseEntity.ok(page);
+        }
+        UriComponentsBuilder next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("limit", pageSize);
+        nextCursor.apply(page.get(page.size() - 1)).forEach(next::replaceQueryParam);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + next.build().encode().toUriString() + ">; rel=\"next\"")
+                .body(page);
+    }
+}
@@ -1,16 +1,17 @@
 package com.smartdorm.backend.controller;
 
 import com.smartdorm.backend.dto.StudentDtos.*;
-import com.smartdorm.backend.entity.User;
-import com.smartdorm.backend.exception.ResourceNotFoundException;
-import com.smartdorm.backend.repository.UserRepository;
+import com.smartdorm.backend.security.AuthenticatedUser;
+import com.smartdorm.backend.security.CurrentUser;
 import com.smartdorm.backend.service.StudentService;
+import com.smartdorm.backend.service.SurveyDefinitionCache;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/student")
@@ -18,33 +19,36 @@ import org.springframework.web.bind.annotation.*;
 public class StudentController {
 
     private final StudentService studentService;
-    private final UserRepository userRepository;
 
-    public StudentController(StudentService studentService, UserRepository userRepository) {
+    public StudentController(StudentService studentService) {
         this.studentService = studentService;
-        this.userRepository = userRepository;
     }
 
+    /**
+     * Serves the cached JSON of the open survey; a client that sends the ETag back in {@code If-None-Match} gets
+     * 304 until the survey changes.
+     */
     @GetMapping("/survey")
-    public ResponseEntity<SurveyForStudentDto> getSurvey() {
-        return ResponseEntity.ok(studentService.getSurveyForStudent());
+    public ResponseEntity<byte[]> getSurvey(WebRequest request) {
+        SurveyDefinitionCache.OpenSurvey survey = studentService.getOpenSurvey();
+        if (request.checkNotModified(survey.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(survey.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(survey.json());
     }
 
     @PostMapping("/responses")
-    public ResponseEntity<Void> submitResponses(@Valid @RequestBody UserResponseSubmitDto dto, @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = getCurrentUser(userDetails);
-        studentService.submitResponses(dto, currentUser);
+    public ResponseEntity<Void> submitResponses(@Valid @RequestBody UserResponseSubmitDto dto, @CurrentUser AuthenticatedUser currentUser) {
+        studentService.submitResponses(dto, currentUser.getId());
         return ResponseEntity.ok().build();
     }
 
     @GetMapping("/result")
-    public ResponseEntity<AssignmentResultStudentDto> getResult(@AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = getCurrentUser(userDetails);
-        return ResponseEntity.ok(studentService.getStudentResult(currentUser));
-    }
-
-    private User getCurrentUser(UserDetails userDetails) {
-        return userRepository.findByStudentId(userDetails.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("Authenticated user not found in database."));
+    public ResponseEntity<AssignmentResultStudentDto> getResult(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(studentService.getStudentResult(currentUser.getId()));
     }
 }
\ No newline at end of file
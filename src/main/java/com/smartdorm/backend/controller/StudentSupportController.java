@@ -1,19 +1,18 @@
 package com.smartdorm.backend.controller;
 
 import com.smartdorm.backend.dto.SupportDtos.*;
-import com.smartdorm.backend.entity.User;
-import com.smartdorm.backend.exception.ResourceNotFoundException;
-import com.smartdorm.backend.repository.UserRepository;
+import com.smartdorm.backend.security.AuthenticatedUser;
+import com.smartdorm.backend.security.CurrentUser;
 import com.smartdorm.backend.service.SupportService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -22,29 +21,22 @@ import java.util.UUID;
 public class StudentSupportController {
 
     private final SupportService supportService;
-    private final UserRepository userRepository;
 
-    public StudentSupportController(SupportService supportService, UserRepository userRepository) {
+    public StudentSupportController(SupportService supportService) {
         this.supportService = supportService;
-        this.userRepository = userRepository;
-    }
-
-    private User getCurrentUser(UserDetails userDetails) {
-        return userRepository.findByStudentId(userDetails.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("Authenticated user not found in database."));
     }
 
     // --- Feedback ---
     @PostMapping("/feedback")
-    public ResponseEntity<Void> submitFeedback(@Valid @RequestBody FeedbackCreateDto dto, @AuthenticationPrincipal UserDetails userDetails) {
-        supportService.createFeedback(dto, getCurrentUser(userDetails));
+    public ResponseEntity<Void> submitFeedback(@Valid @RequestBody FeedbackCreateDto dto, @CurrentUser AuthenticatedUser currentUser) {
+        supportService.createFeedback(dto, currentUser.getId());
         return new ResponseEntity<>(HttpStatus.CREATED);
     }
 
     // --- Swap Request ---
     @PostMapping("/swap-requests")
-    public ResponseEntity<Void> submitSwapRequest(@Valid @RequestBody SwapRequestCreateDto dto, @AuthenticationPrincipal UserDetails userDetails) {
-        supportService.createSwapRequest(dto, getCurrentUser(userDetails));
+    public ResponseEntity<Void> submitSwapRequest(@Valid @RequestBody SwapRequestCreateDto dto, @CurrentUser AuthenticatedUser currentUser) {
+        supportService.createSwapRequest(dto, currentUser.getId());
         return new ResponseEntity<>(HttpStatus.CREATED);
     }
 
@@ -61,13 +53,45 @@ public class StudentSupportController {
 
     // --- Notifications ---
     @GetMapping("/notifications")
-    public ResponseEntity<List<NotificationDto>> getNotifications(@AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(supportService.getNotificationsForUser(getCurrentUser(userDetails)));
+    public ResponseEntity<List<NotificationDto>> getNotifications(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(supportService.getNotificationsForUser(currentUser.getId()));
+    }
+
+    /**
+     * One page of the notifications, newest first, optionally only the unread ones. The next page starts after the
+     * last notification; its address is returned in a {@code Link: <...>; rel="next"} header while more may follow.
+     * Limits above {@link SupportService#MAX_NOTIFICATION_PAGE_SIZE} are capped.
+     */
+    @GetMapping(value = "/notifications", params = "limit")
+    public ResponseEntity<List<NotificationDto>> getNotificationsPage(
+            @CurrentUser AuthenticatedUser currentUser,
+            @RequestParam int limit,
+            @RequestParam(defaultValue = "false") boolean unreadOnly,
+            @RequestParam(required = false) Instant beforeCreatedAt,
+            @RequestParam(required = false) UUID beforeId) {
+        NotificationCursor before = beforeCreatedAt == null || beforeId == null
+                ? null : new NotificationCursor(beforeCreatedAt, beforeId);
+        int pageSize = KeysetPages.pageSize(limit, SupportService.MAX_NOTIFICATION_PAGE_SIZE);
+        List<NotificationDto> notifications = supportService.getNotificationsForUser(currentUser.getId(), before, unreadOnly, pageSize);
+        return KeysetPages.respond(notifications, pageSize, last -> {
+            NotificationCursor next = NotificationCursor.after(last);
+            return Map.of("beforeCreatedAt", next.createdAt(), "beforeId", next.id());
+        });
+    }
+
+    @GetMapping("/notifications/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadNotificationCount(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(Map.of("unread", supportService.countUnreadNotifications(currentUser.getId())));
+    }
+
+    @PostMapping("/notifications/read-all")
+    public ResponseEntity<Map<String, Integer>> markAllNotificationsAsRead(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(Map.of("updated", supportService.markAllNotificationsAsRead(currentUser.getId())));
     }
 
     @PostMapping("/notifications/{notificationId}/read")
-    public ResponseEntity<Void> markNotificationAsRead(@PathVariable UUID notificationId, @AuthenticationPrincipal UserDetails userDetails) {
-        supportService.markNotificationAsRead(notificationId, getCurrentUser(userDetails));
+    public ResponseEntity<Void> markNotificationAsRead(@PathVariable UUID notificationId, @CurrentUser AuthenticatedUser currentUser) {
+        supportService.markNotificationAsRead(notificationId, currentUser.getId());
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
@@ -2,14 +2,12 @@
 package com.smartdorm.backend.controller;
 
 import com.smartdorm.backend.dto.SupportDtos;
-import com.smartdorm.backend.entity.User;
 import com.smartdorm.backend.exception.ResourceNotFoundException;
-import com.smartdorm.backend.repository.UserRepository;
+import com.smartdorm.backend.security.AuthenticatedUser;
+import com.smartdorm.backend.security.CurrentUser;
 import com.smartdorm.backend.service.SupportService;
 import jakarta.validation.Valid;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -24,16 +22,9 @@ import java.util.UUID;
 public class StudentSupportViewController {
 
     private final SupportService supportService;
-    private final UserRepository userRepository;
 
-    public StudentSupportViewController(SupportService supportService, UserRepository userRepository) {
+    public StudentSupportViewController(SupportService supportService) {
         this.supportService = supportService;
-        this.userRepository = userRepository;
-    }
-
-    private User getCurrentUser(UserDetails userDetails) {
-        return userRepository.findByStudentId(userDetails.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("Authenticated user not found in database."));
     }
 
     // --- Swap Request ---
@@ -46,14 +37,14 @@ public class StudentSupportViewController {
     @PostMapping("/request-swap")
     public String submitSwapRequest(@Valid @ModelAttribute("swapRequestDto") SupportDtos.SwapRequestCreateDto dto,
                                     BindingResult result,
-                                    @AuthenticationPrincipal UserDetails userDetails,
+                                    @CurrentUser AuthenticatedUser currentUser,
                                     RedirectAttributes redirectAttributes, Model model) {
         if (result.hasErrors()) {
             model.addAttribute("swapRequestDto", dto);
             return "student/support/swap-request-form";
         }
         try {
-            supportService.createSwapRequest(dto, getCurrentUser(userDetails));
+            supportService.createSwapRequest(dto, currentUser.getId());
             redirectAttributes.addFlashAttribute("successMessage", "您的调宿申请已提交，请耐心等待管理员审批。");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", "提交失败: " + e.getMessage());
@@ -2,14 +2,12 @@
 package com.smartdorm.backend.controller;
 
 import com.smartdorm.backend.dto.StudentDtos;
-import com.smartdorm.backend.entity.User;
 import com.smartdorm.backend.exception.ResourceNotFoundException;
-import com.smartdorm.backend.repository.UserRepository;
+import com.smartdorm.backend.security.AuthenticatedUser;
+import com.smartdorm.backend.security.CurrentUser;
 import com.smartdorm.backend.service.StudentService;
 import jakarta.validation.Valid;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -27,11 +25,9 @@ import java.util.stream.Collectors;
 public class StudentSurveyViewController {
 
     private final StudentService studentService;
-    private final UserRepository userRepository;
 
-    public StudentSurveyViewController(StudentService studentService, UserRepository userRepository) {
+    public StudentSurveyViewController(StudentService studentService) {
         this.studentService = studentService;
-        this.userRepository = userRepository;
     }
 
     /**
@@ -62,7 +58,7 @@ public class StudentSurveyViewController {
 
     @PostMapping("/survey/submit")
     public String submitSurvey(@ModelAttribute SurveySubmissionDto submissionDto,
-                               @AuthenticationPrincipal UserDetails userDetails,
+                               @CurrentUser AuthenticatedUser currentUser,
                                RedirectAttributes redirectAttributes) {
 
         // 将视图层的 Map<UUID, Double> 转换为 Service 层需要的 List<ResponseItem>
@@ -72,21 +68,16 @@ public class StudentSurveyViewController {
 
         StudentDtos.UserResponseSubmitDto serviceDto = new StudentDtos.UserResponseSubmitDto(responses);
 
-        User currentUser = userRepository.findByStudentId(userDetails.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        studentService.submitResponses(serviceDto, currentUser);
+        studentService.submitResponses(serviceDto, currentUser.getId());
 
         redirectAttributes.addFlashAttribute("successMessage", "问卷提交成功，感谢您的参与！");
         return "redirect:/view/student/dashboard";
     }
 
     @GetMapping("/result")
-    public String showResult(Model model, @AuthenticationPrincipal UserDetails userDetails) {
+    public String showResult(Model model, @CurrentUser AuthenticatedUser currentUser) {
         try {
-            User currentUser = userRepository.findByStudentId(userDetails.getUsername())
-                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-            StudentDtos.AssignmentResultStudentDto resultDto = studentService.getStudentResult(currentUser);
+            StudentDtos.AssignmentResultStudentDto resultDto = studentService.getStudentResult(currentUser.getId());
             model.addAttribute("resultDto", resultDto);
             return "student/result-view";
         } catch (ResourceNotFoundException e) {
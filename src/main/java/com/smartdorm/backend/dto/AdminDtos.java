@@ -1,5 +1,6 @@
 package com.smartdorm.backend.dto;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,7 +15,27 @@ public class AdminDtos {
             String building,
             String room,
             int bed
-    ) {}
+    ) {
+        /** Flat form for JPQL constructor expressions, which cannot build the nested {@link UserDto}. */
+        public AssignmentResultAdminDto(UUID userId, String studentId, String name, String role, String gender,
+                                        String college, String building, String room, int bed) {
+            this(new UserDto(userId, studentId, name, role, gender, college), building, room, bed);
+        }
+    }
+
+    /**
+     * Keyset position in the results list, which is ordered by building, room and bed: the next page starts after
+     * this row.
+     */
+    public record ResultCursor(
+            String building,
+            String room,
+            int bed
+    ) {
+        public static ResultCursor after(AssignmentResultAdminDto row) {
+            return new ResultCursor(row.building(), row.room(), row.bed());
+        }
+    }
 
     /**
      * DTO for a single validation metric in the quality report.
@@ -33,6 +54,50 @@ public class AdminDtos {
     public record AdminAssignmentValidationDto(
             boolean isValid,
             String message,
-            List<ValidationDetailDto> details
+            List<ValidationDetailDto> details,
+            List<Double> costCurve
+    ) {
+        public AdminAssignmentValidationDto(boolean isValid, String message, List<ValidationDetailDto> details) {
+            this(isValid, message, details, List.of());
+        }
+    }
+
+    /**
+     * Progress of a background assignment run.
+     * Corresponds to ADM-03 use case.
+     */
+    public record AssignmentJobDto(
+            UUID jobId,
+            UUID cycleId,
+            String phase,
+            double progress,
+            String message,
+            Instant createdAt,
+            Instant finishedAt,
+            List<PartitionStatsDto> partitions
+    ) {}
+
+    /**
+     * Size and solve time of one partition of an assignment run.
+     */
+    public record PartitionStatsDto(
+            String key,
+            int students,
+            int beds,
+            int placed,
+            long millis,
+            double greedyCost,
+            double finalCost,
+            int violations
+    ) {}
+
+    /**
+     * Counters of the login rate limiter since startup.
+     */
+    public record LoginLimiterStatsDto(
+            long allowed,
+            long rejectedByStudentId,
+            long rejectedByClientIp,
+            int slots
     ) {}
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@
 package com.smartdorm.backend.dto;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -18,7 +19,11 @@ import java.util.UUID;
 public class CycleDtos {
 
     // --- Response DTOs ---
-    public record MatchingCycleDto(UUID id, String name, Instant startDate, Instant endDate, String status) {}
+    public record MatchingCycleDto(UUID id, String name, Instant startDate, Instant endDate, String status, String algorithm) {
+        public MatchingCycleDto(UUID id, String name, Instant startDate, Instant endDate, String status) {
+            this(id, name, startDate, endDate, status, null);
+        }
+    }
 
     public record DimensionOptionDto(UUID id, String optionText, double optionValue) {}
 
@@ -46,7 +51,8 @@ public class CycleDtos {
             String name,
             Instant startDate,
             Instant endDate,
-            @Pattern(regexp = "DRAFT|OPEN|COMPLETED", message = "Status must be DRAFT, OPEN, or COMPLETED") String status
+            @Pattern(regexp = "DRAFT|OPEN|COMPLETED", message = "Status must be DRAFT, OPEN, or COMPLETED") String status,
+            @Pattern(regexp = "GREEDY|ANNEALING|GENETIC", message = "Algorithm must be GREEDY, ANNEALING, or GENETIC") String algorithm
     ) {}
 
     @Data
@@ -86,6 +92,16 @@ public class CycleDtos {
 
     }
 
+    // --- Conflict Rule DTOs ---
+    public record ConstraintRuleDto(UUID id, String name, String expression, int maxPerRoom, boolean builtIn) {}
+
+    public record ConstraintRuleCreateDto(
+            @NotEmpty String name,
+            @NotEmpty @Pattern(regexp = "(?i)\\s*\\w+\\s*(<=|>=|<|>)\\s*\\d+(\\.\\d+)?(\\s+AND\\s+\\w+\\s*(<=|>=|<|>)\\s*\\d+(\\.\\d+)?)*\\s*",
+                    message = "Expression must look like 'neuroticism > 0.7 AND agreeableness < 0.4'") String expression,
+            @NotNull @Min(1) Integer maxPerRoom
+    ) {}
+
     public record SurveyDimensionUpdateDto(
             @NotEmpty String prompt,
             @NotNull @PositiveOrZero Double weight,
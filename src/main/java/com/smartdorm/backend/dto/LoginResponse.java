@@ -2,5 +2,6 @@ package com.smartdorm.backend.dto;
 
 public record LoginResponse(
         String token,
+        String refreshToken,
         UserDto user
-) {}
\ No newline at end of file
+) {}
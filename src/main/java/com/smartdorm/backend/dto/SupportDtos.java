@@ -7,6 +7,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 public class SupportDtos {
@@ -40,6 +41,29 @@ public class SupportDtos {
             Instant createdAt
     ) {}
 
+    // --- Batch swap exchange ---
+    /** One student of an exchange cycle moving from their bed into the next member's bed. */
+    public record SwapExchangeMoveDto(
+            UUID requestId,
+            UUID userId,
+            String userName,
+            UUID fromBedId,
+            UUID toBedId,
+            double costBefore, // summed dissimilarity to the roommates
+            double costAfter
+    ) {}
+
+    public record SwapExchangeDto(
+            List<SwapExchangeMoveDto> moves
+    ) {}
+
+    public record SwapBatchResultDto(
+            boolean applied,
+            int pendingRequests,
+            int studentsMoved,
+            List<SwapExchangeDto> exchanges
+    ) {}
+
     // --- Article ---
     public record ArticleCreateDto(
             @NotBlank String title,
@@ -71,4 +95,16 @@ public class SupportDtos {
             boolean isRead,
             Instant createdAt
     ) {}
-}
\ No newline at end of file
+
+    /**
+     * Keyset position in a user's notifications, which are ordered newest first: the next page starts after this one.
+     */
+    public record NotificationCursor(
+            Instant createdAt,
+            UUID id
+    ) {
+        public static NotificationCursor after(NotificationDto notification) {
+            return new NotificationCursor(notification.createdAt(), notification.id());
+        }
+    }
+}
@@ -27,6 +27,9 @@ public class MatchingCycle {
     @Column(nullable = false, length = 20)
     private String status = "DRAFT"; // DRAFT, OPEN, PROCESSING, COMPLETED
 
+    @Column(length = 20)
+    private String algorithm; // GREEDY, ANNEALING, GENETIC; null 表示使用全局默认 (smartdorm.matching.default-algorithm)
+
     @CreationTimestamp
     private Instant createdAt;
 
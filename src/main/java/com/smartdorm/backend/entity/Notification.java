@@ -9,7 +9,10 @@ import java.util.UUID;
 
 @Data
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // 分页列表、未读列表与未读数都按用户和已读状态查找，并按创建时间排序
+        @Index(name = "idx_notifications_user_read_created", columnList = "user_id, is_read, created_at")
+})
 public class Notification {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
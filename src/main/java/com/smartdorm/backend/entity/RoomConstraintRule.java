@@ -0,0 +1,44 @@
+package com.smartdorm.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 管理员为某个周期声明的冲突规则: 每个宿舍中最多 maxPerRoom 名学生同时满足 expression。
+ * expression 形如 "neuroticism > 0.7 AND agreeableness < 0.4"，比较的是归一化后的维度得分 (0~1)。
+ */
+@Data
+@Entity
+@Table(name = "room_constraint_rules", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"cycle_id", "name"})
+})
+public class RoomConstraintRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cycle_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private MatchingCycle cycle;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(nullable = false, length = 255)
+    private String expression;
+
+    @Column(name = "max_per_room", nullable = false)
+    private int maxPerRoom = 1;
+
+    @CreationTimestamp
+    private Instant createdAt;
+}
@@ -1,6 +1,8 @@
 // src/main/java/com/smartdorm/backend/exception/GlobalExceptionHandler.java
 package com.smartdorm.backend.exception;
 
+import com.smartdorm.backend.security.LoginThrottledException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -48,4 +50,17 @@ public class GlobalExceptionHandler {
                         "message", ex.getMessage()
                 ));
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<Map<String, Object>> handleLoginThrottledException(LoginThrottledException ex) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of(
+                        "timestamp", Instant.now(),
+                        "status", HttpStatus.TOO_MANY_REQUESTS.value(),
+                        "error", "Too Many Requests",
+                        "message", ex.getMessage()
+                ));
+    }
+}
@@ -3,7 +3,9 @@ package com.smartdorm.backend.mapper;
 import com.smartdorm.backend.dto.CycleDtos.*;
 import com.smartdorm.backend.entity.DimensionOption;
 import com.smartdorm.backend.entity.MatchingCycle;
+import com.smartdorm.backend.entity.RoomConstraintRule;
 import com.smartdorm.backend.entity.SurveyDimension;
+import com.smartdorm.backend.matching.ConflictRule;
 import org.springframework.stereotype.Component;
 import java.util.stream.Collectors;
 
@@ -11,7 +13,7 @@ import java.util.stream.Collectors;
 public class CycleMapper {
 
     public MatchingCycleDto toDto(MatchingCycle cycle) {
-        return new MatchingCycleDto(cycle.getId(), cycle.getName(), cycle.getStartDate(), cycle.getEndDate(), cycle.getStatus());
+        return new MatchingCycleDto(cycle.getId(), cycle.getName(), cycle.getStartDate(), cycle.getEndDate(), cycle.getStatus(), cycle.getAlgorithm());
     }
     public SurveyDimensionDto toDto(SurveyDimension dimension) {
         return new SurveyDimensionDto(
@@ -28,6 +30,14 @@ public class CycleMapper {
         );
     }
 
+    public ConstraintRuleDto toDto(RoomConstraintRule rule) {
+        return new ConstraintRuleDto(rule.getId(), rule.getName(), rule.getExpression(), rule.getMaxPerRoom(), false);
+    }
+
+    public ConstraintRuleDto toDto(ConflictRule rule) {
+        return new ConstraintRuleDto(null, rule.name(), rule.expression(), rule.maxPerRoom(), true);
+    }
+
     public DimensionOptionDto toDto(DimensionOption option) {
         return new DimensionOptionDto(option.getId(), option.getOptionText(), option.getOptionValue());
     }
@@ -0,0 +1,299 @@
+package com.smartdorm.backend.matching;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static com.smartdorm.backend.matching.OptimizationResult.CURVE_POINTS;
+
+/**
+ * Simulated-annealing local search that improves an initial placement (usually the greedy one).
+ * <p>
+ * The objective is the sum of the pairwise dissimilarities inside every room. Two moves are tried: swapping two
+ * students of different rooms, and moving a student into an empty bed of another room. A move only changes the
+ * two rooms involved, so its cost delta is computed from their members alone, in {@code O(room size)} score
+ * evaluations; the global total is never recomputed inside the loop.
+ * <p>
+ * The temperature cools geometrically with the fraction of the iteration budget used (or of the time budget, if
+ * that runs out first). Since uphill moves are accepted, the walk may end worse than it started; the best placement
+ * seen (by dissimilarity plus penalties) is returned instead, so the result is never worse than the initial one. It
+ * is copied only when the walk is about to leave it uphill. The cost of that best placement after every
+ * {@code 1/CURVE_POINTS} of the run is recorded so convergence can be inspected.
+ * <p>
+ * {@link RoomConstraints} violations add {@link RoomConstraints#penalty(int)} each to the delta a move is judged by; a
+ * {@link RoomConstraints.Tracker} keeps that check at {@code O(rules)} per affected room. Reported costs are the
+ * pure dissimilarities.
+ */
+public final class AnnealingOptimizer {
+
+    private static final int CHECK_INTERVAL = 256;
+    private static final double MOVE_PROBABILITY = 0.3;
+    private static final double FINAL_TEMPERATURE_RATIO = 1e-4;
+    private static final int CALIBRATION_MOVES = 200;
+
+    private final FeatureMatrix features;
+    private final int[] capacities;
+    private final int[] roomOf;
+    private final int[][] members;
+    private final int[] count;
+    private final int[] slot;
+    private final int[] placed;
+    private final SplittableRandom random;
+    private final boolean constrained;
+    private final RoomConstraints.Tracker tracker;
+    private final double penalty;
+
+    // violations of the current placement; the best placement seen, penalties included, and whether it is the current one
+    private int violations;
+    private double bestPenalized;
+    private double bestCost;
+    private int[] best;
+    private boolean atBest;
+
+    // rooms with at least one free bed, as a swap-remove set
+    private final int[] open;
+    private final int[] openPos;
+    private int openSize;
+
+    private AnnealingOptimizer(FeatureMatrix features, int[] capacities, int[] initial, RoomConstraints constraints, long seed) {
+        this.features = features;
+        this.capacities = capacities;
+        this.roomOf = initial.clone();
+        this.members = new int[capacities.length][];
+        this.count = new int[capacities.length];
+        this.slot = new int[roomOf.length];
+        this.random = new SplittableRandom(seed);
+        this.constrained = !constraints.isEmpty();
+        this.tracker = constraints.tracker(capacities.length);
+        this.penalty = constraints.penalty(Arrays.stream(capacities).max().orElse(0));
+
+        for (int r = 0; r < capacities.length; r++) members[r] = new int[capacities[r]];
+        int n = 0;
+        for (int s = 0; s < roomOf.length; s++) {
+            int r = roomOf[s];
+            if (r == GreedyRoomAssigner.UNASSIGNED) continue;
+            slot[s] = count[r];
+            members[r][count[r]++] = s;
+            if (constrained) tracker.add(s, r);
+            n++;
+        }
+        this.placed = new int[n];
+        for (int s = 0, i = 0; s < roomOf.length; s++) {
+            if (roomOf[s] != GreedyRoomAssigner.UNASSIGNED) placed[i++] = s;
+        }
+
+        this.open = new int[capacities.length];
+        this.openPos = new int[capacities.length];
+        Arrays.fill(openPos, -1);
+        for (int r = 0; r < capacities.length; r++) updateOpen(r);
+    }
+
+    /**
+     * @param features     rows of one partition
+     * @param capacities   beds per room
+     * @param initial      starting room of every student, or {@link GreedyRoomAssigner#UNASSIGNED}; not modified
+     * @param iterations   iteration budget
+     * @param budgetMillis wall-clock cap
+     * @param monitor      checked for cancellation every few hundred iterations
+     */
+    public static OptimizationResult optimize(FeatureMatrix features, int[] capacities, int[] initial, long iterations,
+                                              long budgetMillis, long seed, MatchingMonitor monitor) {
+        return optimize(features, capacities, initial, RoomConstraints.NONE, iterations, budgetMillis, seed, monitor);
+    }
+
+    /**
+     * @param constraints conflict rules, compiled for {@code features}
+     */
+    public static OptimizationResult optimize(FeatureMatrix features, int[] capacities, int[] initial,
+                                              RoomConstraints constraints, long iterations, long budgetMillis, long seed,
+                                              MatchingMonitor monitor) {
+        return new AnnealingOptimizer(features, capacities, initial, constraints, seed).run(iterations, budgetMillis, monitor);
+    }
+
+    private OptimizationResult run(long maxIterations, long budgetMillis, MatchingMonitor monitor) {
+        double initialCost = roomCosts();
+        if (placed.length < 2 || maxIterations <= 0 || budgetMillis <= 0) {
+            return OptimizationResult.unchanged(roomOf, initialCost);
+        }
+        double cost = initialCost;
+        if (constrained) {
+            for (int r = 0; r < capacities.length; r++) violations += tracker.excess(r);
+        }
+        bestCost = initialCost;
+        bestPenalized = initialCost + penalty * violations;
+        atBest = true;
+        double[] curve = new double[CURVE_POINTS + 1];
+        curve[0] = initialCost;
+
+        double t0 = calibrate();
+        double tEnd = t0 * FINAL_TEMPERATURE_RATIO;
+        double temperature = t0;
+        long start = System.nanoTime();
+        long budgetNanos = budgetMillis * 1_000_000;
+        int nextPoint = 1;
+        long iteration = 0;
+
+        while (iteration < maxIterations) {
+            if (iteration % CHECK_INTERVAL == 0) {
+                monitor.checkCancelled();
+                double progress = Math.max((double) iteration / maxIterations,
+                        (double) (System.nanoTime() - start) / budgetNanos);
+                if (progress >= 1.0) break;
+                while (nextPoint < CURVE_POINTS && progress >= (double) nextPoint / CURVE_POINTS) {
+                    curve[nextPoint++] = bestCost;
+                }
+                temperature = t0 * Math.pow(tEnd / t0, progress);
+            }
+            iteration++;
+            cost += step(temperature);
+            double penalized = cost + penalty * violations;
+            if (penalized < bestPenalized) {
+                bestPenalized = penalized;
+                bestCost = cost;
+                atBest = true;
+            }
+        }
+        while (nextPoint <= CURVE_POINTS) curve[nextPoint++] = bestCost;
+
+        return new OptimizationResult(atBest ? roomOf : best, initialCost, bestCost, iteration, curve);
+    }
+
+    /**
+     * Tries one random move and applies it if accepted.
+     *
+     * @return the cost change (0 if rejected)
+     */
+    private double step(double temperature) {
+        int a = placed[random.nextInt(placed.length)];
+        int from = roomOf[a];
+
+        if (openSize > 0 && random.nextDouble() < MOVE_PROBABILITY) {
+            int to = open[random.nextInt(openSize)];
+            if (to == from) return 0.0;
+            double delta = affinity(a, to, -1) - affinity(a, from, a);
+            int added = constrained ? tracker.excessDelta(from, a, -1) + tracker.excessDelta(to, -1, a) : 0;
+            if (!accept(delta + penalty * added, temperature)) return 0.0;
+            leave(delta + penalty * added);
+            move(a, to);
+            violations += added;
+            return delta;
+        }
+
+        int b = placed[random.nextInt(placed.length)];
+        int other = roomOf[b];
+        if (other == from) return 0.0;
+        double delta = swapDelta(a, b);
+        int added = constrained ? tracker.excessDelta(from, a, b) + tracker.excessDelta(other, b, a) : 0;
+        if (!accept(delta + penalty * added, temperature)) return 0.0;
+        leave(delta + penalty * added);
+        swap(a, b);
+        violations += added;
+        return delta;
+    }
+
+    /** Before an accepted move: keeps a copy of the current placement if it is the best one and the move is uphill. */
+    private void leave(double penalizedDelta) {
+        if (!atBest || penalizedDelta <= 0.0) return;
+        if (best == null) best = new int[roomOf.length];
+        System.arraycopy(roomOf, 0, best, 0, roomOf.length);
+        atBest = false;
+    }
+
+    private double swapDelta(int a, int b) {
+        int ra = roomOf[a];
+        int rb = roomOf[b];
+        return affinity(b, ra, a) - affinity(a, ra, a) + affinity(a, rb, b) - affinity(b, rb, b);
+    }
+
+    private boolean accept(double delta, double temperature) {
+        return delta <= 0.0 || random.nextDouble() < Math.exp(-delta / temperature);
+    }
+
+    /** Summed dissimilarity of student {@code s} to the members of {@code room}, except {@code excluded}. */
+    private double affinity(int s, int room, int excluded) {
+        double sum = 0.0;
+        int[] m = members[room];
+        for (int i = 0; i < count[room]; i++) {
+            if (m[i] != excluded && m[i] != s) sum += features.score(s, m[i]);
+        }
+        return sum;
+    }
+
+    private void swap(int a, int b) {
+        int ra = roomOf[a];
+        int rb = roomOf[b];
+        int sa = slot[a];
+        int sb = slot[b];
+        members[ra][sa] = b;
+        members[rb][sb] = a;
+        slot[a] = sb;
+        slot[b] = sa;
+        roomOf[a] = rb;
+        roomOf[b] = ra;
+        if (constrained) {
+            tracker.remove(a, ra);
+            tracker.add(b, ra);
+            tracker.remove(b, rb);
+            tracker.add(a, rb);
+        }
+    }
+
+    private void move(int s, int to) {
+        int from = roomOf[s];
+        int last = members[from][--count[from]];
+        members[from][slot[s]] = last;
+        slot[last] = slot[s];
+
+        slot[s] = count[to];
+        members[to][count[to]++] = s;
+        roomOf[s] = to;
+        if (constrained) {
+            tracker.remove(s, from);
+            tracker.add(s, to);
+        }
+        updateOpen(from);
+        updateOpen(to);
+    }
+
+    private void updateOpen(int room) {
+        boolean hasSpace = count[room] < capacities[room];
+        if (hasSpace && openPos[room] < 0) {
+            openPos[room] = openSize;
+            open[openSize++] = room;
+        } else if (!hasSpace && openPos[room] >= 0) {
+            int last = open[--openSize];
+            open[openPos[room]] = last;
+            openPos[last] = openPos[room];
+            openPos[room] = -1;
+        }
+    }
+
+    private double roomCosts() {
+        double cost = 0.0;
+        for (int r = 0; r < members.length; r++) {
+            for (int i = 0; i < count[r]; i++) {
+                for (int j = i + 1; j < count[r]; j++) cost += features.score(members[r][i], members[r][j]);
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * Starting temperature at which an average worsening swap is accepted with probability 1/2.
+     */
+    private double calibrate() {
+        double sum = 0.0;
+        int samples = 0;
+        for (int i = 0; i < CALIBRATION_MOVES; i++) {
+            int a = placed[random.nextInt(placed.length)];
+            int b = placed[random.nextInt(placed.length)];
+            if (roomOf[a] == roomOf[b]) continue;
+            double delta = swapDelta(a, b);
+            if (delta > 0) {
+                sum += delta;
+                samples++;
+            }
+        }
+        double mean = samples == 0 ? 1e-3 : sum / samples;
+        return mean / Math.log(2);
+    }
+}
@@ -0,0 +1,157 @@
+package com.smartdorm.backend.matching;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Solves every {@link Partition} of an assignment run. Works purely on primitive arrays so it can run
+ * outside of any transaction or persistence context.
+ * <p>
+ * Partitions are independent, so they are solved concurrently on the given pool, largest first. Each one
+ * works on its own contiguous copy of its feature rows and depends on nothing but its own input, and the
+ * results are merged in partition order, so the outcome does not depend on thread scheduling.
+ * <p>
+ * Each partition is placed greedily ({@link GreedyRoomAssigner}) and then refined by the improvement phase of
+ * {@link SolverOptions#algorithm()}: {@link AnnealingOptimizer} or {@link GeneticOptimizer}. Small partitions (see
+ * {@link SolverOptions#exactMaxStudents()}), e.g. special-needs students or small colleges, get
+ * {@link MinCostOptimizer} instead, which takes exact min-cost steps rather than random ones. The phase's time cap
+ * is shared out in proportion to partition size, assuming the pool keeps all of its threads busy. The genetic
+ * phase evaluates its generations with parallel streams, which run on the same pool since they are started from
+ * one of its tasks.
+ * <p>
+ * Partitions get a cached distance matrix ({@link FeatureMatrix#withDistanceCache()}), smallest first, while the
+ * matrices fit in {@link SolverOptions#distanceCacheBytes()} together; the others compute every score directly.
+ * The choice is made before any partition starts, so it does not depend on scheduling either.
+ */
+public final class AssignmentSolver {
+
+    /**
+     * Timing and outcome of one partition; {@code violations} counts students above a conflict-rule limit.
+     */
+    public record PartitionStats(String key, int students, int beds, int placed, long millis,
+                                 double greedyCost, double finalCost, int violations) {
+    }
+
+    /**
+     * @param roomOf per partition, the room index (into {@link Partition#capacities()}) of each of its students,
+     *               or {@link GreedyRoomAssigner#UNASSIGNED}
+     * @param stats     per partition, in the same order
+     * @param costCurve total cost of all partitions at each {@code 1/CURVE_POINTS} step of their improvement runs
+     */
+    public record Solution(int[][] roomOf, List<PartitionStats> stats, double[] costCurve) {
+    }
+
+    private final ForkJoinPool pool;
+    private final SolverOptions options;
+
+    public AssignmentSolver(ForkJoinPool pool, SolverOptions options) {
+        this.pool = pool;
+        this.options = options;
+    }
+
+    public Solution solve(FeatureMatrix features, List<Partition> partitions, MatchingMonitor monitor) {
+        return solve(features, RoomConstraints.NONE, partitions, monitor);
+    }
+
+    /**
+     * @param constraints conflict rules compiled for {@code features}; every solver phase enforces them
+     */
+    public Solution solve(FeatureMatrix features, RoomConstraints constraints, List<Partition> partitions,
+                          MatchingMonitor monitor) {
+        int total = partitions.stream().mapToInt(Partition::size).sum();
+        AtomicInteger done = new AtomicInteger();
+        int[][] roomOf = new int[partitions.size()][];
+        PartitionStats[] stats = new PartitionStats[partitions.size()];
+        double[][] curves = new double[partitions.size()][];
+        boolean[] cached = planDistanceCaches(partitions);
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        IntStream.range(0, partitions.size()).boxed()
+                .sorted(Comparator.comparingInt((Integer p) -> partitions.get(p).size()).reversed())
+                .forEach(p -> tasks.add(pool.submit(() -> {
+                    Partition partition = partitions.get(p);
+                    monitor.checkCancelled();
+                    long start = System.nanoTime();
+                    FeatureMatrix rows = features.rows(partition.students());
+                    if (cached[p]) rows = rows.withDistanceCache();
+                    RoomConstraints rules = constraints.rows(partition.students());
+                    int[] greedy = GreedyRoomAssigner.assign(rows, partition.capacities(), rules, monitor);
+                    OptimizationResult improved = improve(rows, rules, partition, greedy, total, monitor);
+                    roomOf[p] = improved.roomOf();
+                    curves[p] = improved.curve();
+                    stats[p] = new PartitionStats(partition.key(), partition.size(), partition.beds(),
+                            countPlaced(roomOf[p]), (System.nanoTime() - start) / 1_000_000,
+                            improved.initialCost(), improved.finalCost(),
+                            rules.violations(roomOf[p], partition.capacities().length));
+                    monitor.progress(done.addAndGet(partition.size()), total);
+                })));
+
+        try {
+            // join() rethrows a task's exception, e.g. MatchingCancelledException
+            tasks.forEach(ForkJoinTask::join);
+        } catch (RuntimeException e) {
+            tasks.forEach(task -> task.cancel(false));
+            throw e;
+        }
+
+        double[] costCurve = new double[OptimizationResult.CURVE_POINTS + 1];
+        for (double[] curve : curves) {
+            for (int i = 0; i < costCurve.length; i++) costCurve[i] += curve[i];
+        }
+        return new Solution(roomOf, List.of(stats), costCurve);
+    }
+
+    /**
+     * Smallest partitions first, since a cache pays off per score evaluation while its size grows quadratically.
+     * Greedy-only runs score each pair about once and gain nothing from a cache.
+     */
+    private boolean[] planDistanceCaches(List<Partition> partitions) {
+        boolean[] cached = new boolean[partitions.size()];
+        if (options.algorithm() == MatchingAlgorithm.GREEDY) return cached;
+        long remaining = options.distanceCacheBytes();
+        Integer[] order = IntStream.range(0, partitions.size()).boxed()
+                .sorted(Comparator.comparingInt(p -> partitions.get(p).size()))
+                .toArray(Integer[]::new);
+        for (int p : order) {
+            long bytes = FeatureMatrix.distanceCacheBytes(partitions.get(p).size());
+            if (bytes > remaining) break;
+            cached[p] = true;
+            remaining -= bytes;
+        }
+        return cached;
+    }
+
+    private OptimizationResult improve(FeatureMatrix rows, RoomConstraints rules, Partition partition, int[] greedy,
+                                       int total, MatchingMonitor monitor) {
+        long budget = phaseBudget(partition, total);
+        long seed = options.seedFor(partition.key());
+        if (options.exact(partition.size())) {
+            return MinCostOptimizer.optimize(rows, partition.capacities(), greedy, rules, budget, monitor);
+        }
+        return switch (options.algorithm()) {
+            case GREEDY -> OptimizationResult.unchanged(greedy, rows.placementCost(greedy));
+            case ANNEALING -> AnnealingOptimizer.optimize(rows, partition.capacities(), greedy, rules,
+                    (long) options.annealIterationsPerStudent() * partition.size(), budget, seed, monitor);
+            case GENETIC -> GeneticOptimizer.optimize(rows, partition.capacities(), greedy, rules, options, budget, seed, monitor);
+        };
+    }
+
+    private long phaseBudget(Partition partition, int total) {
+        if (total == 0) return 0;
+        long share = options.phaseMillis() * pool.getParallelism() * partition.size() / total;
+        return Math.min(options.phaseMillis(), Math.max(1, share));
+    }
+
+    private static int countPlaced(int[] roomOf) {
+        int placed = 0;
+        for (int room : roomOf) {
+            if (room != GreedyRoomAssigner.UNASSIGNED) placed++;
+        }
+        return placed;
+    }
+}
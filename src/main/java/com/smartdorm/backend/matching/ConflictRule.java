@@ -0,0 +1,69 @@
+package com.smartdorm.backend.matching;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * "At most {@code maxPerRoom} students per room may match all {@code conditions}", e.g. the rule of
+ * docs/algorthm.txt that no room holds two students with neuroticism &gt; 0.7 and agreeableness &lt; 0.4.
+ * Conditions compare normalized feature values (0..1) of the cycle's {@link ScoringModel}.
+ */
+public record ConflictRule(String name, List<Condition> conditions, int maxPerRoom) {
+
+    public static final ConflictRule HIGH_NEUROTICISM_LOW_AGREEABLENESS = new ConflictRule(
+            "high-neuroticism-low-agreeableness",
+            List.of(new Condition("neuroticism", ">", 0.7), new Condition(ScoringModel.AGREEABLENESS_KEY, "<", 0.4)),
+            1);
+
+    private static final Pattern CONDITION = Pattern.compile("\\s*([A-Za-z_][A-Za-z0-9_]*)\\s*(<=|>=|<|>)\\s*(\\d+(?:\\.\\d+)?)\\s*");
+
+    public ConflictRule {
+        if (conditions.isEmpty()) throw new IllegalArgumentException("a rule needs at least one condition");
+        if (maxPerRoom < 1) throw new IllegalArgumentException("maxPerRoom must be at least 1");
+        conditions = List.copyOf(conditions);
+    }
+
+    /**
+     * One comparison of a feature against a threshold.
+     *
+     * @param operator one of {@code < <= > >=}
+     */
+    public record Condition(String feature, String operator, double threshold) {
+
+        public boolean test(double value) {
+            return switch (operator) {
+                case "<" -> value < threshold;
+                case "<=" -> value <= threshold;
+                case ">" -> value > threshold;
+                case ">=" -> value >= threshold;
+                default -> throw new IllegalArgumentException("Unknown operator: " + operator);
+            };
+        }
+
+        @Override
+        public String toString() {
+            return feature + " " + operator + " " + threshold;
+        }
+    }
+
+    /**
+     * Parses conditions of the form {@code neuroticism > 0.7 AND agreeableness < 0.4}.
+     *
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    public static ConflictRule parse(String name, String expression, int maxPerRoom) {
+        List<Condition> conditions = new ArrayList<>();
+        for (String part : expression.split("(?i)\\s+AND\\s+")) {
+            Matcher m = CONDITION.matcher(part);
+            if (!m.matches()) throw new IllegalArgumentException("Invalid condition: '" + part.trim() + "'");
+            conditions.add(new Condition(m.group(1), m.group(2), Double.parseDouble(m.group(3))));
+        }
+        return new ConflictRule(name, conditions, maxPerRoom);
+    }
+
+    public String expression() {
+        return String.join(" AND ", conditions.stream().map(Condition::toString).toList());
+    }
+}
@@ -0,0 +1,97 @@
+package com.smartdorm.backend.matching;
+
+/**
+ * Batch evaluation of the {@link ScoringModel} dissimilarity over a structure-of-arrays copy of a
+ * {@link FeatureMatrix}: one contiguous column per feature instead of one row per student.
+ * <p>
+ * {@link #scoreAgainst} scores one student against a block of others feature by feature. Each inner loop is a
+ * branch-free {@code abs}/{@code min} over two contiguous arrays, which HotSpot's auto-vectorizer compiles to SIMD
+ * instructions; the row-major {@link ScoringModel#score(double[], int, double[], int)} walks one pair at a time and
+ * cannot be vectorized that way. Features are summed in the same order as there, so both give identical results.
+ */
+public final class DissimilarityKernel {
+
+    private final int n;
+    private final double[][] columns;
+    private final double[] weights;
+    private final boolean[] minComplement;
+
+    private DissimilarityKernel(FeatureMatrix features) {
+        ScoringModel model = features.model();
+        int d = features.dimensions();
+        this.n = features.size();
+        this.columns = new double[d][n];
+        this.weights = new double[d];
+        this.minComplement = new boolean[d];
+        double[] rows = features.values();
+        for (int f = 0; f < d; f++) {
+            weights[f] = model.weight(f);
+            minComplement[f] = ScoringModel.AGREEABLENESS_KEY.equals(model.key(f));
+            double[] column = columns[f];
+            for (int s = 0; s < n; s++) column[s] = rows[s * d + f];
+        }
+    }
+
+    public static DissimilarityKernel of(FeatureMatrix features) {
+        return new DissimilarityKernel(features);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /** Dissimilarity of one pair, for callers that need a single value. */
+    public double score(int a, int b) {
+        double s = 0.0;
+        for (int f = 0; f < columns.length; f++) {
+            double x = columns[f][a];
+            double y = columns[f][b];
+            s += minComplement[f] ? weights[f] * (1.0 - Math.min(x, y)) : weights[f] * Math.abs(x - y);
+        }
+        return s;
+    }
+
+    /**
+     * Writes the dissimilarity of student {@code a} to each student of {@code [from, to)} into
+     * {@code out[0 .. to - from)}.
+     */
+    public void scoreAgainst(int a, int from, int to, double[] out) {
+        int len = to - from;
+        for (int j = 0; j < len; j++) out[j] = 0.0;
+        for (int f = 0; f < columns.length; f++) {
+            double[] column = columns[f];
+            double x = column[a];
+            double w = weights[f];
+            if (minComplement[f]) {
+                for (int j = 0; j < len; j++) out[j] += w * (1.0 - Math.min(x, column[from + j]));
+            } else {
+                for (int j = 0; j < len; j++) out[j] += w * Math.abs(x - column[from + j]);
+            }
+        }
+    }
+
+    /**
+     * Upper triangle of the pairwise dissimilarity matrix as {@code float}s, row by row: pair {@code a < b} is
+     * at {@link #triangleIndex(int, int, int)}.
+     */
+    public float[] upperTriangle() {
+        float[] triangle = new float[Math.toIntExact(triangleSize(n))];
+        double[] row = new double[n];
+        int k = 0;
+        for (int a = 0; a < n - 1; a++) {
+            scoreAgainst(a, a + 1, n, row);
+            for (int j = 0, len = n - a - 1; j < len; j++) triangle[k++] = (float) row[j];
+        }
+        return triangle;
+    }
+
+    /** Number of pairs among {@code n} students. */
+    public static long triangleSize(int n) {
+        return (long) n * (n - 1) / 2;
+    }
+
+    /** Position of pair {@code a < b} in {@link #upperTriangle()}. */
+    public static int triangleIndex(int a, int b, int n) {
+        return (int) ((long) a * (2L * n - a - 1) / 2 + (b - a - 1));
+    }
+}
@@ -0,0 +1,188 @@
+package com.smartdorm.backend.matching;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Dense, row-major matrix of normalized student features for one cycle.
+ * <p>
+ * Students are addressed by compact int ids (the row index, see {@link #userId(int)}); the features of
+ * student {@code s} occupy {@code values[s * d .. s * d + d)}. Keeping every row in one {@code double[]}
+ * avoids per-student objects and keeps the pairwise scoring loops on contiguous memory.
+ * <p>
+ * Next to the SOFT_FACTOR features the matrix carries the raw answers of the HARD_FILTER dimensions
+ * ({@link #filterValue(int, int)}), which are used for partitioning rather than scoring. Unanswered
+ * filters are {@code NaN}.
+ * <p>
+ * {@link #withDistanceCache()} returns a copy that looks scores up in a precomputed upper-triangular
+ * {@code float} matrix instead of recomputing them; callers decide whether it fits in memory
+ * ({@link #distanceCacheBytes(int)}).
+ */
+public final class FeatureMatrix {
+
+    private final ScoringModel model;
+    private final UUID[] userIds;
+    private final double[] values;
+    private final String[] filterKeys;
+    private final double[] filterValues;
+    private final int d;
+    private final float[] distances;
+    private Map<UUID, Integer> rowIndex;
+
+    public FeatureMatrix(ScoringModel model, UUID[] userIds, double[] values, List<String> filterKeys, double[] filterValues) {
+        this(model, userIds, values, filterKeys.toArray(new String[0]), filterValues, null);
+    }
+
+    private FeatureMatrix(ScoringModel model, UUID[] userIds, double[] values, String[] filterKeys, double[] filterValues,
+                          float[] distances) {
+        this.model = model;
+        this.userIds = userIds;
+        this.values = values;
+        this.filterKeys = filterKeys;
+        this.filterValues = filterValues;
+        this.d = model.dimensions();
+        this.distances = distances;
+        if (values.length != userIds.length * d || filterValues.length != userIds.length * this.filterKeys.length) {
+            throw new IllegalArgumentException("matrix size does not match students x dimensions");
+        }
+    }
+
+    /**
+     * Wraps plain per-student vectors, e.g. for tests or callers that already hold normalized values.
+     */
+    public static FeatureMatrix of(ScoringModel model, double[][] rows) {
+        int d = model.dimensions();
+        double[] values = new double[rows.length * d];
+        UUID[] ids = new UUID[rows.length];
+        for (int s = 0; s < rows.length; s++) {
+            System.arraycopy(rows[s], 0, values, s * d, d);
+            ids[s] = new UUID(0L, s);
+        }
+        return new FeatureMatrix(model, ids, values, List.of(), new double[0]);
+    }
+
+    public ScoringModel model() {
+        return model;
+    }
+
+    public int size() {
+        return userIds.length;
+    }
+
+    public int dimensions() {
+        return d;
+    }
+
+    public UUID userId(int student) {
+        return userIds[student];
+    }
+
+    /** Compact id of the given user, or -1 if the user has no row in this matrix. */
+    public int indexOf(UUID userId) {
+        Map<UUID, Integer> index = rowIndex;
+        if (index == null) {
+            index = new HashMap<>(userIds.length * 2);
+            for (int s = 0; s < userIds.length; s++) index.put(userIds[s], s);
+            rowIndex = index;
+        }
+        return index.getOrDefault(userId, -1);
+    }
+
+    public double get(int student, int feature) {
+        return values[student * d + feature];
+    }
+
+    /** The backing row-major array; row {@code s} starts at {@code s * dimensions()}. Must not be modified. */
+    public double[] values() {
+        return values;
+    }
+
+    /** Dissimilarity of two students of this matrix. */
+    public double score(int a, int b) {
+        // the diagonal is not cached; it is not 0 because of the min-complement term
+        if (distances == null || a == b) return model.score(values, a * d, values, b * d);
+        int n = userIds.length;
+        return a < b ? distances[DissimilarityKernel.triangleIndex(a, b, n)] : distances[DissimilarityKernel.triangleIndex(b, a, n)];
+    }
+
+    /**
+     * Copy of this matrix whose {@link #score} reads from a precomputed {@code float} distance matrix of
+     * {@link #distanceCacheBytes(int)} bytes.
+     */
+    public FeatureMatrix withDistanceCache() {
+        if (distances != null) return this;
+        float[] triangle = DissimilarityKernel.of(this).upperTriangle();
+        return new FeatureMatrix(model, userIds, values, filterKeys, filterValues, triangle);
+    }
+
+    public boolean hasDistanceCache() {
+        return distances != null;
+    }
+
+    /** Memory taken by the distance cache of {@code n} students, or {@code Long.MAX_VALUE} if it cannot be built. */
+    public static long distanceCacheBytes(int n) {
+        long pairs = DissimilarityKernel.triangleSize(n);
+        return pairs > Integer.MAX_VALUE - 8 ? Long.MAX_VALUE : pairs * Float.BYTES;
+    }
+
+    /**
+     * Summed pairwise dissimilarity inside every room of a placement of this matrix's students.
+     *
+     * @param roomOf room of every student, or a negative value for unassigned students
+     */
+    public double placementCost(int[] roomOf) {
+        int rooms = 0;
+        for (int r : roomOf) rooms = Math.max(rooms, r + 1);
+        // counting sort of the students by room, so each room's members are contiguous
+        int[] start = new int[rooms + 1];
+        for (int r : roomOf) if (r >= 0) start[r + 1]++;
+        for (int r = 0; r < rooms; r++) start[r + 1] += start[r];
+        int[] next = Arrays.copyOf(start, rooms);
+        int[] members = new int[start[rooms]];
+        for (int s = 0; s < roomOf.length; s++) if (roomOf[s] >= 0) members[next[roomOf[s]]++] = s;
+
+        double cost = 0.0;
+        for (int r = 0; r < rooms; r++) {
+            for (int i = start[r]; i < start[r + 1]; i++) {
+                for (int j = i + 1; j < start[r + 1]; j++) cost += score(members[i], members[j]);
+            }
+        }
+        return cost;
+    }
+
+    public List<String> filterKeys() {
+        return List.of(filterKeys);
+    }
+
+    public int indexOfFilter(String key) {
+        for (int i = 0; i < filterKeys.length; i++) {
+            if (filterKeys[i].equals(key)) return i;
+        }
+        return -1;
+    }
+
+    /** Raw answer of a HARD_FILTER dimension, or {@code NaN} if the student did not answer it. */
+    public double filterValue(int student, int filter) {
+        return filterValues[student * filterKeys.length + filter];
+    }
+
+    /**
+     * Copies the given rows into a new, contiguous matrix whose row {@code k} is row {@code students[k]} of this one.
+     */
+    public FeatureMatrix rows(int[] students) {
+        int h = filterKeys.length;
+        double[] subValues = new double[students.length * d];
+        double[] subFilters = new double[students.length * h];
+        UUID[] subIds = new UUID[students.length];
+        for (int k = 0; k < students.length; k++) {
+            int s = students[k];
+            System.arraycopy(values, s * d, subValues, k * d, d);
+            System.arraycopy(filterValues, s * h, subFilters, k * h, h);
+            subIds[k] = userIds[s];
+        }
+        return new FeatureMatrix(model, subIds, subValues, filterKeys, subFilters, null);
+    }
+}
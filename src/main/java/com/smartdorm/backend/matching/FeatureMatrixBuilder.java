@@ -0,0 +1,140 @@
+package com.smartdorm.backend.matching;
+
+import com.smartdorm.backend.entity.DimensionOption;
+import com.smartdorm.backend.entity.SurveyDimension;
+
+import java.util.*;
+
+/**
+ * Packs the survey answers of one cycle into a {@link FeatureMatrix}, one answer at a time, so that the
+ * answers can be streamed straight from a projection query without materializing entities.
+ * <p>
+ * Every top-level SOFT_FACTOR dimension becomes one feature. COMPOSITE dimensions (the Big Five traits)
+ * take the mean of their child questions, with reverse-scored questions flipped ({@code 6 - i} on a 1..5 scale).
+ * Each value is min-max normalized to [0, 1] using the dimension's option range; unanswered features default
+ * to the neutral 0.5. Top-level HARD_FILTER dimensions are kept as raw answers for partitioning.
+ */
+public final class FeatureMatrixBuilder {
+
+    private static final double NEUTRAL = 0.5;
+
+    private final UUID[] students;
+    private final Map<UUID, Integer> studentIndex;
+    private final Map<UUID, Integer> columnOf = new HashMap<>();
+    // per answered dimension: target column, normalization range and direction
+    private final double[] min;
+    private final double[] max;
+    private final boolean[] reverse;
+    private final boolean[] filter;
+    private final Map<UUID, Integer> specOf = new HashMap<>();
+
+    private final ScoringModel model;
+    private final List<String> filterKeys;
+    private final double[] sums;
+    private final int[] counts;
+    private final double[] filterValues;
+
+    /**
+     * @param dimensions all dimensions of the cycle
+     * @param students   users to build rows for; row {@code i} of the matrix belongs to {@code students[i]}
+     */
+    public FeatureMatrixBuilder(List<SurveyDimension> dimensions, UUID[] students) {
+        List<SurveyDimension> features = topLevel(dimensions, "SOFT_FACTOR");
+        List<SurveyDimension> filters = topLevel(dimensions, "HARD_FILTER");
+        Map<String, Integer> featureIndex = new HashMap<>();
+        for (int i = 0; i < features.size(); i++) featureIndex.put(features.get(i).getDimensionKey(), i);
+        Map<String, Integer> filterIndex = new HashMap<>();
+        for (int i = 0; i < filters.size(); i++) filterIndex.put(filters.get(i).getDimensionKey(), i);
+
+        int specs = dimensions.size();
+        this.min = new double[specs];
+        this.max = new double[specs];
+        this.reverse = new boolean[specs];
+        this.filter = new boolean[specs];
+        for (SurveyDimension dim : dimensions) {
+            String key = dim.getParentDimensionKey() != null ? dim.getParentDimensionKey() : dim.getDimensionKey();
+            Integer column = featureIndex.get(key);
+            boolean isFilter = column == null && dim.getParentDimensionKey() == null && filterIndex.containsKey(key);
+            if (isFilter) column = filterIndex.get(key);
+            if (column == null) continue;
+
+            int spec = specOf.size();
+            specOf.put(dim.getId(), spec);
+            columnOf.put(dim.getId(), column);
+            filter[spec] = isFilter;
+            reverse[spec] = dim.isReverseScored();
+            double[] range = range(dim);
+            min[spec] = range[0];
+            max[spec] = range[1];
+        }
+
+        this.students = students;
+        this.studentIndex = new HashMap<>(students.length * 2);
+        for (int s = 0; s < students.length; s++) studentIndex.put(students[s], s);
+
+        this.model = new ScoringModel(
+                features.stream().map(SurveyDimension::getDimensionKey).toList(),
+                features.stream().map(SurveyDimension::getWeight).toList());
+        this.filterKeys = filters.stream().map(SurveyDimension::getDimensionKey).toList();
+        this.sums = new double[students.length * features.size()];
+        this.counts = new int[students.length * features.size()];
+        this.filterValues = new double[students.length * filters.size()];
+        Arrays.fill(filterValues, Double.NaN);
+    }
+
+    /**
+     * Adds one answer. Answers of unknown students or of dimensions that are neither a feature nor a filter are ignored.
+     */
+    public void accept(UUID userId, UUID dimensionId, double rawValue) {
+        Integer s = studentIndex.get(userId);
+        Integer spec = specOf.get(dimensionId);
+        if (s == null || spec == null) return;
+        int column = columnOf.get(dimensionId);
+        if (filter[spec]) {
+            filterValues[s * filterKeys.size() + column] = rawValue;
+        } else {
+            int cell = s * model.dimensions() + column;
+            sums[cell] += normalize(rawValue, min[spec], max[spec], reverse[spec]);
+            counts[cell]++;
+        }
+    }
+
+    public FeatureMatrix build() {
+        double[] values = new double[sums.length];
+        for (int cell = 0; cell < values.length; cell++) {
+            values[cell] = counts[cell] == 0 ? NEUTRAL : sums[cell] / counts[cell];
+        }
+        return new FeatureMatrix(model, students, values, filterKeys, filterValues);
+    }
+
+    private static List<SurveyDimension> topLevel(List<SurveyDimension> dimensions, String type) {
+        return dimensions.stream()
+                .filter(d -> type.equals(d.getDimensionType()) && d.getParentDimensionKey() == null)
+                .sorted(Comparator.comparing(SurveyDimension::getDimensionKey))
+                .toList();
+    }
+
+    /** Answer range of a dimension: the span of its option values, or 1..5 for SCALE questions. */
+    private static double[] range(SurveyDimension dimension) {
+        if (dimension.getOptions().isEmpty()) {
+            return new double[]{1.0, 5.0};
+        }
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (DimensionOption option : dimension.getOptions()) {
+            min = Math.min(min, option.getOptionValue());
+            max = Math.max(max, option.getOptionValue());
+        }
+        return new double[]{min, max};
+    }
+
+    /**
+     * Maps a raw answer onto [0, 1], flipping reverse-scored answers.
+     */
+    static double normalize(double raw, double min, double max, boolean reverseScored) {
+        if (max <= min) return NEUTRAL;
+        double value = reverseScored ? (max + min - raw) : raw;
+        double normalized = (value - min) / (max - min);
+        return Math.max(0.0, Math.min(1.0, normalized));
+    }
+}
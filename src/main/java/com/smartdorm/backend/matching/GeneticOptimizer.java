@@ -0,0 +1,260 @@
+package com.smartdorm.backend.matching;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static com.smartdorm.backend.matching.OptimizationResult.CURVE_POINTS;
+
+/**
+ * Genetic algorithm that improves an initial placement of one partition; meant for very large intakes, where
+ * its parallel generations make quality scale with the number of cores.
+ * <p>
+ * A genome is a permutation of {@code 0 .. L-1} over the bed slots of the partition, laid out room by room
+ * ({@code L = max(beds, students)}). Values below the student count are students, the others mark empty beds;
+ * slots past the last bed hold the students left without a bed. Fitness is the summed in-room dissimilarity
+ * (lower is better) plus {@link RoomConstraints#penalty(int)} per rule violation, and is evaluated for the whole
+ * population in parallel, as is breeding. The cost curve follows that penalized fitness.
+ * <p>
+ * Crossover preserves rooms: the child takes about half of parent A's rooms as they are and fills the remaining
+ * slots with the missing students in the order they appear in parent B. Mutation swaps random slots. The two
+ * best genomes survive unchanged. Both population buffers are allocated once and swapped every generation.
+ * The run stops after {@code maxGenerations}, when the time cap is reached, or when the best fitness has not
+ * improved for {@code plateauGenerations}. Every child draws from a random stream derived from the seed, the
+ * generation and its index, so the result does not depend on how the work is spread over threads.
+ */
+public final class GeneticOptimizer {
+
+    private static final int TOURNAMENT_SIZE = 3;
+    private static final int ELITES = 2;
+    private static final double EXTRA_MUTATION_PROBABILITY = 0.3;
+
+    private final FeatureMatrix features;
+    private final int n;
+    private final int length;
+    private final int rooms;
+    private final int[] roomStart;
+    private final int[] roomOfSlot;
+    private final long seed;
+    private final RoomConstraints constraints;
+    private final boolean constrained;
+    private final double penalty;
+
+    private int[][] population;
+    private int[][] offspring;
+    private final double[] fitness;
+    private final int[][] marks;
+
+    private GeneticOptimizer(FeatureMatrix features, int[] capacities, RoomConstraints constraints, int populationSize, long seed) {
+        this.features = features;
+        this.constraints = constraints;
+        this.constrained = !constraints.isEmpty();
+        this.penalty = constraints.penalty(Arrays.stream(capacities).max().orElse(0));
+        this.n = features.size();
+        this.rooms = capacities.length;
+        this.roomStart = new int[rooms + 1];
+        for (int r = 0; r < rooms; r++) roomStart[r + 1] = roomStart[r] + capacities[r];
+        this.length = Math.max(roomStart[rooms], n);
+        this.roomOfSlot = new int[length];
+        Arrays.fill(roomOfSlot, GreedyRoomAssigner.UNASSIGNED);
+        for (int r = 0; r < rooms; r++) Arrays.fill(roomOfSlot, roomStart[r], roomStart[r + 1], r);
+        this.seed = seed;
+
+        int size = Math.max(populationSize, ELITES + 1);
+        this.population = new int[size][length];
+        this.offspring = new int[size][length];
+        this.fitness = new double[size];
+        this.marks = new int[size][length];
+    }
+
+    public static OptimizationResult optimize(FeatureMatrix features, int[] capacities, int[] initial,
+                                              SolverOptions options, long budgetMillis, long seed, MatchingMonitor monitor) {
+        return optimize(features, capacities, initial, RoomConstraints.NONE, options, budgetMillis, seed, monitor);
+    }
+
+    /**
+     * @param initial     starting room of every student, or {@link GreedyRoomAssigner#UNASSIGNED}; not modified
+     * @param constraints conflict rules, compiled for {@code features}
+     */
+    public static OptimizationResult optimize(FeatureMatrix features, int[] capacities, int[] initial,
+                                              RoomConstraints constraints, SolverOptions options, long budgetMillis,
+                                              long seed, MatchingMonitor monitor) {
+        double initialCost = features.placementCost(initial);
+        if (features.size() < 2 || capacities.length < 2 || options.maxGenerations() <= 0 || budgetMillis <= 0) {
+            return OptimizationResult.unchanged(initial.clone(), initialCost);
+        }
+        return new GeneticOptimizer(features, capacities, constraints, options.populationSize(), seed)
+                .run(initial, initialCost, options.maxGenerations(), options.plateauGenerations(), budgetMillis, monitor);
+    }
+
+    private OptimizationResult run(int[] initial, double initialCost, int maxGenerations, int plateauGenerations,
+                                   long budgetMillis, MatchingMonitor monitor) {
+        seedPopulation(encode(initial));
+        double[] curve = new double[CURVE_POINTS + 1];
+        curve[0] = initialCost;
+        int nextPoint = 1;
+
+        long start = System.nanoTime();
+        long budgetNanos = budgetMillis * 1_000_000;
+        double best = Double.POSITIVE_INFINITY;
+        int lastImprovement = 0;
+        int generation = 0;
+
+        while (true) {
+            monitor.checkCancelled();
+            int[][] current = population;
+            IntStream.range(0, current.length).parallel().forEach(i -> fitness[i] = cost(current[i]));
+            double generationBest = Arrays.stream(fitness).min().orElseThrow();
+            if (generationBest < best - 1e-12) {
+                best = generationBest;
+                lastImprovement = generation;
+            }
+
+            double progress = Math.max((double) generation / maxGenerations,
+                    (double) (System.nanoTime() - start) / budgetNanos);
+            while (nextPoint < CURVE_POINTS && progress >= (double) nextPoint / CURVE_POINTS) {
+                curve[nextPoint++] = best;
+            }
+            if (progress >= 1.0 || generation - lastImprovement >= plateauGenerations) break;
+
+            breed(++generation);
+        }
+        while (nextPoint <= CURVE_POINTS) curve[nextPoint++] = best;
+
+        int[] roomOf = decode(population[ranking()[0]]);
+        double finalCost = constrained ? features.placementCost(roomOf) : best;
+        return new OptimizationResult(roomOf, initialCost, finalCost, generation, curve);
+    }
+
+    /** Fills {@link #offspring} from {@link #population} and swaps the two buffers. */
+    private void breed(int generation) {
+        int[] ranking = ranking();
+        for (int e = 0; e < ELITES; e++) {
+            System.arraycopy(population[ranking[e]], 0, offspring[e], 0, length);
+        }
+        IntStream.range(ELITES, offspring.length).parallel().forEach(i -> {
+            SplittableRandom random = new SplittableRandom(mix(seed, generation, i));
+            int[] a = population[select(random)];
+            int[] b = population[select(random)];
+            crossover(a, b, offspring[i], marks[i], generation, random);
+            do {
+                mutate(offspring[i], random);
+            } while (random.nextDouble() < EXTRA_MUTATION_PROBABILITY);
+        });
+        int[][] previous = population;
+        population = offspring;
+        offspring = previous;
+    }
+
+    /**
+     * Child keeps a random half of {@code a}'s rooms intact; the other slots receive the remaining values in
+     * the order they appear in {@code b}. {@code mark} is per-child scratch space; a value counts as placed when
+     * its mark equals {@code stamp}, so the array never needs clearing.
+     */
+    private void crossover(int[] a, int[] b, int[] child, int[] mark, int stamp, SplittableRandom random) {
+        Arrays.fill(child, -1);
+        for (int r = 0; r < rooms; r++) {
+            if (!random.nextBoolean()) continue;
+            for (int slot = roomStart[r]; slot < roomStart[r + 1]; slot++) {
+                child[slot] = a[slot];
+                mark[a[slot]] = stamp;
+            }
+        }
+        int slot = 0;
+        for (int value : b) {
+            if (mark[value] == stamp) continue;
+            while (child[slot] != -1) slot++;
+            child[slot] = value;
+        }
+    }
+
+    private void mutate(int[] genome, SplittableRandom random) {
+        int i = random.nextInt(length);
+        int j = random.nextInt(length);
+        int tmp = genome[i];
+        genome[i] = genome[j];
+        genome[j] = tmp;
+    }
+
+    /** Tournament selection: the fittest of a few random genomes. */
+    private int select(SplittableRandom random) {
+        int winner = random.nextInt(population.length);
+        for (int k = 1; k < TOURNAMENT_SIZE; k++) {
+            int challenger = random.nextInt(population.length);
+            if (fitness[challenger] < fitness[winner]) winner = challenger;
+        }
+        return winner;
+    }
+
+    /** Population indexes from fittest to least fit; ties keep index order. */
+    private int[] ranking() {
+        return IntStream.range(0, population.length).boxed()
+                .sorted((x, y) -> Double.compare(fitness[x], fitness[y]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private double cost(int[] genome) {
+        double cost = 0.0;
+        for (int r = 0; r < rooms; r++) {
+            int end = roomStart[r + 1];
+            for (int i = roomStart[r]; i < end; i++) {
+                int a = genome[i];
+                if (a >= n) continue;
+                for (int j = i + 1; j < end; j++) {
+                    if (genome[j] < n) cost += features.score(a, genome[j]);
+                }
+            }
+            if (constrained) cost += penalty * constraints.excess(genome, roomStart[r], end);
+        }
+        return cost;
+    }
+
+    /**
+     * Genome 0 is the starting placement; half of the rest are lightly perturbed copies of it and the other
+     * half random permutations, for diversity.
+     */
+    private void seedPopulation(int[] start) {
+        for (int i = 0; i < population.length; i++) {
+            int[] genome = population[i];
+            System.arraycopy(start, 0, genome, 0, length);
+            if (i == 0) continue;
+            SplittableRandom random = new SplittableRandom(mix(seed, 0, i));
+            int swaps = i < population.length / 2 ? Math.max(1, n / 10) : length;
+            for (int k = 0; k < swaps; k++) mutate(genome, random);
+        }
+    }
+
+    private int[] encode(int[] roomOf) {
+        int[] genome = new int[length];
+        int[] next = Arrays.copyOf(roomStart, rooms);
+        int overflow = roomStart[rooms];
+        for (int s = 0; s < n; s++) {
+            int r = roomOf[s];
+            genome[r == GreedyRoomAssigner.UNASSIGNED ? overflow++ : next[r]++] = s;
+        }
+        // empty beds and unused overflow slots get the placeholder values n .. length-1
+        int placeholder = n;
+        for (int r = 0; r < rooms; r++) {
+            while (next[r] < roomStart[r + 1]) genome[next[r]++] = placeholder++;
+        }
+        while (overflow < length) genome[overflow++] = placeholder++;
+        return genome;
+    }
+
+    private int[] decode(int[] genome) {
+        int[] roomOf = new int[n];
+        for (int slot = 0; slot < length; slot++) {
+            if (genome[slot] < n) roomOf[genome[slot]] = roomOfSlot[slot];
+        }
+        return roomOf;
+    }
+
+    private static long mix(long seed, long generation, long index) {
+        long h = seed ^ (generation * 0x9E3779B97F4A7C15L) ^ (index * 0xC2B2AE3D27D4EB4FL);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
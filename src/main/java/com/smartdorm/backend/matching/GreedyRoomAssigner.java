@@ -0,0 +1,94 @@
+package com.smartdorm.backend.matching;
+
+import java.util.Arrays;
+
+/**
+ * Greedy construction of rooms with low intra-room dissimilarity.
+ * <p>
+ * Rooms are filled one at a time: the first unplaced student (in input order) seeds the room, then the
+ * unplaced student with the smallest summed dissimilarity to the current members takes the next bed.
+ * The summed dissimilarities are kept in one accumulator array and updated incrementally, so filling a
+ * room of capacity {@code c} costs {@code O(c * n)} score evaluations and a full run {@code O(n²)}.
+ * <p>
+ * A candidate whose joining would break a {@link RoomConstraints} rule is passed over, unless every remaining
+ * candidate would.
+ */
+public final class GreedyRoomAssigner {
+
+    public static final int UNASSIGNED = -1;
+
+    private GreedyRoomAssigner() {
+    }
+
+    public static int[] assign(double[][] vectors, int[] capacities, ScoringModel model) {
+        return assign(FeatureMatrix.of(model, vectors), capacities, MatchingMonitor.NONE);
+    }
+
+    /**
+     * @param features   normalized student features; the row order is also the seed priority
+     * @param capacities free beds per room, in the order rooms should be filled
+     * @param monitor    checked for cancellation once per room
+     * @return the room index of every student, or {@link #UNASSIGNED} if all beds ran out
+     */
+    public static int[] assign(FeatureMatrix features, int[] capacities, MatchingMonitor monitor) {
+        return assign(features, capacities, RoomConstraints.NONE, monitor);
+    }
+
+    /**
+     * @param features    normalized student features; the row order is also the seed priority
+     * @param capacities  free beds per room, in the order rooms should be filled
+     * @param constraints conflict rules, compiled for {@code features}
+     * @param monitor     checked for cancellation once per room
+     * @return the room index of every student, or {@link #UNASSIGNED} if all beds ran out
+     */
+    public static int[] assign(FeatureMatrix features, int[] capacities, RoomConstraints constraints, MatchingMonitor monitor) {
+        boolean constrained = !constraints.isEmpty();
+        RoomConstraints.Tracker tracker = constraints.tracker(capacities.length);
+        ScoringModel model = features.model();
+        double[] x = features.values();
+        int d = features.dimensions();
+        int n = features.size();
+        int[] roomOf = new int[n];
+        Arrays.fill(roomOf, UNASSIGNED);
+
+        double[] acc = new double[n];
+        int remaining = n;
+        int seedCursor = 0;
+
+        for (int room = 0; room < capacities.length && remaining > 0; room++) {
+            if (capacities[room] <= 0) continue;
+            monitor.checkCancelled();
+
+            while (roomOf[seedCursor] != UNASSIGNED) seedCursor++;
+            Arrays.fill(acc, 0.0);
+            int member = seedCursor;
+
+            for (int filled = 0; ; ) {
+                roomOf[member] = room;
+                if (constrained) tracker.add(member, room);
+                remaining--;
+                if (++filled == capacities[room] || remaining == 0) break;
+
+                int m = member * d;
+                int best = UNASSIGNED;
+                int bestAllowed = UNASSIGNED;
+                double bestCost = Double.POSITIVE_INFINITY;
+                double bestAllowedCost = Double.POSITIVE_INFINITY;
+                for (int j = seedCursor; j < n; j++) {
+                    if (roomOf[j] != UNASSIGNED) continue;
+                    double cost = acc[j] += model.score(x, m, x, j * d);
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        best = j;
+                    }
+                    if (constrained && cost < bestAllowedCost && tracker.excessDelta(room, -1, j) == 0) {
+                        bestAllowedCost = cost;
+                        bestAllowed = j;
+                    }
+                }
+                member = constrained && bestAllowed != UNASSIGNED ? bestAllowed : best;
+            }
+        }
+        return roomOf;
+    }
+}
@@ -0,0 +1,143 @@
+package com.smartdorm.backend.matching;
+
+import java.util.*;
+
+/**
+ * Splits an assignment run into independent {@link Partition}s along the strict constraints, so each one can
+ * be matched on its own instead of solving one large {@code O(n²)} problem.
+ * <p>
+ * Students are bucketed by gender, then college, then their answers to the HARD_FILTER dimensions (e.g. dorm
+ * atmosphere). Gender is the only constraint rooms carry, so each bucket claims whole rooms from its gender's
+ * free rooms, in fill order, for as long as it can fill them completely. The students left over after that
+ * spill into the next coarser level (gender + college, then gender alone), where they are bucketed and placed
+ * the same way. The gender level finally receives every room that is still free. Students who did not answer
+ * a filter skip the filter level and go straight to their college bucket.
+ * <p>
+ * Special-needs students are bucketed first, by gender alone, so they share rooms with each other. These
+ * buckets are small and are solved exactly (see {@link MinCostOptimizer}); whoever cannot fill a whole room
+ * continues at the filter or college level like everyone else.
+ */
+public final class HardFilterPartitioner {
+
+    private static final int SPECIAL_NEEDS_LEVEL = 3;
+    private static final int FILTER_LEVEL = 2;
+    private static final int COLLEGE_LEVEL = 1;
+    private static final int GENDER_LEVEL = 0;
+
+    private HardFilterPartitioner() {
+    }
+
+    public static List<Partition> partition(int[] students, String[] genderOf, String[] collegeOf, FeatureMatrix features,
+                                            String[] roomGender, int[] roomCapacity) {
+        return partition(students, genderOf, collegeOf, new boolean[genderOf.length], features, roomGender, roomCapacity);
+    }
+
+    /**
+     * @param students        candidate students (compact ids); ascending id order is the seed priority order
+     * @param genderOf        gender of every compact id
+     * @param collegeOf       college of every compact id
+     * @param specialNeedsOf  special-needs flag of every compact id
+     * @param features        source of the HARD_FILTER answers
+     * @param roomGender      gender of every free room
+     * @param roomCapacity    free beds of every room; room ids are indexes into this array, in fill order
+     */
+    public static List<Partition> partition(int[] students, String[] genderOf, String[] collegeOf, boolean[] specialNeedsOf,
+                                            FeatureMatrix features, String[] roomGender, int[] roomCapacity) {
+        Map<String, Deque<Integer>> freeRooms = new TreeMap<>();
+        for (int r = 0; r < roomGender.length; r++) {
+            if (roomCapacity[r] > 0) freeRooms.computeIfAbsent(roomGender[r], g -> new ArrayDeque<>()).add(r);
+        }
+
+        List<Partition> partitions = new ArrayList<>();
+        List<Integer> specialNeeds = new ArrayList<>();
+        List<Integer> regular = new ArrayList<>();
+        for (int s : students) {
+            (specialNeedsOf[s] ? specialNeeds : regular).add(s);
+        }
+        List<Integer> spill = new ArrayList<>();
+        placeLevel(SPECIAL_NEEDS_LEVEL, specialNeeds, genderOf, collegeOf, features, freeRooms, roomCapacity, partitions, spill);
+        regular.addAll(spill);
+        regular.sort(null);
+
+        // Students who answered every filter start at the filter level, everyone else at the college level
+        boolean filtered = !features.filterKeys().isEmpty();
+        List<Integer> pending = new ArrayList<>();
+        List<Integer> collegeLevel = new ArrayList<>();
+        for (int s : regular) {
+            (filtered && hasAllFilters(features, s) ? pending : collegeLevel).add(s);
+        }
+
+        spill = new ArrayList<>();
+        placeLevel(FILTER_LEVEL, pending, genderOf, collegeOf, features, freeRooms, roomCapacity, partitions, spill);
+
+        collegeLevel.addAll(spill);
+        collegeLevel.sort(null);
+        spill = new ArrayList<>();
+        placeLevel(COLLEGE_LEVEL, collegeLevel, genderOf, collegeOf, features, freeRooms, roomCapacity, partitions, spill);
+
+        spill.sort(null);
+        placeLevel(GENDER_LEVEL, spill, genderOf, collegeOf, features, freeRooms, roomCapacity, partitions, new ArrayList<>());
+        return partitions;
+    }
+
+    private static void placeLevel(int level, List<Integer> students, String[] genderOf, String[] collegeOf,
+                                   FeatureMatrix features, Map<String, Deque<Integer>> freeRooms, int[] roomCapacity,
+                                   List<Partition> partitions, List<Integer> spill) {
+        Map<String, List<Integer>> buckets = new TreeMap<>();
+        for (int s : students) {
+            buckets.computeIfAbsent(key(level, s, genderOf, collegeOf, features), k -> new ArrayList<>()).add(s);
+        }
+
+        for (Map.Entry<String, List<Integer>> bucket : buckets.entrySet()) {
+            List<Integer> members = bucket.getValue();
+            Deque<Integer> rooms = freeRooms.getOrDefault(genderOf[members.get(0)], new ArrayDeque<>());
+
+            List<Integer> claimed = new ArrayList<>();
+            int beds = 0;
+            if (level == GENDER_LEVEL) {
+                while (!rooms.isEmpty()) {
+                    int room = rooms.poll();
+                    claimed.add(room);
+                    beds += roomCapacity[room];
+                }
+            } else {
+                while (!rooms.isEmpty() && beds + roomCapacity[rooms.peek()] <= members.size()) {
+                    int room = rooms.poll();
+                    claimed.add(room);
+                    beds += roomCapacity[room];
+                }
+            }
+
+            int placed = level == GENDER_LEVEL ? members.size() : beds;
+            if (placed > 0) {
+                int[] ids = claimed.stream().mapToInt(Integer::intValue).toArray();
+                int[] capacities = new int[ids.length];
+                for (int i = 0; i < ids.length; i++) capacities[i] = roomCapacity[ids[i]];
+                int[] bucketStudents = members.subList(0, placed).stream().mapToInt(Integer::intValue).toArray();
+                partitions.add(new Partition(bucket.getKey(), bucketStudents, ids, capacities));
+            }
+            spill.addAll(members.subList(placed, members.size()));
+        }
+    }
+
+    private static String key(int level, int s, String[] genderOf, String[] collegeOf, FeatureMatrix features) {
+        StringBuilder key = new StringBuilder(genderOf[s]);
+        if (level == SPECIAL_NEEDS_LEVEL) return key.append("/special-needs").toString();
+        if (level >= COLLEGE_LEVEL) key.append('/').append(collegeOf[s]);
+        if (level >= FILTER_LEVEL) {
+            List<String> filters = features.filterKeys();
+            for (int f = 0; f < filters.size(); f++) {
+                key.append('/').append(filters.get(f)).append('=').append(features.filterValue(s, f));
+            }
+        }
+        return key.toString();
+    }
+
+    private static boolean hasAllFilters(FeatureMatrix features, int s) {
+        int filters = features.filterKeys().size();
+        for (int f = 0; f < filters; f++) {
+            if (Double.isNaN(features.filterValue(s, f))) return false;
+        }
+        return true;
+    }
+}
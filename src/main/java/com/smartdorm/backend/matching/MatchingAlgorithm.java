@@ -0,0 +1,13 @@
+package com.smartdorm.backend.matching;
+
+/**
+ * Improvement phase applied to each partition after the greedy placement. Chosen per cycle.
+ */
+public enum MatchingAlgorithm {
+    /** Keep the greedy placement. */
+    GREEDY,
+    /** Refine it with {@link AnnealingOptimizer}. */
+    ANNEALING,
+    /** Refine it with {@link GeneticOptimizer}, which scales with the number of cores. */
+    GENETIC
+}
@@ -0,0 +1,10 @@
+package com.smartdorm.backend.matching;
+
+/**
+ * Thrown from inside a solver when its {@link MatchingMonitor} reports that the run was cancelled.
+ */
+public class MatchingCancelledException extends RuntimeException {
+    public MatchingCancelledException() {
+        super("Matching run was cancelled.");
+    }
+}
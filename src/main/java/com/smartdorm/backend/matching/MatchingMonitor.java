@@ -0,0 +1,31 @@
+package com.smartdorm.backend.matching;
+
+/**
+ * Callback through which a long-running matching run reports progress and learns about cancellation.
+ * Solvers call {@link #checkCancelled()} at coarse checkpoints (e.g. once per room) so that a cancel request
+ * takes effect quickly without slowing down the inner scoring loops.
+ */
+public interface MatchingMonitor {
+
+    MatchingMonitor NONE = new MatchingMonitor() {
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public void progress(int done, int total) {
+        }
+    };
+
+    boolean isCancelled();
+
+    /** Reports that {@code done} of {@code total} students have been placed. */
+    void progress(int done, int total);
+
+    default void checkCancelled() {
+        if (isCancelled()) {
+            throw new MatchingCancelledException();
+        }
+    }
+}
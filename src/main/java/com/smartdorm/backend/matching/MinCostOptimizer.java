@@ -0,0 +1,218 @@
+package com.smartdorm.backend.matching;
+
+import java.util.Arrays;
+
+import static com.smartdorm.backend.matching.OptimizationResult.CURVE_POINTS;
+
+/**
+ * Optimizer for small partitions that replaces random search with exact min-cost assignment steps.
+ * <p>
+ * Because the cost of a room depends on every pair of its members, the placement problem as a whole is a quadratic
+ * assignment problem, which no polynomial solver handles exactly. Its one-student-per-room slices are linear,
+ * though: take one member out of every room, and putting them back, at most one per room, costs exactly the
+ * summed dissimilarity of each student to the members that stayed. That slice is solved optimally with the
+ * Hungarian algorithm on a primitive cost matrix, and rooms with empty beds take part, so a student may also
+ * move into a free bed.
+ * <p>
+ * Each round solves one slice per bed position; the removed member rotates between rounds. The run stops when a
+ * round improves nothing, so the result is optimal with respect to every such simultaneous exchange. That is a far
+ * larger neighbourhood than annealing's single swaps, and the outcome is deterministic.
+ * <p>
+ * {@link RoomConstraints} violations enter the cost matrix as {@link RoomConstraints#penalty(int)} per violation a
+ * student would cause in a room, which is exact as well since only one student joins each room.
+ */
+public final class MinCostOptimizer {
+
+    private static final int MAX_ROUNDS = 100;
+    private static final double EPSILON = 1e-9;
+
+    private final FeatureMatrix features;
+    private final int[] capacities;
+    private final int[] roomOf;
+    private final int[][] members;
+    private final int[] count;
+    private final boolean constrained;
+    private final RoomConstraints.Tracker tracker;
+    private final double penalty;
+
+    private MinCostOptimizer(FeatureMatrix features, int[] capacities, int[] initial, RoomConstraints constraints) {
+        this.features = features;
+        this.constrained = !constraints.isEmpty();
+        this.tracker = constraints.tracker(capacities.length);
+        this.penalty = constraints.penalty(Arrays.stream(capacities).max().orElse(0));
+        this.capacities = capacities;
+        this.roomOf = initial.clone();
+        this.members = new int[capacities.length][];
+        this.count = new int[capacities.length];
+        for (int r = 0; r < capacities.length; r++) members[r] = new int[capacities[r]];
+        for (int s = 0; s < roomOf.length; s++) {
+            int r = roomOf[s];
+            if (r == GreedyRoomAssigner.UNASSIGNED) continue;
+            members[r][count[r]++] = s;
+            if (constrained) tracker.add(s, r);
+        }
+    }
+
+    public static OptimizationResult optimize(FeatureMatrix features, int[] capacities, int[] initial,
+                                              long budgetMillis, MatchingMonitor monitor) {
+        return optimize(features, capacities, initial, RoomConstraints.NONE, budgetMillis, monitor);
+    }
+
+    /**
+     * @param initial      starting room of every student, or {@link GreedyRoomAssigner#UNASSIGNED}; not modified.
+     *                     Unassigned students stay unassigned
+     * @param constraints  conflict rules, compiled for {@code features}
+     * @param budgetMillis wall-clock cap, checked between slices
+     */
+    public static OptimizationResult optimize(FeatureMatrix features, int[] capacities, int[] initial,
+                                              RoomConstraints constraints, long budgetMillis, MatchingMonitor monitor) {
+        return new MinCostOptimizer(features, capacities, initial, constraints).run(budgetMillis, monitor);
+    }
+
+    private OptimizationResult run(long budgetMillis, MatchingMonitor monitor) {
+        double initialCost = features.placementCost(roomOf);
+        if (capacities.length < 2) {
+            return OptimizationResult.unchanged(roomOf, initialCost);
+        }
+        int maxCapacity = Arrays.stream(capacities).max().orElse(0);
+        long deadline = System.nanoTime() + budgetMillis * 1_000_000;
+
+        double[] costAfterRound = new double[MAX_ROUNDS + 1];
+        costAfterRound[0] = initialCost;
+        double cost = initialCost;
+        int rounds = 0;
+        boolean improved = true;
+        while (improved && rounds < MAX_ROUNDS && System.nanoTime() < deadline) {
+            improved = false;
+            for (int position = 0; position < maxCapacity; position++) {
+                monitor.checkCancelled();
+                if (reinsertSlice(position, rounds)) improved = true;
+            }
+            cost = features.placementCost(roomOf);
+            costAfterRound[++rounds] = cost;
+        }
+
+        // the rounds are stretched over the curve, so its points are fractions of the rounds run
+        double[] curve = new double[CURVE_POINTS + 1];
+        for (int i = 0; i <= CURVE_POINTS; i++) curve[i] = costAfterRound[i * rounds / CURVE_POINTS];
+        return new OptimizationResult(roomOf, initialCost, cost, rounds, curve);
+    }
+
+    /**
+     * Takes one member out of every room and puts the removed students back optimally, at most one per room.
+     *
+     * @return whether the placement improved
+     */
+    private boolean reinsertSlice(int position, int round) {
+        int rooms = capacities.length;
+        int[] removed = new int[rooms];
+        int rows = 0;
+        for (int r = 0; r < rooms; r++) {
+            if (count[r] == 0) continue;
+            int index = (position + round * (r + 1)) % count[r];
+            int s = members[r][index];
+            members[r][index] = members[r][--count[r]];
+            if (constrained) tracker.remove(s, r);
+            removed[rows++] = s;
+        }
+        if (rows == 0) return false;
+
+        int[] columns = new int[rooms];
+        int m = 0;
+        for (int r = 0; r < rooms; r++) {
+            if (count[r] < capacities[r]) columns[m++] = r;
+        }
+        // square matrix; rows past the removed students are free placeholders for the rooms left without one
+        double[] matrix = new double[m * m];
+        double before = 0.0;
+        for (int i = 0; i < rows; i++) {
+            int s = removed[i];
+            for (int c = 0; c < m; c++) matrix[i * m + c] = insertionCost(s, columns[c]);
+            before += insertionCost(s, roomOf[s]);
+        }
+
+        int[] columnOf = hungarian(matrix, m);
+        double after = 0.0;
+        for (int i = 0; i < rows; i++) after += matrix[i * m + columnOf[i]];
+        boolean better = after < before - EPSILON;
+        for (int i = 0; i < rows; i++) {
+            int s = removed[i];
+            int r = better ? columns[columnOf[i]] : roomOf[s];
+            roomOf[s] = r;
+            members[r][count[r]++] = s;
+            if (constrained) tracker.add(s, r);
+        }
+        return better;
+    }
+
+    private double insertionCost(int s, int room) {
+        double cost = affinity(s, room);
+        return constrained ? cost + penalty * tracker.excessDelta(room, -1, s) : cost;
+    }
+
+    private double affinity(int s, int room) {
+        double sum = 0.0;
+        int[] m = members[room];
+        for (int i = 0; i < count[room]; i++) sum += features.score(s, m[i]);
+        return sum;
+    }
+
+    /**
+     * Minimum-cost perfect matching of a square matrix (Hungarian algorithm with potentials, {@code O(m³)}).
+     *
+     * @param cost row-major {@code m x m} cost matrix
+     * @return the column assigned to every row
+     */
+    static int[] hungarian(double[] cost, int m) {
+        // 1-based potentials and matching; column 0 is a sentinel
+        double[] u = new double[m + 1];
+        double[] v = new double[m + 1];
+        int[] rowOfColumn = new int[m + 1];
+        int[] way = new int[m + 1];
+        double[] minv = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+
+        for (int i = 1; i <= m; i++) {
+            rowOfColumn[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+            do {
+                used[j0] = true;
+                int i0 = rowOfColumn[j0];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (used[j]) continue;
+                    double reduced = cost[(i0 - 1) * m + (j - 1)] - u[i0] - v[j];
+                    if (reduced < minv[j]) {
+                        minv[j] = reduced;
+                        way[j] = j0;
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[rowOfColumn[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (rowOfColumn[j0] != 0);
+            do {
+                int j1 = way[j0];
+                rowOfColumn[j0] = rowOfColumn[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] columnOfRow = new int[m];
+        for (int j = 1; j <= m; j++) columnOfRow[rowOfColumn[j] - 1] = j - 1;
+        return columnOfRow;
+    }
+}
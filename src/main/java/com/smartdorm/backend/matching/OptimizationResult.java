@@ -0,0 +1,25 @@
+package com.smartdorm.backend.matching;
+
+import java.util.Arrays;
+
+/**
+ * Outcome of an improvement phase run on one partition.
+ *
+ * @param roomOf      room of every student, or {@link GreedyRoomAssigner#UNASSIGNED}
+ * @param initialCost summed in-room dissimilarity of the starting placement
+ * @param finalCost   summed in-room dissimilarity of {@code roomOf}
+ * @param iterations  iterations (annealing) or generations (genetic) performed
+ * @param curve       cost after every {@code 1/CURVE_POINTS} of the run, {@code CURVE_POINTS + 1} values
+ */
+public record OptimizationResult(int[] roomOf, double initialCost, double finalCost, long iterations, double[] curve) {
+
+    /** Number of intervals of the recorded cost curve. */
+    public static final int CURVE_POINTS = 50;
+
+    /** Result of a run that kept the starting placement, e.g. because optimization is disabled. */
+    public static OptimizationResult unchanged(int[] roomOf, double cost) {
+        double[] curve = new double[CURVE_POINTS + 1];
+        Arrays.fill(curve, cost);
+        return new OptimizationResult(roomOf, cost, cost, 0, curve);
+    }
+}
@@ -0,0 +1,22 @@
+package com.smartdorm.backend.matching;
+
+/**
+ * One independent sub-problem of an assignment run: a set of students and the rooms reserved for them.
+ *
+ * @param key        human readable identifier, e.g. {@code MALE/Computer Science/atmosphere=2}
+ * @param students   compact student ids (rows of the cycle's {@link FeatureMatrix}), in seed priority order
+ * @param rooms      ids of the rooms reserved for this partition, in the order they should be filled
+ * @param capacities free beds of each of {@code rooms}
+ */
+public record Partition(String key, int[] students, int[] rooms, int[] capacities) {
+
+    public int size() {
+        return students.length;
+    }
+
+    public int beds() {
+        int beds = 0;
+        for (int c : capacities) beds += c;
+        return beds;
+    }
+}
@@ -0,0 +1,189 @@
+package com.smartdorm.backend.matching;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link ConflictRule}s compiled against one {@link FeatureMatrix}, for incremental checking inside the solvers.
+ * <p>
+ * Every student gets a bit mask of the rules whose conditions they match, computed once. A {@link Tracker} keeps
+ * the number of matching members per room and rule, so the effect of moving a student in or out of a room is
+ * known from its mask alone, in {@code O(rules)} no matter how large the room is.
+ * <p>
+ * Rules are soft constraints with a {@link #penalty(int) penalty} per violation that outweighs the dissimilarity any
+ * single move or swap can gain, so the solvers never trade a violation for a better score.
+ */
+public final class RoomConstraints {
+
+    public static final RoomConstraints NONE = new RoomConstraints(new String[0], new int[0], new int[0], 0.0);
+
+    private final String[] names;
+    private final int[] limits;
+    private final int[] maskOf;
+    // upper bound of one pair's dissimilarity: the sum of the weights, as every feature is in [0, 1]
+    private final double maxPairScore;
+
+    private RoomConstraints(String[] names, int[] limits, int[] maskOf, double maxPairScore) {
+        this.names = names;
+        this.limits = limits;
+        this.maskOf = maskOf;
+        this.maxPairScore = maxPairScore;
+    }
+
+    /**
+     * Rules that refer to a feature the matrix does not have are skipped.
+     *
+     * @throws IllegalArgumentException if more than 32 rules apply
+     */
+    public static RoomConstraints compile(List<ConflictRule> rules, FeatureMatrix features) {
+        ScoringModel model = features.model();
+        List<ConflictRule> applicable = new ArrayList<>();
+        for (ConflictRule rule : rules) {
+            if (rule.conditions().stream().allMatch(c -> model.indexOf(c.feature()) >= 0)) applicable.add(rule);
+        }
+        if (applicable.size() > Integer.SIZE) {
+            throw new IllegalArgumentException("At most " + Integer.SIZE + " conflict rules are supported");
+        }
+
+        int[] maskOf = new int[features.size()];
+        for (int r = 0; r < applicable.size(); r++) {
+            List<ConflictRule.Condition> conditions = applicable.get(r).conditions();
+            int[] feature = conditions.stream().mapToInt(c -> model.indexOf(c.feature())).toArray();
+            for (int s = 0; s < maskOf.length; s++) {
+                boolean matches = true;
+                for (int c = 0; c < feature.length && matches; c++) {
+                    matches = conditions.get(c).test(features.get(s, feature[c]));
+                }
+                if (matches) maskOf[s] |= 1 << r;
+            }
+        }
+        double maxPairScore = 0.0;
+        for (int f = 0; f < model.dimensions(); f++) maxPairScore += Math.abs(model.weight(f));
+        return new RoomConstraints(
+                applicable.stream().map(ConflictRule::name).toArray(String[]::new),
+                applicable.stream().mapToInt(ConflictRule::maxPerRoom).toArray(),
+                maskOf, maxPairScore);
+    }
+
+    /** The same rules for a subset of the students, whose row {@code k} is student {@code students[k]}. */
+    public RoomConstraints rows(int[] students) {
+        if (isEmpty()) return NONE;
+        int[] sub = new int[students.length];
+        for (int k = 0; k < students.length; k++) sub[k] = maskOf[students[k]];
+        return new RoomConstraints(names, limits, sub, maxPairScore);
+    }
+
+    /**
+     * Cost of every student above a rule's limit, for rooms of at most {@code maxCapacity} beds. A move or swap changes
+     * at most {@code 2 * (maxCapacity - 1)} pair scores of the rooms involved, each by at most the sum of the weights,
+     * so one more violation always costs more than the move can gain, however the dimensions are weighted.
+     */
+    public double penalty(int maxCapacity) {
+        return 2.0 * Math.max(1, maxCapacity - 1) * maxPairScore + 1.0;
+    }
+
+    /** True if no rule applies, or no student matches any rule. */
+    public boolean isEmpty() {
+        return limits.length == 0 || Arrays.stream(maskOf).allMatch(mask -> mask == 0);
+    }
+
+    public List<String> ruleNames() {
+        return List.of(names);
+    }
+
+    /** Bit {@code r} is set if student {@code s} matches rule {@code r}. */
+    public int mask(int s) {
+        return maskOf[s];
+    }
+
+    /**
+     * Students above a rule limit in a room whose members are {@code students[from .. to)}; values that are not
+     * student ids ({@code >=} the number of students) are ignored, so genome slots can be passed directly.
+     */
+    public int excess(int[] students, int from, int to) {
+        int excess = 0;
+        for (int r = 0; r < limits.length; r++) {
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                int s = students[i];
+                if (s < maskOf.length && (maskOf[s] >>> r & 1) != 0) count++;
+            }
+            excess += Math.max(0, count - limits[r]);
+        }
+        return excess;
+    }
+
+    public Tracker tracker(int rooms) {
+        return new Tracker(rooms);
+    }
+
+    /**
+     * Number of students above a rule limit, over all rooms and rules of a placement.
+     *
+     * @param roomOf room of every student, or a negative value for unassigned students
+     */
+    public int violations(int[] roomOf, int rooms) {
+        if (limits.length == 0) return 0;
+        Tracker tracker = tracker(rooms);
+        for (int s = 0; s < roomOf.length; s++) {
+            if (roomOf[s] >= 0) tracker.add(s, roomOf[s]);
+        }
+        int excess = 0;
+        for (int r = 0; r < rooms; r++) excess += tracker.excess(r);
+        return excess;
+    }
+
+    /**
+     * Per room and rule, the number of members that match the rule.
+     */
+    public final class Tracker {
+
+        private final int[] counts;
+
+        private Tracker(int rooms) {
+            this.counts = new int[rooms * limits.length];
+        }
+
+        public void add(int s, int room) {
+            update(s, room, 1);
+        }
+
+        public void remove(int s, int room) {
+            update(s, room, -1);
+        }
+
+        private void update(int s, int room, int delta) {
+            int base = room * limits.length;
+            for (int mask = maskOf[s]; mask != 0; mask &= mask - 1) {
+                counts[base + Integer.numberOfTrailingZeros(mask)] += delta;
+            }
+        }
+
+        /**
+         * Change in the room's violations if student {@code out} leaves it and {@code in} joins it; either may be
+         * -1 for nobody.
+         */
+        public int excessDelta(int room, int out, int in) {
+            int outMask = out < 0 ? 0 : maskOf[out];
+            int inMask = in < 0 ? 0 : maskOf[in];
+            int base = room * limits.length;
+            int delta = 0;
+            for (int mask = (outMask | inMask) & ~(outMask & inMask); mask != 0; mask &= mask - 1) {
+                int r = Integer.numberOfTrailingZeros(mask);
+                int count = counts[base + r];
+                int after = count + ((inMask >>> r) & 1) - ((outMask >>> r) & 1);
+                delta += Math.max(0, after - limits[r]) - Math.max(0, count - limits[r]);
+            }
+            return delta;
+        }
+
+        /** Students above a rule limit in the room. */
+        public int excess(int room) {
+            int base = room * limits.length;
+            int excess = 0;
+            for (int r = 0; r < limits.length; r++) excess += Math.max(0, counts[base + r] - limits[r]);
+            return excess;
+        }
+    }
+}
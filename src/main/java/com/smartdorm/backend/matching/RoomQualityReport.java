@@ -0,0 +1,156 @@
+package com.smartdorm.backend.matching;
+
+import java.util.Arrays;
+
+/**
+ * Per-room quality metrics of a finished placement, checked against the criteria of docs/algorthm.txt: the
+ * neuroticism mean of every room must stay below {@link #MAX_NEUROTICISM_MEAN} and its agreeableness mean above
+ * {@link #MIN_AGREEABLENESS_MEAN}, both on the 0..100 scale of the document (normalized features x 100).
+ * <p>
+ * Schedules are reported as the number of member pairs whose wake-up or sleep time differs by more than
+ * {@link #SCHEDULE_GAP}, the threshold the document uses to call a pair incompatible (more than three hours).
+ * It is informational and does not fail the report.
+ * <p>
+ * Metrics whose feature is not part of the cycle's {@link ScoringModel} are {@code NaN} and count as compliant.
+ * Everything is computed on the {@link FeatureMatrix} in two passes, linear in the number of students plus the
+ * pairs within rooms.
+ */
+public final class RoomQualityReport {
+
+    public static final double MAX_NEUROTICISM_MEAN = 65.0;
+    public static final double MIN_AGREEABLENESS_MEAN = 50.0;
+    public static final double SCHEDULE_GAP = 0.75;
+
+    private static final String NEUROTICISM_KEY = "neuroticism";
+    private static final String WAKE_TIME_KEY = "wake_time";
+    private static final String SLEEP_TIME_KEY = "sleep_time";
+
+    private final int[] occupants;
+    private final double[] neuroticismMean;
+    private final double[] agreeablenessMean;
+    private final int[] scheduleConflicts;
+
+    private RoomQualityReport(int rooms) {
+        this.occupants = new int[rooms];
+        this.neuroticismMean = new double[rooms];
+        this.agreeablenessMean = new double[rooms];
+        this.scheduleConflicts = new int[rooms];
+    }
+
+    /**
+     * @param roomOf room of every student of {@code features}, or a negative value for unassigned students
+     * @param rooms  number of rooms; room ids are {@code 0 .. rooms)}
+     */
+    public static RoomQualityReport of(FeatureMatrix features, int[] roomOf, int rooms) {
+        ScoringModel model = features.model();
+        int neuroticism = model.indexOf(NEUROTICISM_KEY);
+        int agreeableness = model.indexOf(ScoringModel.AGREEABLENESS_KEY);
+        int wake = model.indexOf(WAKE_TIME_KEY);
+        int sleep = model.indexOf(SLEEP_TIME_KEY);
+
+        RoomQualityReport report = new RoomQualityReport(rooms);
+        for (int s = 0; s < roomOf.length; s++) {
+            int r = roomOf[s];
+            if (r < 0) continue;
+            report.occupants[r]++;
+            if (neuroticism >= 0) report.neuroticismMean[r] += features.get(s, neuroticism);
+            if (agreeableness >= 0) report.agreeablenessMean[r] += features.get(s, agreeableness);
+        }
+        for (int r = 0; r < rooms; r++) {
+            int n = report.occupants[r];
+            report.neuroticismMean[r] = neuroticism < 0 || n == 0 ? Double.NaN : report.neuroticismMean[r] * 100.0 / n;
+            report.agreeablenessMean[r] = agreeableness < 0 || n == 0 ? Double.NaN : report.agreeablenessMean[r] * 100.0 / n;
+        }
+        if (wake >= 0 || sleep >= 0) report.countScheduleConflicts(features, roomOf, wake, sleep);
+        return report;
+    }
+
+    /** Groups the students by room (counting sort) and compares every pair within a room. */
+    private void countScheduleConflicts(FeatureMatrix features, int[] roomOf, int wake, int sleep) {
+        int rooms = occupants.length;
+        int[] start = new int[rooms + 1];
+        for (int r = 0; r < rooms; r++) start[r + 1] = start[r] + occupants[r];
+        int[] next = Arrays.copyOf(start, rooms);
+        int[] members = new int[start[rooms]];
+        for (int s = 0; s < roomOf.length; s++) {
+            if (roomOf[s] >= 0) members[next[roomOf[s]]++] = s;
+        }
+        for (int r = 0; r < rooms; r++) {
+            int conflicts = 0;
+            for (int i = start[r]; i < start[r + 1]; i++) {
+                for (int j = i + 1; j < start[r + 1]; j++) {
+                    if (exceedsGap(features, members[i], members[j], wake)
+                            || exceedsGap(features, members[i], members[j], sleep)) conflicts++;
+                }
+            }
+            scheduleConflicts[r] = conflicts;
+        }
+    }
+
+    private static boolean exceedsGap(FeatureMatrix features, int a, int b, int feature) {
+        return feature >= 0 && Math.abs(features.get(a, feature) - features.get(b, feature)) > SCHEDULE_GAP;
+    }
+
+    public int rooms() {
+        return occupants.length;
+    }
+
+    public int occupants(int room) {
+        return occupants[room];
+    }
+
+    /** Mean neuroticism of the room's members, 0..100; {@code NaN} for empty rooms or if not surveyed. */
+    public double neuroticismMean(int room) {
+        return neuroticismMean[room];
+    }
+
+    /** Mean agreeableness of the room's members, 0..100; {@code NaN} for empty rooms or if not surveyed. */
+    public double agreeablenessMean(int room) {
+        return agreeablenessMean[room];
+    }
+
+    /** Member pairs whose wake-up or sleep time differs by more than {@link #SCHEDULE_GAP}. */
+    public int scheduleConflicts(int room) {
+        return scheduleConflicts[room];
+    }
+
+    public boolean neuroticismCompliant(int room) {
+        return !(neuroticismMean[room] >= MAX_NEUROTICISM_MEAN);
+    }
+
+    public boolean agreeablenessCompliant(int room) {
+        return !(agreeablenessMean[room] <= MIN_AGREEABLENESS_MEAN);
+    }
+
+    /** True if no pair of the room's members has a schedule conflict. */
+    public boolean scheduleCompliant(int room) {
+        return scheduleConflicts[room] == 0;
+    }
+
+    /** True if the room meets the neuroticism, agreeableness and schedule criteria. */
+    public boolean compliant(int room) {
+        return neuroticismCompliant(room) && agreeablenessCompliant(room) && scheduleCompliant(room);
+    }
+
+    /** True if every room meets all criteria. */
+    public boolean compliant() {
+        for (int r = 0; r < occupants.length; r++) {
+            if (!compliant(r)) return false;
+        }
+        return true;
+    }
+
+    /** Highest room neuroticism mean, or {@code NaN} if there is none. */
+    public double maxNeuroticismMean() {
+        return Arrays.stream(neuroticismMean).filter(v -> !Double.isNaN(v)).max().orElse(Double.NaN);
+    }
+
+    /** Lowest room agreeableness mean, or {@code NaN} if there is none. */
+    public double minAgreeablenessMean() {
+        return Arrays.stream(agreeablenessMean).filter(v -> !Double.isNaN(v)).min().orElse(Double.NaN);
+    }
+
+    public int totalScheduleConflicts() {
+        return Arrays.stream(scheduleConflicts).sum();
+    }
+}
@@ -0,0 +1,74 @@
+package com.smartdorm.backend.matching;
+
+import java.util.List;
+
+/**
+ * Pairwise dissimilarity between two normalized student vectors, as described in docs/algorthm.txt:
+ * <pre>
+ * score = Σ w_i * |a_i - b_i|            for ordinary features
+ *       + w_j * (1 - min(a_j, b_j))      for "min-complement" features (agreeableness)
+ * </pre>
+ * All feature values are expected to be normalized to [0, 1].
+ */
+public final class ScoringModel {
+
+    /** Feature key whose contribution is {@code 1 - min(a, b)} instead of {@code |a - b|}. */
+    public static final String AGREEABLENESS_KEY = "agreeableness";
+
+    private final String[] keys;
+    private final double[] weights;
+    private final boolean[] minComplement;
+
+    public ScoringModel(List<String> keys, List<Double> weights) {
+        if (keys.size() != weights.size()) {
+            throw new IllegalArgumentException("keys and weights must have the same length");
+        }
+        int d = keys.size();
+        this.keys = keys.toArray(new String[0]);
+        this.weights = new double[d];
+        this.minComplement = new boolean[d];
+        for (int i = 0; i < d; i++) {
+            this.weights[i] = weights.get(i);
+            this.minComplement[i] = AGREEABLENESS_KEY.equals(this.keys[i]);
+        }
+    }
+
+    public int dimensions() {
+        return weights.length;
+    }
+
+    public String key(int feature) {
+        return keys[feature];
+    }
+
+    public double weight(int feature) {
+        return weights[feature];
+    }
+
+    /** Index of the feature with the given key, or -1 if the cycle does not define it. */
+    public int indexOf(String key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) return i;
+        }
+        return -1;
+    }
+
+    public double score(double[] a, double[] b) {
+        return score(a, 0, b, 0);
+    }
+
+    /**
+     * Scores the vectors starting at {@code x[offA]} and {@code y[offB]}, e.g. two rows of a {@link FeatureMatrix}.
+     */
+    public double score(double[] x, int offA, double[] y, int offB) {
+        double s = 0.0;
+        for (int i = 0; i < weights.length; i++) {
+            double a = x[offA + i];
+            double b = y[offB + i];
+            s += minComplement[i]
+                    ? weights[i] * (1.0 - Math.min(a, b))
+                    : weights[i] * Math.abs(a - b);
+        }
+        return s;
+    }
+}
@@ -0,0 +1,51 @@
+package com.smartdorm.backend.matching;
+
+/**
+ * Tuning knobs of an assignment run.
+ *
+ * @param algorithm                   improvement phase run after the greedy placement
+ * @param exactMaxStudents            partitions up to this size are refined by {@link MinCostOptimizer} instead,
+ *                                    unless the algorithm is {@code GREEDY}; 0 disables it
+ * @param annealMillis                wall-clock cap of the annealing phase of the whole run; 0 disables annealing
+ * @param annealIterationsPerStudent  annealing iterations per student of a partition. The schedule is driven by
+ *                                    this budget, so a run that finishes within {@code annealMillis} is fully
+ *                                    reproducible; the time cap only cuts a run short on very large partitions
+ * @param geneticMillis               wall-clock cap of the genetic phase of the whole run
+ * @param populationSize              genomes per generation of the genetic phase
+ * @param maxGenerations              generation budget of the genetic phase
+ * @param plateauGenerations          the genetic phase stops after this many generations without improvement
+ * @param distanceCacheBytes          memory the whole run may spend on cached distance matrices
+ *                                    ({@link FeatureMatrix#withDistanceCache()}); 0 disables them
+ * @param seed                        seed of the random streams; each partition derives its own from its key
+ */
+public record SolverOptions(MatchingAlgorithm algorithm, int exactMaxStudents,
+                            long annealMillis, int annealIterationsPerStudent,
+                            long geneticMillis, int populationSize, int maxGenerations, int plateauGenerations,
+                            long distanceCacheBytes, long seed) {
+
+    public static final SolverOptions GREEDY_ONLY = new SolverOptions(MatchingAlgorithm.GREEDY, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    public SolverOptions withAlgorithm(MatchingAlgorithm algorithm) {
+        return new SolverOptions(algorithm, exactMaxStudents, annealMillis, annealIterationsPerStudent,
+                geneticMillis, populationSize, maxGenerations, plateauGenerations, distanceCacheBytes, seed);
+    }
+
+    /** Whether a partition of the given size is small enough for {@link MinCostOptimizer}. */
+    public boolean exact(int students) {
+        return algorithm != MatchingAlgorithm.GREEDY && students <= exactMaxStudents;
+    }
+
+    /** Wall-clock cap of the selected improvement phase for the whole run. */
+    public long phaseMillis() {
+        return switch (algorithm) {
+            case GREEDY -> 0;
+            case ANNEALING -> annealMillis;
+            case GENETIC -> geneticMillis;
+        };
+    }
+
+    /** Seed of one partition, independent of the order in which partitions are scheduled. */
+    public long seedFor(String partitionKey) {
+        return seed * 31 + partitionKey.hashCode();
+    }
+}
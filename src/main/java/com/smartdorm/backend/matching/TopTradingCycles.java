@@ -0,0 +1,216 @@
+package com.smartdorm.backend.matching;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Batch processing of swap requests with Gale's top trading cycles: every requesting student "owns" their current bed
+ * and points to the requester whose bed they would like best, judged by their summed dissimilarity to the roommates
+ * they would get. Following the pointers always leads into a cycle, and moving everyone of a cycle one step along it
+ * (2-cycles are plain swaps, longer ones rotations) gives each of them the bed they pointed to.
+ * <p>
+ * A student only points to beds that are strictly better for them than their own and only to requesters of the same
+ * {@code groupOf} (gender, college and HARD_FILTER answers, like {@link SwapRelocator}); whoever has no such bed
+ * leaves the market. Preferences are computed against the current roommates, which a cycle may itself change when
+ * two of its members share a room, so every cycle is re-checked on the placement it produces: all members must be
+ * strictly better off, and the affected rooms must not gain conflict-rule violations. A cycle that fails the check
+ * bans the pointer of its first member and the pointers are recomputed; every round removes students or bans a
+ * pointer, so the loop ends after at most {@code O(requesters²)} rounds.
+ */
+public final class TopTradingCycles {
+
+    private static final double EPSILON = 1e-9;
+
+    private final FeatureMatrix features;
+    private final RoomConstraints constraints;
+    private final boolean constrained;
+    private final int[] roomOf;
+    private final int[] groupOf;
+    private final int[][] members;
+    private final int[] count;
+
+    /**
+     * One executed cycle: {@code students[t]} moves into the bed of {@code students[t + 1]}, the last one into the bed
+     * of the first. {@code costBefore[t]} and {@code costAfter[t]} are student {@code t}'s summed dissimilarity to
+     * their roommates before and after.
+     */
+    public record Exchange(int[] students, double[] costBefore, double[] costAfter) {
+        public int size() {
+            return students.length;
+        }
+    }
+
+    private TopTradingCycles(FeatureMatrix features, RoomConstraints constraints, int[] roomOf, int[] groupOf) {
+        this.features = features;
+        this.constraints = constraints;
+        this.constrained = !constraints.isEmpty();
+        this.roomOf = roomOf.clone();
+        this.groupOf = groupOf;
+        int rooms = 0;
+        for (int r : roomOf) rooms = Math.max(rooms, r + 1);
+        this.count = new int[rooms];
+        for (int r : roomOf) if (r >= 0) count[r]++;
+        this.members = new int[rooms][];
+        for (int r = 0; r < rooms; r++) members[r] = new int[count[r]];
+        int[] fill = new int[rooms];
+        for (int s = 0; s < roomOf.length; s++) if (roomOf[s] >= 0) members[roomOf[s]][fill[roomOf[s]]++] = s;
+    }
+
+    /**
+     * @param roomOf     current room of every student of {@code features} (requesters and their roommates)
+     * @param groupOf    trading group of every student; students only trade within their group
+     * @param requesters students with a pending swap request, in priority order (earlier requests win ties)
+     * @return the cycles to execute, in the order they were found; together they form a valid placement
+     */
+    public static List<Exchange> solve(FeatureMatrix features, RoomConstraints constraints, int[] roomOf, int[] groupOf,
+                                       int[] requesters) {
+        return new TopTradingCycles(features, constraints, roomOf, groupOf).run(requesters);
+    }
+
+    private List<Exchange> run(int[] requesters) {
+        int n = requesters.length;
+        boolean[] active = new boolean[n];
+        Arrays.fill(active, true);
+        BitSet banned = new BitSet();
+        List<Exchange> exchanges = new ArrayList<>();
+        int[] target = new int[n];
+
+        while (true) {
+            // point to the best improving bed; students without one leave, which may strand others, so repeat
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                for (int i = 0; i < n; i++) {
+                    if (!active[i]) continue;
+                    target[i] = favourite(requesters, active, banned, i);
+                    if (target[i] < 0) {
+                        active[i] = false;
+                        changed = true;
+                    }
+                }
+            }
+            int first = 0;
+            while (first < n && !active[first]) first++;
+            if (first == n) return exchanges;
+
+            // every active student points to an active one, so walking the pointers from any of them ends in a cycle;
+            // all cycles of this round are disjoint, and each is checked on the placement left by the ones before it
+            int[] seenAt = new int[n];
+            int[] walk = new int[n];
+            Arrays.fill(walk, -1);
+            for (int start = first; start < n; start++) {
+                if (!active[start] || walk[start] >= 0) continue;
+                List<Integer> path = new ArrayList<>();
+                int i = start;
+                while (active[i] && walk[i] < 0) {
+                    walk[i] = start;
+                    seenAt[i] = path.size();
+                    path.add(i);
+                    i = target[i];
+                }
+                if (!active[i] || walk[i] != start) continue;
+                int[] cycle = path.subList(seenAt[i], path.size()).stream().mapToInt(Integer::intValue).toArray();
+                Exchange exchange = tryExecute(requesters, cycle);
+                if (exchange == null) {
+                    banned.set(cycle[0] * n + target[cycle[0]]);
+                } else {
+                    exchanges.add(exchange);
+                    for (int k : cycle) active[k] = false;
+                }
+            }
+        }
+    }
+
+    /** The requester whose bed student {@code i} likes best among those strictly better than their own, or -1. */
+    private int favourite(int[] requesters, boolean[] active, BitSet banned, int i) {
+        int n = requesters.length;
+        int s = requesters[i];
+        double best = affinity(s, roomOf[s], -1) - EPSILON;
+        int favourite = -1;
+        for (int j = 0; j < n; j++) {
+            if (j == i || !active[j] || banned.get(i * n + j)) continue;
+            int t = requesters[j];
+            if (groupOf[t] != groupOf[s] || roomOf[t] == roomOf[s]) continue;
+            double cost = affinity(s, roomOf[t], t);
+            if (cost < best) {
+                best = cost;
+                favourite = j;
+            }
+        }
+        return favourite;
+    }
+
+    /**
+     * Applies the cycle if every member ends up strictly better off and no affected room gains violations.
+     *
+     * @return the executed exchange, or {@code null} if the cycle was rejected (the placement is then unchanged)
+     */
+    private Exchange tryExecute(int[] requesters, int[] cycle) {
+        int k = cycle.length;
+        int[] students = new int[k];
+        int[] from = new int[k];
+        double[] before = new double[k];
+        for (int t = 0; t < k; t++) {
+            students[t] = requesters[cycle[t]];
+            from[t] = roomOf[students[t]];
+            before[t] = affinity(students[t], from[t], -1);
+        }
+        int violationsBefore = violations(from);
+
+        place(students, from, 1);
+        double[] after = new double[k];
+        boolean better = true;
+        for (int t = 0; t < k; t++) {
+            after[t] = affinity(students[t], roomOf[students[t]], -1);
+            better &= after[t] < before[t] - EPSILON;
+        }
+        if (better && violations(from) <= violationsBefore) return new Exchange(students, before, after);
+
+        place(students, from, 0);
+        return null;
+    }
+
+    /**
+     * Takes the students out of their rooms, then puts {@code students[t]} into {@code rooms[(t + shift) % k]}; rooms
+     * never exceed their size because everyone leaves before anyone arrives.
+     */
+    private void place(int[] students, int[] rooms, int shift) {
+        int k = students.length;
+        for (int s : students) {
+            int room = roomOf[s];
+            int[] m = members[room];
+            for (int i = 0; i < count[room]; i++) {
+                if (m[i] == s) {
+                    m[i] = m[--count[room]];
+                    break;
+                }
+            }
+        }
+        for (int t = 0; t < k; t++) {
+            int room = rooms[(t + shift) % k];
+            members[room][count[room]++] = students[t];
+            roomOf[students[t]] = room;
+        }
+    }
+
+    /** Conflict-rule violations of the given rooms, each counted once. */
+    private int violations(int[] rooms) {
+        if (!constrained) return 0;
+        int[] distinct = Arrays.stream(rooms).distinct().toArray();
+        int total = 0;
+        for (int r : distinct) total += constraints.excess(members[r], 0, count[r]);
+        return total;
+    }
+
+    /** Summed dissimilarity of {@code s} to the members of a room, leaving out {@code skip} and {@code s} itself. */
+    private double affinity(int s, int room, int skip) {
+        double sum = 0.0;
+        int[] m = members[room];
+        for (int i = 0; i < count[room]; i++) {
+            if (m[i] != skip && m[i] != s) sum += features.score(s, m[i]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,10 @@
+package com.smartdorm.backend.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection of one bed with the student a cycle placed in it; {@code userId}, {@code college} and
+ * {@code matchGroupId} are {@code null} for a free bed.
+ */
+public record BedOccupancy(UUID bedId, UUID roomId, UUID userId, String college, UUID matchGroupId) {
+}
@@ -2,6 +2,8 @@ package com.smartdorm.backend.repository;
 
 import com.smartdorm.backend.entity.Bed;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +14,17 @@ public interface BedRepository extends JpaRepository<Bed, UUID> {
     // 用于检查房间下是否有床位
     boolean existsByRoomId(UUID roomId);
     List<Bed> findByRoomIdOrderByBedNumberAsc(UUID roomId);
+
+    // 分配算法使用：一次性加载全部床位及其房间、楼栋
+    @Query("SELECT b FROM Bed b JOIN FETCH b.room r JOIN FETCH r.building")
+    List<Bed> findAllWithRoomAndBuilding();
+
+    // 调换申请局部重新匹配使用：某楼栋内指定性别房间的全部床位及本周期入住学生；被其他周期占用的床位不返回
+    @Query("SELECT new com.smartdorm.backend.repository.BedOccupancy(b.id, r.id, u.id, u.college, m.matchGroupId) " +
+            "FROM Bed b JOIN b.room r LEFT JOIN MatchingResult m ON m.bed = b LEFT JOIN m.user u " +
+            "WHERE r.building.id = :buildingId AND r.genderType = :genderType " +
+            "AND (m.id IS NULL OR m.cycle.id = :cycleId) " +
+            "ORDER BY r.roomNumber, b.bedNumber")
+    List<BedOccupancy> findOccupancy(@Param("cycleId") UUID cycleId, @Param("buildingId") UUID buildingId,
+                                     @Param("genderType") String genderType);
 }
\ No newline at end of file
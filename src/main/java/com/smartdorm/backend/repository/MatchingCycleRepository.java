@@ -3,8 +3,17 @@ package com.smartdorm.backend.repository;
 import com.smartdorm.backend.entity.MatchingCycle;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface MatchingCycleRepository extends JpaRepository<MatchingCycle, UUID> {
-}
\ No newline at end of file
+    List<MatchingCycle> findByStatus(String status);
+
+    // 按状态查找最新周期，走部分索引 idx_matching_cycles_status_created（见 db/indexes.sql）
+    Optional<MatchingCycle> findFirstByStatusOrderByCreatedAtDesc(String status);
+
+    Optional<MatchingCycle> findFirstByStatusInOrderByCreatedAtDesc(Collection<String> statuses);
+}
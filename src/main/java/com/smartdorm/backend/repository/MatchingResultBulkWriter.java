@@ -0,0 +1,27 @@
+package com.smartdorm.backend.repository;
+
+import java.util.UUID;
+
+/**
+ * Bulk write path for {@code matching_results}, mixed into {@link MatchingResultRepository}. Assignment runs write
+ * thousands of rows at once, which through {@code save} would mean one INSERT, id generation and dirty check each.
+ */
+public interface MatchingResultBulkWriter {
+
+    /**
+     * Deletes the cycle's results and inserts row {@code i} as ({@code userIds[i]}, {@code bedIds[i]},
+     * {@code matchGroupIds[i]}) with JDBC batches. Runs in the caller's transaction, so other readers see either
+     * the old or the new results.
+     *
+     * @return the number of rows inserted
+     */
+    int replaceCycleResults(UUID cycleId, UUID[] userIds, UUID[] bedIds, UUID[] matchGroupIds);
+
+    /**
+     * Replaces the results of just the given students, e.g. after a swap. Rows are deleted before they are inserted,
+     * so students may trade beds without tripping the unique constraints.
+     *
+     * @return the number of rows inserted
+     */
+    int replaceStudentResults(UUID cycleId, UUID[] userIds, UUID[] bedIds, UUID[] matchGroupIds);
+}
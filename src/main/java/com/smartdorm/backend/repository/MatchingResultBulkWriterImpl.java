@@ -0,0 +1,84 @@
+package com.smartdorm.backend.repository;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Plain JDBC implementation of {@link MatchingResultBulkWriter}; Spring Data picks it up by its name. Statements run
+ * on the connection of the surrounding JPA transaction.
+ */
+class MatchingResultBulkWriterImpl implements MatchingResultBulkWriter {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String DELETE_CYCLE_SQL = "DELETE FROM matching_results WHERE cycle_id = ?";
+    private static final String DELETE_STUDENT_SQL = "DELETE FROM matching_results WHERE cycle_id = ? AND user_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO matching_results (id, cycle_id, user_id, bed_id, match_group_id) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    MatchingResultBulkWriterImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int replaceCycleResults(UUID cycleId, UUID[] userIds, UUID[] bedIds, UUID[] matchGroupIds) {
+        checkLengths(userIds, bedIds, matchGroupIds);
+        jdbcTemplate.update(DELETE_CYCLE_SQL, cycleId);
+        insert(cycleId, userIds, bedIds, matchGroupIds);
+        return userIds.length;
+    }
+
+    @Override
+    public int replaceStudentResults(UUID cycleId, UUID[] userIds, UUID[] bedIds, UUID[] matchGroupIds) {
+        checkLengths(userIds, bedIds, matchGroupIds);
+        jdbcTemplate.batchUpdate(DELETE_STUDENT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setObject(1, cycleId);
+                ps.setObject(2, userIds[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return userIds.length;
+            }
+        });
+        insert(cycleId, userIds, bedIds, matchGroupIds);
+        return userIds.length;
+    }
+
+    private void insert(UUID cycleId, UUID[] userIds, UUID[] bedIds, UUID[] matchGroupIds) {
+        for (int from = 0; from < userIds.length; from += BATCH_SIZE) {
+            int offset = from;
+            int size = Math.min(BATCH_SIZE, userIds.length - from);
+            jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int row = offset + i;
+                    ps.setObject(1, UUID.randomUUID());
+                    ps.setObject(2, cycleId);
+                    ps.setObject(3, userIds[row]);
+                    ps.setObject(4, bedIds[row]);
+                    ps.setObject(5, matchGroupIds[row]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+    }
+
+    private static void checkLengths(UUID[] userIds, UUID[] bedIds, UUID[] matchGroupIds) {
+        if (userIds.length != bedIds.length || userIds.length != matchGroupIds.length) {
+            throw new IllegalArgumentException("userIds, bedIds and matchGroupIds must have the same length");
+        }
+    }
+}
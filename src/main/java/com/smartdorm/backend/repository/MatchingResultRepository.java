@@ -1,19 +1,81 @@
 package com.smartdorm.backend.repository;
 
+import com.smartdorm.backend.dto.AdminDtos.AssignmentResultAdminDto;
 import com.smartdorm.backend.entity.MatchingResult;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface MatchingResultRepository extends JpaRepository<MatchingResult, UUID> {
+public interface MatchingResultRepository extends JpaRepository<MatchingResult, UUID>, MatchingResultBulkWriter {
     Optional<MatchingResult> findByUserId(UUID userId);
 
     List<MatchingResult> findByBed_Room_Id(UUID roomId);
     List<MatchingResult> findByCycleId(UUID cycleId);
 
     boolean existsByCycleId(UUID cycleId);
+
+    // 质量校验用：一次查询取出周期内全部分配及其房间，按楼栋/房间/床位排序，同一房间的行相邻
+    @Query("SELECT new com.smartdorm.backend.repository.ResultPlacement(r.user.id, rm.id, b.name, rm.roomNumber) " +
+            "FROM MatchingResult r JOIN r.bed bd JOIN bd.room rm JOIN rm.building b " +
+            "WHERE r.cycle.id = :cycleId ORDER BY b.name, rm.roomNumber, bd.bedNumber")
+    List<ResultPlacement> findPlacementsByCycleId(@Param("cycleId") UUID cycleId);
+
+    // 管理端结果列表：单条连接查询直接投影为 DTO，按楼栋/房间/床位排序；分页采用键集（游标）方式
+    @Query("SELECT new com.smartdorm.backend.dto.AdminDtos$AssignmentResultAdminDto(" +
+            "u.id, u.studentId, u.name, u.role, u.gender, u.college, b.name, rm.roomNumber, bd.bedNumber) " +
+            "FROM MatchingResult r JOIN r.user u JOIN r.bed bd JOIN bd.room rm JOIN rm.building b " +
+            "WHERE r.cycle.id = :cycleId ORDER BY b.name, rm.roomNumber, bd.bedNumber")
+    List<AssignmentResultAdminDto> findAdminRows(@Param("cycleId") UUID cycleId, Limit limit);
+
+    @Query("SELECT new com.smartdorm.backend.dto.AdminDtos$AssignmentResultAdminDto(" +
+            "u.id, u.studentId, u.name, u.role, u.gender, u.college, b.name, rm.roomNumber, bd.bedNumber) " +
+            "FROM MatchingResult r JOIN r.user u JOIN r.bed bd JOIN bd.room rm JOIN rm.building b " +
+            "WHERE r.cycle.id = :cycleId AND (b.name > :building OR (b.name = :building AND " +
+            "(rm.roomNumber > :room OR (rm.roomNumber = :room AND bd.bedNumber > :bed)))) " +
+            "ORDER BY b.name, rm.roomNumber, bd.bedNumber")
+    List<AssignmentResultAdminDto> findAdminRowsAfter(@Param("cycleId") UUID cycleId, @Param("building") String building,
+                                                      @Param("room") String room, @Param("bed") int bed, Limit limit);
+
+    // 结果导出使用：单条连接查询，以游标流式读取；调用方需在事务内消费并关闭 Stream
+    @Query("SELECT new com.smartdorm.backend.repository.ResultExportRow(u.studentId, u.name, u.gender, u.college, " +
+            "b.name, rm.roomNumber, bd.bedNumber, r.matchGroupId) " +
+            "FROM MatchingResult r JOIN r.user u JOIN r.bed bd JOIN bd.room rm JOIN rm.building b " +
+            "WHERE r.cycle.id = :cycleId ORDER BY b.name, rm.roomNumber, bd.bedNumber")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ResultExportRow> streamExportRows(@Param("cycleId") UUID cycleId);
+
+    // 批量调换使用：给定学生所在房间的全部入住情况，同一房间的行相邻
+    @Query("SELECT new com.smartdorm.backend.repository.BedOccupancy(b.id, rm.id, u.id, u.college, r.matchGroupId) " +
+            "FROM MatchingResult r JOIN r.bed b JOIN b.room rm JOIN r.user u " +
+            "WHERE r.cycle.id = :cycleId AND rm.id IN " +
+            "(SELECT r2.bed.room.id FROM MatchingResult r2 WHERE r2.cycle.id = :cycleId AND r2.user.id IN :userIds) " +
+            "ORDER BY rm.id, b.bedNumber")
+    List<BedOccupancy> findOccupancyOfRoomsOf(@Param("cycleId") UUID cycleId, @Param("userIds") Collection<UUID> userIds);
+
+    @Modifying
+    @Query("DELETE FROM MatchingResult r WHERE r.cycle.id = :cycleId")
+    int deleteByCycleId(@Param("cycleId") UUID cycleId);
+
+    // 其他周期已占用的床位与学生（matching_results 上 bed_id、user_id 均为全局唯一）
+    @Query("SELECT r.bed.id FROM MatchingResult r WHERE r.cycle.id <> :cycleId")
+    List<UUID> findBedIdsTakenByOtherCycles(@Param("cycleId") UUID cycleId);
+
+    @Query("SELECT r.user.id FROM MatchingResult r WHERE r.cycle.id <> :cycleId")
+    List<UUID> findUserIdsAssignedInOtherCycles(@Param("cycleId") UUID cycleId);
 }
\ No newline at end of file
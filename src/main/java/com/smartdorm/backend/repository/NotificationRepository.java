@@ -1,13 +1,52 @@
 package com.smartdorm.backend.repository;
 
+import com.smartdorm.backend.dto.SupportDtos.NotificationDto;
 import com.smartdorm.backend.entity.Notification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, UUID> {
     List<Notification> findByUserIdOrderByCreatedAtDesc(UUID userId);
-}
\ No newline at end of file
+
+    // 通知分页：直接投影为 DTO，按创建时间倒序（id 保证顺序唯一），分页采用键集（游标）方式
+    @Query("SELECT new com.smartdorm.backend.dto.SupportDtos$NotificationDto(n.id, n.message, n.linkUrl, n.isRead, n.createdAt) " +
+            "FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationDto> findPage(@Param("userId") UUID userId, Limit limit);
+
+    @Query("SELECT new com.smartdorm.backend.dto.SupportDtos$NotificationDto(n.id, n.message, n.linkUrl, n.isRead, n.createdAt) " +
+            "FROM Notification n WHERE n.user.id = :userId " +
+            "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationDto> findPageBefore(@Param("userId") UUID userId, @Param("createdAt") Instant createdAt,
+                                         @Param("id") UUID id, Limit limit);
+
+    // 只看未读：条件与排序都落在 (user_id, is_read, created_at) 索引上
+    @Query("SELECT new com.smartdorm.backend.dto.SupportDtos$NotificationDto(n.id, n.message, n.linkUrl, n.isRead, n.createdAt) " +
+            "FROM Notification n WHERE n.user.id = :userId AND n.isRead = false ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationDto> findUnreadPage(@Param("userId") UUID userId, Limit limit);
+
+    @Query("SELECT new com.smartdorm.backend.dto.SupportDtos$NotificationDto(n.id, n.message, n.linkUrl, n.isRead, n.createdAt) " +
+            "FROM Notification n WHERE n.user.id = :userId AND n.isRead = false " +
+            "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationDto> findUnreadPageBefore(@Param("userId") UUID userId, @Param("createdAt") Instant createdAt,
+                                               @Param("id") UUID id, Limit limit);
+
+    // 未读数：只扫描索引中该用户的未读部分，不读取通知内容
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
+    long countUnread(@Param("userId") UUID userId);
+
+    // 全部标为已读：一条 UPDATE，不逐条加载和保存
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllRead(@Param("userId") UUID userId);
+}
@@ -0,0 +1,10 @@
+package com.smartdorm.backend.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection of one {@link com.smartdorm.backend.entity.UserResponse} row: just the ids and the answer,
+ * without loading the user or dimension entities.
+ */
+public record ResponseValue(UUID userId, UUID dimensionId, double rawValue) {
+}
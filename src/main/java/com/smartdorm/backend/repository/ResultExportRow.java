@@ -0,0 +1,11 @@
+package com.smartdorm.backend.repository;
+
+import java.util.UUID;
+
+/**
+ * Flat projection of one {@link com.smartdorm.backend.entity.MatchingResult} with its student and bed, one line of
+ * the results export.
+ */
+public record ResultExportRow(String studentId, String name, String gender, String college,
+                              String building, String room, int bed, UUID matchGroupId) {
+}
@@ -0,0 +1,10 @@
+package com.smartdorm.backend.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection of one {@link com.smartdorm.backend.entity.MatchingResult} row: the student and the room they were
+ * placed in, with the labels needed for reporting, without loading the bed, room or building entities.
+ */
+public record ResultPlacement(UUID userId, UUID roomId, String buildingName, String roomNumber) {
+}
@@ -0,0 +1,31 @@
+package com.smartdorm.backend.repository;
+
+import com.smartdorm.backend.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+
+    // 吊销令牌；已吊销过的返回 0，刷新令牌据此只能使用一次
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (jti, student_id, expires_at, revoked_at) " +
+            "VALUES (:jti, :studentId, :expiresAt, now()) ON CONFLICT (jti) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("jti") UUID jti, @Param("studentId") String studentId, @Param("expiresAt") Instant expiresAt);
+
+    // 重建内存中的吊销过滤器：只需要尚未过期的令牌
+    @Query("SELECT t.jti FROM RevokedToken t WHERE t.expiresAt > :now")
+    List<UUID> findActiveJtis(@Param("now") Instant now);
+
+    // 过期的令牌本身已无法通过校验，吊销记录可以删除
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,15 @@
+package com.smartdorm.backend.repository;
+
+import com.smartdorm.backend.entity.RoomConstraintRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RoomConstraintRuleRepository extends JpaRepository<RoomConstraintRule, UUID> {
+    List<RoomConstraintRule> findByCycleIdOrderByCreatedAtAsc(UUID cycleId);
+
+    boolean existsByCycleIdAndName(UUID cycleId, String name);
+}
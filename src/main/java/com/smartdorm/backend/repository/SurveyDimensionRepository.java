@@ -2,6 +2,8 @@ package com.smartdorm.backend.repository;
 
 import com.smartdorm.backend.entity.SurveyDimension;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +12,8 @@ import java.util.UUID;
 @Repository
 public interface SurveyDimensionRepository extends JpaRepository<SurveyDimension, UUID> {
     List<SurveyDimension> findByCycleId(UUID cycleId);
+
+    // 问卷提交校验使用：只取维度 id，不加载 EAGER 的选项
+    @Query("SELECT d.id FROM SurveyDimension d WHERE d.cycle.id = :cycleId")
+    List<UUID> findIdsByCycleId(@Param("cycleId") UUID cycleId);
 }
\ No newline at end of file
@@ -2,10 +2,17 @@ package com.smartdorm.backend.repository;
 
 import com.smartdorm.backend.entity.SwapRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface SwapRequestRepository extends JpaRepository<SwapRequest, UUID> {
-}
\ No newline at end of file
+
+    // 批量调换使用：某周期指定状态的申请及申请人，按提交时间排序（先提交者优先）
+    @Query("SELECT s FROM SwapRequest s JOIN FETCH s.user WHERE s.cycle.id = :cycleId AND s.status = :status ORDER BY s.createdAt")
+    List<SwapRequest> findWithUserByCycleIdAndStatus(@Param("cycleId") UUID cycleId, @Param("status") String status);
+}
@@ -2,12 +2,26 @@ package com.smartdorm.backend.repository;
 
 import com.smartdorm.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByStudentId(String studentId);
+
+    // 分配算法使用：某周期内提交过问卷的学生，按学号排序以保证每次运行的结果可复现
+    @Query("SELECT u FROM User u WHERE u.role = 'STUDENT' AND EXISTS " +
+            "(SELECT 1 FROM UserResponse r WHERE r.user = u AND r.dimension.cycle.id = :cycleId) ORDER BY u.studentId")
+    List<User> findRespondentsOfCycle(@Param("cycleId") UUID cycleId);
+
+    // 登录时按新的哈希强度重新加密密码，只更新密码列
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.studentId = :studentId")
+    int updatePassword(@Param("studentId") String studentId, @Param("password") String password);
 }
\ No newline at end of file
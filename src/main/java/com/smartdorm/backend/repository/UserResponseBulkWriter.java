@@ -0,0 +1,19 @@
+package com.smartdorm.backend.repository;
+
+import java.util.UUID;
+
+/**
+ * Bulk write path for {@code user_responses}, mixed into {@link UserResponseRepository}. A survey submission answers
+ * every dimension at once, which through {@code findBy...} and {@code save} would mean a lookup and a write per answer.
+ */
+public interface UserResponseBulkWriter {
+
+    /**
+     * Inserts or overwrites the student's answer {@code rawValues[i]} to {@code dimensionIds[i]} with a single
+     * {@code INSERT ... ON CONFLICT (user_id, dimension_id) DO UPDATE}. Dimension ids must be distinct and valid; they
+     * are not checked here.
+     *
+     * @return the number of rows inserted or updated
+     */
+    int upsertResponses(UUID userId, UUID[] dimensionIds, double[] rawValues);
+}
@@ -0,0 +1,57 @@
+package com.smartdorm.backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plain JDBC implementation of {@link UserResponseBulkWriter}; Spring Data picks it up by its name. Statements run on
+ * the connection of the surrounding JPA transaction.
+ */
+class UserResponseBulkWriterImpl implements UserResponseBulkWriter {
+
+    // PostgreSQL allows 32767 bind parameters per statement; a survey has far fewer dimensions than this
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO user_responses (id, user_id, dimension_id, raw_value, created_at, updated_at) VALUES ";
+    private static final String ROW_SQL = "(?, ?, ?, ?, ?, ?)";
+    private static final String CONFLICT_SQL = " ON CONFLICT (user_id, dimension_id) DO UPDATE" +
+            " SET raw_value = EXCLUDED.raw_value, updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    UserResponseBulkWriterImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int upsertResponses(UUID userId, UUID[] dimensionIds, double[] rawValues) {
+        if (dimensionIds.length != rawValues.length) {
+            throw new IllegalArgumentException("dimensionIds and rawValues must have the same length");
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        int written = 0;
+        for (int from = 0; from < dimensionIds.length; from += MAX_ROWS_PER_STATEMENT) {
+            int to = Math.min(dimensionIds.length, from + MAX_ROWS_PER_STATEMENT);
+            StringBuilder sql = new StringBuilder(INSERT_SQL);
+            List<Object> args = new ArrayList<>((to - from) * 6);
+            for (int i = from; i < to; i++) {
+                if (i > from) sql.append(", ");
+                sql.append(ROW_SQL);
+                args.add(UUID.randomUUID());
+                args.add(userId);
+                args.add(dimensionIds[i]);
+                args.add(rawValues[i]);
+                args.add(now);
+                args.add(now);
+            }
+            written += jdbcTemplate.update(sql.append(CONFLICT_SQL).toString(), args.toArray());
+        }
+        return written;
+    }
+}
@@ -1,18 +1,40 @@
 package com.smartdorm.backend.repository;
 
 import com.smartdorm.backend.entity.UserResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserResponseRepository extends JpaRepository<UserResponse, UUID> {
+public interface UserResponseRepository extends JpaRepository<UserResponse, UUID>, UserResponseBulkWriter {
     Optional<UserResponse> findByUserIdAndDimensionId(UUID userId, UUID dimensionId);
 
     List<UserResponse> findByUserId(UUID userId);
     List<UserResponse> findByDimensionId(UUID userId);
 
+    // 分配算法使用：以投影方式流式读取某周期的全部答案，不实例化实体；调用方需在事务内消费并关闭 Stream
+    @Query("SELECT new com.smartdorm.backend.repository.ResponseValue(r.user.id, r.dimension.id, r.rawValue) " +
+            "FROM UserResponse r WHERE r.dimension.cycle.id = :cycleId")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ResponseValue> streamValuesForCycle(@Param("cycleId") UUID cycleId);
+
+    // 局部重新匹配使用：只读取少数学生的答案
+    @Query("SELECT new com.smartdorm.backend.repository.ResponseValue(r.user.id, r.dimension.id, r.rawValue) " +
+            "FROM UserResponse r WHERE r.dimension.cycle.id = :cycleId AND r.user.id IN :userIds")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<ResponseValue> findValuesForUsers(@Param("cycleId") UUID cycleId, @Param("userIds") Collection<UUID> userIds);
+
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.smartdorm.backend.security;
+
+import com.smartdorm.backend.entity.User;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The principal of an authenticated request, loaded once by {@link UserDetailsServiceImpl} at login (form login keeps
+ * it in the session) or by {@link JwtRequestFilter} through {@link PrincipalCache}. It carries the user fields the
+ * controllers need, so they do not look the user up again; see {@link CurrentUser}. It is a snapshot that may be as
+ * old as the cache TTL: services take the user's id from it and load or reference the {@link User} entity themselves.
+ */
+public class AuthenticatedUser implements UserDetails, CredentialsContainer {
+
+    private final UUID id;
+    private final String studentId;
+    private final String name;
+    private final String role;
+    private final String gender;
+    private final String college;
+    private String password;
+
+    public AuthenticatedUser(User user) {
+        this(user.getId(), user.getStudentId(), user.getName(), user.getRole(), user.getGender(), user.getCollege(),
+                user.getPassword());
+    }
+
+    private AuthenticatedUser(UUID id, String studentId, String name, String role, String gender, String college,
+                              String password) {
+        this.id = id;
+        this.studentId = studentId;
+        this.name = name;
+        this.role = role;
+        this.gender = gender;
+        this.college = college;
+        this.password = password;
+    }
+
+    /** This principal with another (re-encoded) password. */
+    public AuthenticatedUser withPassword(String password) {
+        return new AuthenticatedUser(id, studentId, name, role, gender, college, password);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getGender() {
+        return gender;
+    }
+
+    public String getCollege() {
+        return college;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return studentId;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.smartdorm.backend.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an {@link AuthenticatedUser} controller parameter that receives the principal of the request, resolved by
+ * {@link CurrentUserArgumentResolver} without querying {@code users}.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
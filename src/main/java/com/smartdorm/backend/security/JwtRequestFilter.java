@@ -1,5 +1,7 @@
 package com.smartdorm.backend.security;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.smartdorm.backend.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +10,7 @@ import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,11 +21,13 @@ import java.io.IOException;
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
 
-    public JwtRequestFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtRequestFilter(JwtUtil jwtUtil, PrincipalCache principalCache, TokenRevocationService tokenRevocationService) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
@@ -32,17 +36,27 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        String username = null;
-        String jwt = null;
+        DecodedJWT token = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
-            username = jwtUtil.validateTokenAndGetUsername(jwt);
+            token = jwtUtil.validateToken(authHeader.substring(7));
+        }
+        // refresh tokens and revoked tokens do not authenticate; the revocation check is in memory for unrevoked tokens
+        if (token != null && (!jwtUtil.isAccessToken(token) || tokenRevocationService.isRevoked(jwtUtil.tokenId(token)))) {
+            token = null;
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        UserDetails userDetails = null;
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            try {
+                userDetails = principalCache.get(token.getSubject());
+            } catch (UsernameNotFoundException e) {
+                // account deleted after the token was issued; the request stays unauthenticated
+            }
+        }
 
+        // a token issued for another role than the user's current one is ignored
+        if (userDetails != null && jwtUtil.roleMatches(token, userDetails)) {
             UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                     userDetails, null, userDetails.getAuthorities());
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
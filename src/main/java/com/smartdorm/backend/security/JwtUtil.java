@@ -4,40 +4,115 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
+import java.util.UUID;
 
+/**
+ * Issues and verifies the HMAC-signed API tokens. The algorithm and verifier are built once; both are thread-safe.
+ * Tokens carry the user's role in the {@value #ROLE_CLAIM} claim, a random id ({@code jti}) by which they can be
+ * revoked, and their type in the {@value #TYPE_CLAIM} claim: short-lived access tokens authenticate requests, refresh
+ * tokens are only accepted by {@code /api/auth/refresh} to obtain a new pair.
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    public static final String ROLE_CLAIM = "role";
+    public static final String TYPE_CLAIM = "typ";
 
-    @Value("${jwt.expiration-ms}")
-    private long expirationMs;
+    private static final String ACCESS = "access";
+    private static final String REFRESH = "refresh";
 
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+    private final long expirationMs;
+    private final long refreshExpirationMs;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration-ms}") long expirationMs,
+                   @Value("${jwt.refresh-expiration-ms:86400000}") long refreshExpirationMs) {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm).build();
+        this.expirationMs = expirationMs;
+        this.refreshExpirationMs = refreshExpirationMs;
+    }
+
+    /** An access token, valid for {@code jwt.expiration-ms}. */
     public String generateToken(UserDetails userDetails) {
-        Algorithm algorithm = Algorithm.HMAC256(secret);
+        return generate(userDetails, ACCESS, expirationMs);
+    }
+
+    /** A refresh token, valid for {@code jwt.refresh-expiration-ms}. */
+    public String generateRefreshToken(UserDetails userDetails) {
+        return generate(userDetails, REFRESH, refreshExpirationMs);
+    }
+
+    private String generate(UserDetails userDetails, String type, long validityMs) {
+        long now = System.currentTimeMillis();
         return JWT.create()
+                .withJWTId(UUID.randomUUID().toString())
                 .withSubject(userDetails.getUsername())
-                .withIssuedAt(new Date(System.currentTimeMillis()))
-                .withExpiresAt(new Date(System.currentTimeMillis() + expirationMs))
+                .withClaim(ROLE_CLAIM, roleOf(userDetails))
+                .withClaim(TYPE_CLAIM, type)
+                .withIssuedAt(new Date(now))
+                .withExpiresAt(new Date(now + validityMs))
                 .sign(algorithm);
     }
 
-    public String validateTokenAndGetUsername(String token) {
+    /**
+     * @return the verified token, or {@code null} if its signature or expiry is invalid
+     */
+    public DecodedJWT validateToken(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            DecodedJWT decodedJWT = verifier.verify(token);
-            return decodedJWT.getSubject();
+            return verifier.verify(token);
         } catch (JWTVerificationException exception) {
             // Invalid signature/claims
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /** Whether the token may authenticate requests; tokens issued before token types existed count as access tokens. */
+    public boolean isAccessToken(DecodedJWT token) {
+        Claim type = token.getClaim(TYPE_CLAIM);
+        return type.isMissing() || type.isNull() || ACCESS.equals(type.asString());
+    }
+
+    public boolean isRefreshToken(DecodedJWT token) {
+        return REFRESH.equals(token.getClaim(TYPE_CLAIM).asString());
+    }
+
+    /** The token's revocation id, or {@code null} for tokens issued without one. */
+    public UUID tokenId(DecodedJWT token) {
+        try {
+            return token.getId() == null ? null : UUID.fromString(token.getId());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Whether the role the token was issued for is still the user's role. Tokens issued without a role claim match any
+     * role.
+     */
+    public boolean roleMatches(DecodedJWT token, UserDetails userDetails) {
+        Claim role = token.getClaim(ROLE_CLAIM);
+        return role.isMissing() || role.isNull() || role.asString().equals(roleOf(userDetails));
+    }
+
+    private static String roleOf(UserDetails userDetails) {
+        return userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith(ROLE_PREFIX))
+                .map(authority -> authority.substring(ROLE_PREFIX.length()))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,46 @@
+package com.smartdorm.backend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies {@link LoginRateLimiter} to form login: a refused POST to the login processing URL goes to the failure
+ * handler before {@code UsernamePasswordAuthenticationFilter} authenticates it. Added to the view chain by
+ * {@code SecurityConfig}, not registered as a bean, so it does not also run as a plain servlet filter.
+ */
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private final LoginRateLimiter limiter;
+    private final RequestMatcher loginRequest;
+    private final AuthenticationFailureHandler failureHandler;
+
+    public LoginRateLimitFilter(LoginRateLimiter limiter, String loginProcessingUrl, AuthenticationFailureHandler failureHandler) {
+        this.limiter = limiter;
+        this.loginRequest = new AntPathRequestMatcher(loginProcessingUrl, "POST");
+        this.failureHandler = failureHandler;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (loginRequest.matches(request)) {
+            try {
+                limiter.acquire(request.getParameter("username"), request.getRemoteAddr());
+            } catch (LoginThrottledException e) {
+                failureHandler.onAuthenticationFailure(request, response, e);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
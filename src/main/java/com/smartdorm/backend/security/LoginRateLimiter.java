@@ -0,0 +1,112 @@
+package com.smartdorm.backend.security;
+
+import com.smartdorm.backend.dto.AdminDtos.LoginLimiterStatsDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token-bucket limit on login attempts per student id and per client IP, checked before the password is hashed, so
+ * neither a guessing attacker nor a retrying client can keep the BCrypt pool busy.
+ * <p>
+ * Each key hashes into one slot of a fixed {@link AtomicLongArray} per dimension, so the memory stays at
+ * {@code slots * 8} bytes however many keys are seen. A slot holds the bucket in its GCRA form: the time at which it
+ * is full again. An attempt is allowed while that time is at most {@code burst - 1} intervals away and then moves it
+ * one interval on, with a single compare-and-set and no lock. Keys that share a slot share its bucket, which only
+ * makes the limit stricter; the hash is seeded per instance so collisions cannot be chosen from outside.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Buckets studentIds;
+    private final Buckets clientIps;
+    private final int slots;
+    private final long seed = ThreadLocalRandom.current().nextLong();
+    private final LongAdder allowed = new LongAdder();
+
+    public LoginRateLimiter(@Value("${smartdorm.security.login-limit.slots:65536}") int slots,
+                            @Value("${smartdorm.security.login-limit.student-burst:5}") int studentBurst,
+                            @Value("${smartdorm.security.login-limit.student-per-minute:10}") int studentPerMinute,
+                            @Value("${smartdorm.security.login-limit.ip-burst:100}") int ipBurst,
+                            @Value("${smartdorm.security.login-limit.ip-per-minute:300}") int ipPerMinute) {
+        int size = Integer.highestOneBit(Math.max(1, Math.min(slots, 1 << 24)));
+        this.slots = size;
+        this.studentIds = new Buckets(size, studentBurst, studentPerMinute);
+        this.clientIps = new Buckets(size, ipBurst, ipPerMinute);
+    }
+
+    /**
+     * Takes a token from the bucket of the client IP and, only if that admits the attempt, from the bucket of the
+     * student id; an IP that is already throttled cannot drain the buckets of the student ids it tries.
+     *
+     * @throws LoginThrottledException if either bucket is empty
+     */
+    public void acquire(String studentId, String clientIp) {
+        long now = System.nanoTime();
+        long wait = clientIps.tryAcquire(hash(clientIp), now);
+        if (wait == 0) wait = studentIds.tryAcquire(hash(studentId), now);
+        if (wait > 0) {
+            throw new LoginThrottledException("Too many login attempts. Please retry later.",
+                    (wait + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        }
+        allowed.increment();
+    }
+
+    public LoginLimiterStatsDto stats() {
+        return new LoginLimiterStatsDto(allowed.sum(), studentIds.rejected.sum(), clientIps.rejected.sum(), slots);
+    }
+
+    private long hash(String key) {
+        long h = seed;
+        if (key != null) {
+            for (int i = 0; i < key.length(); i++) h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        // murmur3 finalizer, so the low bits used as the slot index depend on every character
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93F53FE1A85L;
+        return h ^ (h >>> 33);
+    }
+
+    /** One dimension's buckets; {@code 0} per minute turns the dimension off. */
+    private static final class Buckets {
+
+        private final AtomicLongArray slots;
+        private final int mask;
+        private final long interval;
+        private final long tolerance;
+        private final LongAdder rejected = new LongAdder();
+
+        Buckets(int size, int burst, int perMinute) {
+            this.slots = new AtomicLongArray(perMinute > 0 ? size : 0);
+            this.mask = size - 1;
+            this.interval = perMinute > 0 ? TimeUnit.MINUTES.toNanos(1) / perMinute : 0;
+            this.tolerance = interval * (Math.max(1, burst) - 1);
+        }
+
+        /** @return 0 if a token was taken, otherwise the nanoseconds until one is available */
+        long tryAcquire(long hash, long now) {
+            if (interval == 0) return 0;
+            int slot = (int) hash & mask;
+            while (true) {
+                long full = slots.get(slot);
+                // 0 marks an untouched slot; it and a slot whose full time has passed hold a full bucket
+                long base = full == 0 || full - now < 0 ? now : full;
+                long wait = base - tolerance - now;
+                if (wait > 0) {
+                    rejected.increment();
+                    return wait;
+                }
+                long next = base + interval;
+                if (slots.compareAndSet(slot, full, next == 0 ? 1 : next)) return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.smartdorm.backend.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * A login attempt refused before the password was checked because the server is saturated with logins. The API
+ * answers 429 with {@code Retry-After}; form login redirects back to the login page.
+ */
+public class LoginThrottledException extends AuthenticationServiceException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,78 @@
+package com.smartdorm.backend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived cache of the principals behind API tokens, so an authenticated request does not query {@code users}
+ * every time. An entry lives for {@code jwt.principal-cache.ttl-ms}, which bounds how long a role change or a deleted
+ * account takes to reach tokens already issued; code that changes them can {@link #evict} the user instead.
+ * <p>
+ * Hits only read a {@link ConcurrentHashMap}. Loads are also appended to a queue, oldest first; as every entry lives
+ * equally long, that is also the order in which they expire. Once more than {@code jwt.principal-cache.max-entries}
+ * loads are queued, each new one drops the oldest, so a miss costs O(1) however full the cache is. Queued loads that
+ * were since replaced or evicted still count towards the bound until they reach the head, which only makes the cache
+ * hold fewer principals.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserDetailsService userDetailsService;
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ArrayDeque<Entry> loadOrder = new ArrayDeque<>();
+
+    private record Entry(String username, UserDetails principal, long expiresAt) {
+    }
+
+    public PrincipalCache(UserDetailsService userDetailsService,
+                          @Value("${jwt.principal-cache.ttl-ms:30000}") long ttlMs,
+                          @Value("${jwt.principal-cache.max-entries:10000}") int maxEntries) {
+        this.userDetailsService = userDetailsService;
+        this.ttlNanos = ttlMs * 1_000_000;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @throws org.springframework.security.core.userdetails.UsernameNotFoundException if the user does not exist
+     */
+    public UserDetails get(String username) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(username);
+        if (entry != null && now - entry.expiresAt() < 0) return entry.principal();
+
+        UserDetails principal = userDetailsService.loadUserByUsername(username);
+        // the password hash is only needed at login; don't keep it around
+        if (principal instanceof CredentialsContainer credentials) credentials.eraseCredentials();
+        if (ttlNanos > 0 && maxEntries > 0) put(new Entry(username, principal, now + ttlNanos), now);
+        return principal;
+    }
+
+    /** Drops the user's principal, so the next request with one of their tokens loads it again. */
+    public void evict(String username) {
+        entries.remove(username);
+    }
+
+    private void put(Entry entry, long now) {
+        synchronized (loadOrder) {
+            entries.put(entry.username(), entry);
+            loadOrder.addLast(entry);
+            Entry oldest;
+            while ((oldest = loadOrder.peekFirst()) != null
+                    && (loadOrder.size() > maxEntries || now - oldest.expiresAt() >= 0)) {
+                loadOrder.pollFirst();
+                // only if it was not replaced by a newer load of the same user in the meantime
+                entries.remove(oldest.username(), oldest);
+            }
+        }
+    }
+}
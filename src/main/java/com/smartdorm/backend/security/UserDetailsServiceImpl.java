@@ -1,17 +1,19 @@
 package com.smartdorm.backend.security;
 
 import com.smartdorm.backend.repository.UserRepository;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
+import jakarta.transaction.Transactional;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-
+/**
+ * Loads the login user in a single query. As {@link UserDetailsPasswordService} it also stores the new hash when the
+ * authentication provider rehashes a password made at an older BCrypt strength.
+ */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -21,13 +23,17 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String studentId) throws UsernameNotFoundException {
-        com.smartdorm.backend.entity.User user = userRepository.findByStudentId(studentId)
+        return userRepository.findByStudentId(studentId)
+                .map(AuthenticatedUser::new)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with studentId: " + studentId));
+    }
 
-        return new User(
-                user.getStudentId(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole()))
-        );
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        return user instanceof AuthenticatedUser authenticated
+                ? authenticated.withPassword(newPassword)
+                : loadUserByUsername(user.getUsername());
     }
-}
\ No newline at end of file
+}
@@ -1,123 +1,226 @@
 package com.smartdorm.backend.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.smartdorm.backend.dto.AdminDtos.AdminAssignmentValidationDto;
 import com.smartdorm.backend.dto.AdminDtos.AssignmentResultAdminDto;
+import com.smartdorm.backend.dto.AdminDtos.ResultCursor;
 import com.smartdorm.backend.dto.AdminDtos.ValidationDetailDto;
-import com.smartdorm.backend.dto.UserDto;
-import com.smartdorm.backend.entity.MatchingCycle;
-import com.smartdorm.backend.entity.MatchingResult;
-import com.smartdorm.backend.exception.DataConflictException;
 import com.smartdorm.backend.exception.ResourceNotFoundException;
+import com.smartdorm.backend.matching.FeatureMatrix;
+import com.smartdorm.backend.matching.RoomQualityReport;
 import com.smartdorm.backend.repository.MatchingCycleRepository;
 import com.smartdorm.backend.repository.MatchingResultRepository;
+import com.smartdorm.backend.repository.ResultExportRow;
+import com.smartdorm.backend.repository.ResultPlacement;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class AdminAssignmentService {
 
+    /** Largest page of {@link #getAssignmentResults(UUID, ResultCursor, int)}; larger limits are capped. */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    // Label of the report rows that summarize every room
+    private static final String ALL_ROOMS = "All rooms";
+    // Room rows beyond this are counted in the message but not listed
+    private static final int MAX_DETAILS = 200;
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final MatchingCycleRepository cycleRepository;
     private final MatchingResultRepository resultRepository;
+    private final AssignmentJobService assignmentJobService;
+    private final FeatureMatrixLoader featureMatrixLoader;
+    private final ObjectMapper objectMapper;
 
-    public AdminAssignmentService(MatchingCycleRepository cycleRepository, MatchingResultRepository resultRepository) {
+    public AdminAssignmentService(MatchingCycleRepository cycleRepository, MatchingResultRepository resultRepository,
+                                  AssignmentJobService assignmentJobService, FeatureMatrixLoader featureMatrixLoader,
+                                  ObjectMapper objectMapper) {
         this.cycleRepository = cycleRepository;
         this.resultRepository = resultRepository;
-    }
-
-    /**
-     * Placeholder for the real assignment logic.
-     * Currently, it just updates the cycle status.
-     */
-    public void triggerAssignment(UUID cycleId) {
-        MatchingCycle cycle = cycleRepository.findById(cycleId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cycle not found with id: " + cycleId));
-
-        if (!"OPEN".equals(cycle.getStatus())) {
-            throw new DataConflictException("Cannot trigger assignment for a cycle that is not in 'OPEN' status.");
-        }
-
-        // In a real scenario, you'd trigger an async job here.
-        // For now, we simulate the completion of the process.
-        cycle.setStatus("PROCESSING"); // First set to processing
-        // ... algorithm runs ...
-        cycle.setStatus("COMPLETED"); // Then set to completed
-        cycleRepository.save(cycle);
-
-        // Here you would generate notifications, results etc.
+        this.assignmentJobService = assignmentJobService;
+        this.featureMatrixLoader = featureMatrixLoader;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * [IMPLEMENTED] Retrieves the complete list of assignment results for a specific cycle.
      * Corresponds to use case ADM-04.
+     * Rows are projected straight from one join query, ordered by building, room and bed.
      * @param cycleId The ID of the matching cycle.
      * @return A list of detailed assignment results for the admin.
      */
     public List<AssignmentResultAdminDto> getAssignmentResults(UUID cycleId) {
+        requireCycle(cycleId);
+        return resultRepository.findAdminRows(cycleId, Limit.unlimited());
+    }
+
+    /**
+     * One page of {@link #getAssignmentResults(UUID)}, found by keyset rather than offset so every page costs the
+     * same no matter how deep it is.
+     *
+     * @param after the last row of the previous page, or {@code null} for the first page
+     */
+    public List<AssignmentResultAdminDto> getAssignmentResults(UUID cycleId, ResultCursor after, int limit) {
+        requireCycle(cycleId);
+        Limit pageLimit = Limit.of(Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return after == null
+                ? resultRepository.findAdminRows(cycleId, pageLimit)
+                : resultRepository.findAdminRowsAfter(cycleId, after.building(), after.room(), after.bed(), pageLimit);
+    }
+
+    /**
+     * Throws if the cycle does not exist; lets the export endpoints answer 404 before they start writing.
+     */
+    public void requireCycle(UUID cycleId) {
         if (!cycleRepository.existsById(cycleId)) {
             throw new ResourceNotFoundException("Cycle not found with id: " + cycleId);
         }
+    }
 
-        List<MatchingResult> results = resultRepository.findByCycleId(cycleId);
+    /**
+     * Writes the cycle's results as UTF-8 CSV (with a byte order mark, so spreadsheet tools detect the encoding),
+     * ordered by building, room and bed. Rows are read from a database cursor and written as they arrive, so memory
+     * use does not grow with the number of results.
+     */
+    public void exportResultsCsv(UUID cycleId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        writer.write('\uFEFF');
+        writer.write("student_id,name,gender,college,building,room,bed,match_group_id\n");
+        try (Stream<ResultExportRow> rows = resultRepository.streamExportRows(cycleId)) {
+            for (ResultExportRow row : (Iterable<ResultExportRow>) rows::iterator) {
+                writer.write(csv(row.studentId()) + ',' + csv(row.name()) + ',' + csv(row.gender()) + ','
+                        + csv(row.college()) + ',' + csv(row.building()) + ',' + csv(row.room()) + ','
+                        + row.bed() + ',' + row.matchGroupId() + '\n');
+            }
+        }
+        writer.flush();
+    }
 
-        return results.stream()
-                .map(this::mapToAssignmentResultAdminDto)
-                .collect(Collectors.toList());
+    /**
+     * Same as {@link #exportResultsCsv}, as newline-delimited JSON: one {@link ResultExportRow} object per line.
+     */
+    public void exportResultsNdjson(UUID cycleId, OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out, EXPORT_BUFFER_SIZE);
+        ObjectWriter writer = objectMapper.writerFor(ResultExportRow.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try (Stream<ResultExportRow> rows = resultRepository.streamExportRows(cycleId)) {
+            for (ResultExportRow row : (Iterable<ResultExportRow>) rows::iterator) {
+                writer.writeValue(buffered, row);
+                buffered.write('\n');
+            }
+        }
+        buffered.flush();
     }
 
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
 
     /**
-     * [ENHANCED] Validates the results of an assignment against predefined quality metrics.
+     * [IMPLEMENTED] Validates the results of an assignment against the quality criteria of docs/algorthm.txt.
      * Corresponds to use case ADM-08.
-     * The logic here is a placeholder, demonstrating the required DTO structure.
+     * The placements of the cycle are read with one projection query and the students' features with one
+     * streamed query; the per-room metrics are then computed on the primitive {@link FeatureMatrix}
+     * (see {@link RoomQualityReport}).
      *
      * @param cycleId The ID of the matching cycle.
-     * @return A detailed validation report.
+     * @return A detailed validation report: overall metrics first, then every room that misses a criterion.
      */
     public AdminAssignmentValidationDto validateResults(UUID cycleId) {
-        if (!resultRepository.existsByCycleId(cycleId)) {
+        List<ResultPlacement> placements = resultRepository.findPlacementsByCycleId(cycleId);
+        if (placements.isEmpty()) {
             throw new ResourceNotFoundException("No assignment results found for cycle with id: " + cycleId);
         }
 
-        // TODO: Implement real validation logic.
-        // For now, return a mock successful validation report that matches the DTO structure.
-        List<ValidationDetailDto> mockDetails = List.of(
-                new ValidationDetailDto(
-                        "Zijing Building 1-301", // Dorm name
-                        "Neuroticism Mean",       // Metric name
-                        0.55,                     // Metric value
-                        true                      // Is compliant
-                )
-        );
-
-        return new AdminAssignmentValidationDto(
-                true,
-                "Results meet all validation criteria.",
-                mockDetails
-        );
+        // rows arrive grouped by room, so room ids are handed out in report order
+        UUID[] students = new UUID[placements.size()];
+        int[] roomOf = new int[placements.size()];
+        Map<UUID, Integer> roomIndex = new HashMap<>();
+        List<String> roomLabels = new ArrayList<>();
+        for (int s = 0; s < students.length; s++) {
+            ResultPlacement placement = placements.get(s);
+            students[s] = placement.userId();
+            roomOf[s] = roomIndex.computeIfAbsent(placement.roomId(), id -> {
+                roomLabels.add(placement.buildingName() + "-" + placement.roomNumber());
+                return roomLabels.size() - 1;
+            });
+        }
+        FeatureMatrix features = featureMatrixLoader.load(cycleId, students);
+        RoomQualityReport report = RoomQualityReport.of(features, roomOf, roomLabels.size());
+
+        // Convergence of the optimizer in the last run of this cycle (empty after a restart)
+        List<Double> costCurve = assignmentJobService.findLastCompletedJob(cycleId)
+                .map(job -> Arrays.stream(job.getCostCurve()).boxed().toList())
+                .orElse(List.of());
+        return toValidation(report, roomLabels, costCurve);
     }
 
     /**
-     * Helper method to map a MatchingResult entity to its admin-facing DTO.
+     * Turns the room metrics into the report. A room fails if it misses any criterion of
+     * {@link RoomQualityReport#compliant(int)}, schedule conflicts included; the results are valid only if no room
+     * fails, and every failing room is listed (up to {@link #MAX_DETAILS} rows) with the metrics it misses.
      */
-    private AssignmentResultAdminDto mapToAssignmentResultAdminDto(MatchingResult result) {
-        var user = result.getUser();
-        var bed = result.getBed();
-        var room = bed.getRoom();
-        var building = room.getBuilding();
-
-        UserDto userDto = new UserDto(user.getId(), user.getStudentId(), user.getName(), user.getRole(), user.getGender(), user.getCollege());
-
-        return new AssignmentResultAdminDto(
-                userDto,
-                building.getName(),
-                room.getRoomNumber(),
-                bed.getBedNumber()
-        );
+    static AdminAssignmentValidationDto toValidation(RoomQualityReport report, List<String> roomLabels,
+                                                     List<Double> costCurve) {
+        List<ValidationDetailDto> details = new ArrayList<>();
+        // metrics of dimensions the cycle does not survey are NaN and left out
+        double maxNeuroticism = report.maxNeuroticismMean();
+        if (!Double.isNaN(maxNeuroticism)) {
+            details.add(new ValidationDetailDto(ALL_ROOMS, "Max Neuroticism Mean", maxNeuroticism,
+                    maxNeuroticism < RoomQualityReport.MAX_NEUROTICISM_MEAN));
+        }
+        double minAgreeableness = report.minAgreeablenessMean();
+        if (!Double.isNaN(minAgreeableness)) {
+            details.add(new ValidationDetailDto(ALL_ROOMS, "Min Agreeableness Mean", minAgreeableness,
+                    minAgreeableness > RoomQualityReport.MIN_AGREEABLENESS_MEAN));
+        }
+        details.add(new ValidationDetailDto(ALL_ROOMS, "Schedule Conflicts", report.totalScheduleConflicts(),
+                report.totalScheduleConflicts() == 0));
+
+        int failingRooms = 0;
+        for (int r = 0; r < report.rooms(); r++) {
+            if (report.compliant(r)) continue;
+            failingRooms++;
+            if (details.size() >= MAX_DETAILS) continue;
+            if (!report.neuroticismCompliant(r)) {
+                details.add(new ValidationDetailDto(roomLabels.get(r), "Neuroticism Mean", report.neuroticismMean(r), false));
+            }
+            if (!report.agreeablenessCompliant(r)) {
+                details.add(new ValidationDetailDto(roomLabels.get(r), "Agreeableness Mean", report.agreeablenessMean(r), false));
+            }
+            if (!report.scheduleCompliant(r)) {
+                details.add(new ValidationDetailDto(roomLabels.get(r), "Schedule Conflicts", report.scheduleConflicts(r), false));
+            }
+        }
+
+        String message = failingRooms == 0
+                ? "Results meet all validation criteria."
+                : failingRooms + " of " + report.rooms() + " rooms miss the neuroticism, agreeableness or schedule criterion.";
+        return new AdminAssignmentValidationDto(failingRooms == 0, message, details, costCurve);
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.smartdorm.backend.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-process cache updates to the commit of the current transaction, so caches only ever hold committed data.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /** Runs {@code update} once the current transaction commits (never, if it rolls back), or right away outside one. */
+    static void run(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.smartdorm.backend.service;
+
+import com.smartdorm.backend.entity.*;
+import com.smartdorm.backend.exception.ResourceNotFoundException;
+import com.smartdorm.backend.matching.ConflictRule;
+import com.smartdorm.backend.matching.FeatureMatrix;
+import com.smartdorm.backend.matching.GreedyRoomAssigner;
+import com.smartdorm.backend.matching.HardFilterPartitioner;
+import com.smartdorm.backend.matching.MatchingAlgorithm;
+import com.smartdorm.backend.matching.Partition;
+import com.smartdorm.backend.matching.RoomConstraints;
+import com.smartdorm.backend.repository.*;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Database side of an assignment run: {@link #prepare} loads a cycle into a primitive, entity-free
+ * {@link PreparedAssignment}, and {@link #saveResults} writes the solved placement back as {@code matching_results} rows.
+ * The solving itself ({@link com.smartdorm.backend.matching.AssignmentSolver}) happens in between, outside of
+ * any transaction, so a long run holds no database connection.
+ * <p>
+ * Gender, college and HARD_FILTER answers are strict constraints; {@link HardFilterPartitioner} splits the run along
+ * them, and students are only placed in rooms whose {@code genderType} matches.
+ */
+@Service
+@Transactional
+public class AssignmentEngineService {
+
+    private static final Logger log = LoggerFactory.getLogger(AssignmentEngineService.class);
+
+    private final MatchingCycleRepository cycleRepository;
+    private final FeatureMatrixLoader featureLoader;
+    private final UserRepository userRepository;
+    private final BedRepository bedRepository;
+    private final MatchingResultRepository resultRepository;
+    private final RoomConstraintRuleRepository ruleRepository;
+
+    public AssignmentEngineService(MatchingCycleRepository cycleRepository,
+                                   FeatureMatrixLoader featureLoader,
+                                   UserRepository userRepository,
+                                   BedRepository bedRepository,
+                                   MatchingResultRepository resultRepository,
+                                   RoomConstraintRuleRepository ruleRepository) {
+        this.cycleRepository = cycleRepository;
+        this.featureLoader = featureLoader;
+        this.userRepository = userRepository;
+        this.bedRepository = bedRepository;
+        this.resultRepository = resultRepository;
+        this.ruleRepository = ruleRepository;
+    }
+
+    /**
+     * Snapshot of one cycle's assignment problem. {@code roomBeds[room]} lists the free bed ids of a room, in bed
+     * number order; {@link Partition#rooms()} refers to rooms by their index in this array. {@code algorithm} is the
+     * cycle's improvement phase, or {@code null} for the configured default; {@code constraints} holds the built-in
+     * and the cycle's own conflict rules.
+     */
+    public record PreparedAssignment(UUID cycleId, MatchingAlgorithm algorithm, FeatureMatrix features,
+                                     RoomConstraints constraints, List<Partition> partitions, UUID[][] roomBeds) {
+        public int students() {
+            return partitions.stream().mapToInt(Partition::size).sum();
+        }
+    }
+
+    public PreparedAssignment prepare(UUID cycleId) {
+        MatchingCycle cycle = cycleRepository.findById(cycleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cycle not found with id: " + cycleId));
+        MatchingAlgorithm algorithm = cycle.getAlgorithm() == null ? null : MatchingAlgorithm.valueOf(cycle.getAlgorithm());
+
+        // Respondents come back ordered by student id, which is also the seed priority, so runs are reproducible
+        List<User> students = userRepository.findRespondentsOfCycle(cycleId);
+        FeatureMatrix features = featureLoader.load(cycleId, students.stream().map(User::getId).toArray(UUID[]::new));
+
+        Set<UUID> assignedElsewhere = new HashSet<>(resultRepository.findUserIdsAssignedInOtherCycles(cycleId));
+        Set<UUID> bedsTaken = new HashSet<>(resultRepository.findBedIdsTakenByOtherCycles(cycleId));
+
+        int[] candidates = IntStream.range(0, students.size())
+                .filter(i -> !assignedElsewhere.contains(students.get(i).getId()))
+                .toArray();
+        String[] genderOf = students.stream().map(User::getGender).toArray(String[]::new);
+        String[] collegeOf = students.stream().map(User::getCollege).toArray(String[]::new);
+        boolean[] specialNeedsOf = new boolean[students.size()];
+        for (int i = 0; i < specialNeedsOf.length; i++) specialNeedsOf[i] = students.get(i).isSpecialNeeds();
+
+        List<DormRoom> rooms = new ArrayList<>();
+        UUID[][] roomBeds = freeRooms(bedsTaken, rooms);
+        String[] roomGender = rooms.stream().map(DormRoom::getGenderType).toArray(String[]::new);
+        int[] roomCapacity = Arrays.stream(roomBeds).mapToInt(beds -> beds.length).toArray();
+
+        List<Partition> partitions = HardFilterPartitioner.partition(candidates, genderOf, collegeOf, specialNeedsOf,
+                features, roomGender, roomCapacity);
+        log.info("Cycle {}: {} students split into {} partitions", cycleId, candidates.length, partitions.size());
+        return new PreparedAssignment(cycleId, algorithm, features, constraints(cycleId, features), partitions, roomBeds);
+    }
+
+    /**
+     * The built-in rule of docs/algorthm.txt followed by the cycle's own rules; rules on features the cycle does not
+     * have are left out. Also used to re-match single students (see {@link SwapReassignmentService}).
+     */
+    public RoomConstraints constraints(UUID cycleId, FeatureMatrix features) {
+        List<ConflictRule> rules = new ArrayList<>();
+        rules.add(ConflictRule.HIGH_NEUROTICISM_LOW_AGREEABLENESS);
+        for (RoomConstraintRule rule : ruleRepository.findByCycleIdOrderByCreatedAtAsc(cycleId)) {
+            rules.add(ConflictRule.parse(rule.getName(), rule.getExpression(), rule.getMaxPerRoom()));
+        }
+        RoomConstraints constraints = RoomConstraints.compile(rules, features);
+        log.info("Cycle {}: enforcing conflict rules {}", cycleId, constraints.ruleNames());
+        return constraints;
+    }
+
+    /**
+     * Replaces the cycle's results with the given placement. Rows and room group ids are built in memory and written
+     * with one batched delete-and-insert ({@link MatchingResultBulkWriter}), inside the caller's transaction.
+     *
+     * @param roomOf per partition, the room index of each student (see {@link com.smartdorm.backend.matching.AssignmentSolver})
+     * @return the number of students placed
+     */
+    public int saveResults(PreparedAssignment prepared, int[][] roomOf) {
+        UUID[][] rooms = prepared.roomBeds();
+        int[] nextBed = new int[rooms.length];
+        UUID[] groupIds = new UUID[rooms.length];
+
+        int students = prepared.students();
+        UUID[] userIds = new UUID[students];
+        UUID[] bedIds = new UUID[students];
+        UUID[] matchGroupIds = new UUID[students];
+        int placed = 0;
+        for (int p = 0; p < prepared.partitions().size(); p++) {
+            Partition partition = prepared.partitions().get(p);
+            for (int k = 0; k < partition.size(); k++) {
+                if (roomOf[p][k] == GreedyRoomAssigner.UNASSIGNED) continue;
+                int room = partition.rooms()[roomOf[p][k]];
+                if (groupIds[room] == null) groupIds[room] = UUID.randomUUID();
+
+                userIds[placed] = prepared.features().userId(partition.students()[k]);
+                bedIds[placed] = rooms[room][nextBed[room]++];
+                matchGroupIds[placed] = groupIds[room];
+                placed++;
+            }
+        }
+
+        int written = resultRepository.replaceCycleResults(prepared.cycleId(), Arrays.copyOf(userIds, placed),
+                Arrays.copyOf(bedIds, placed), Arrays.copyOf(matchGroupIds, placed));
+        log.info("Assignment for cycle {} placed {} of {} students", prepared.cycleId(), written, students);
+        return written;
+    }
+
+    /**
+     * Free bed ids grouped per room (ordered by bed number), with rooms ordered by building name and room number.
+     * The rooms themselves are added to {@code rooms} in the same order.
+     */
+    private UUID[][] freeRooms(Set<UUID> bedsTaken, List<DormRoom> rooms) {
+        // DormRoom's Lombok equals/hashCode walks its collections, so group by identity
+        Map<DormRoom, List<Bed>> bedsByRoom = bedRepository.findAllWithRoomAndBuilding().stream()
+                .filter(bed -> !bedsTaken.contains(bed.getId()))
+                .collect(Collectors.groupingBy(Bed::getRoom, IdentityHashMap::new, Collectors.toList()));
+
+        Comparator<DormRoom> roomOrder = Comparator
+                .comparing((DormRoom r) -> r.getBuilding().getName())
+                .thenComparing(DormRoom::getRoomNumber);
+
+        bedsByRoom.keySet().stream().sorted(roomOrder).forEach(rooms::add);
+        return rooms.stream()
+                .map(room -> bedsByRoom.get(room).stream()
+                        .sorted(Comparator.comparingInt(Bed::getBedNumber))
+                        .map(Bed::getId)
+                        .toArray(UUID[]::new))
+                .toArray(UUID[][]::new);
+    }
+}
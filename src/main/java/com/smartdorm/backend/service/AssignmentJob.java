@@ -0,0 +1,116 @@
+package com.smartdorm.backend.service;
+
+import com.smartdorm.backend.matching.AssignmentSolver.PartitionStats;
+import com.smartdorm.backend.matching.MatchingMonitor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * State of one background assignment run. Written by the worker thread, read by the status endpoint,
+ * so every field is either final or volatile.
+ */
+public class AssignmentJob implements MatchingMonitor {
+
+    public enum Phase {
+        QUEUED, LOADING, OPTIMIZING, PERSISTING, COMPLETED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final UUID id = UUID.randomUUID();
+    private final UUID cycleId;
+    private final Instant createdAt = Instant.now();
+    private final AtomicBoolean cancelRequested = new AtomicBoolean(false);
+
+    private volatile Phase phase = Phase.QUEUED;
+    private volatile int done;
+    private volatile int total;
+    private volatile String message = "Waiting to start.";
+    private volatile Instant finishedAt;
+    private volatile List<PartitionStats> partitionStats = List.of();
+    private volatile double[] costCurve = new double[0];
+
+    public AssignmentJob(UUID cycleId) {
+        this.cycleId = cycleId;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getCycleId() {
+        return cycleId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /** Per-partition timings, available once the OPTIMIZING phase is over. */
+    public List<PartitionStats> getPartitionStats() {
+        return partitionStats;
+    }
+
+    /** Fraction of students placed during the OPTIMIZING phase; 1.0 once the job completed. */
+    public double getProgress() {
+        if (phase == Phase.COMPLETED) return 1.0;
+        int t = total;
+        return t == 0 ? 0.0 : (double) done / t;
+    }
+
+    void enter(Phase next, String message) {
+        this.phase = next;
+        this.message = message;
+    }
+
+    /** Total room cost over the course of the annealing phase, see {@link com.smartdorm.backend.matching.AnnealingOptimizer}. */
+    public double[] getCostCurve() {
+        return costCurve.clone();
+    }
+
+    void recordSolution(List<PartitionStats> stats, double[] costCurve) {
+        this.partitionStats = List.copyOf(stats);
+        this.costCurve = costCurve.clone();
+    }
+
+    void finish(Phase result, String message) {
+        this.message = message;
+        this.finishedAt = Instant.now();
+        this.phase = result;
+    }
+
+    /** @return false if the job had already finished */
+    boolean requestCancel() {
+        cancelRequested.set(true);
+        return !phase.isFinished();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelRequested.get();
+    }
+
+    // Partitions finish concurrently, so reports may arrive out of order; never move backwards
+    @Override
+    public synchronized void progress(int done, int total) {
+        this.total = total;
+        this.done = Math.max(this.done, done);
+    }
+}
@@ -0,0 +1,244 @@
+package com.smartdorm.backend.service;
+
+import com.smartdorm.backend.dto.AdminDtos.AssignmentJobDto;
+import com.smartdorm.backend.dto.AdminDtos.PartitionStatsDto;
+import com.smartdorm.backend.entity.MatchingCycle;
+import com.smartdorm.backend.exception.DataConflictException;
+import com.smartdorm.backend.exception.ResourceNotFoundException;
+import com.smartdorm.backend.matching.AssignmentSolver;
+import com.smartdorm.backend.matching.MatchingCancelledException;
+import com.smartdorm.backend.matching.SolverOptions;
+import com.smartdorm.backend.repository.MatchingCycleRepository;
+import com.smartdorm.backend.service.AssignmentEngineService.PreparedAssignment;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs assignment jobs in the background (use case ADM-03).
+ * <p>
+ * Starting a job marks the cycle PROCESSING in its own short transaction and returns immediately. The worker
+ * then loads the cycle (one transaction), solves it with no transaction or connection held, and writes the
+ * results and the COMPLETED status (one transaction). A failed or cancelled run puts the cycle back to OPEN.
+ * <p>
+ * At most {@code smartdorm.assignment.max-concurrent-jobs} runs execute at once and a cycle never has two
+ * runs; a start request beyond that is rejected with 409 instead of being queued.
+ */
+@Service
+public class AssignmentJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(AssignmentJobService.class);
+    private static final int MAX_RETAINED_JOBS = 50;
+
+    private final MatchingCycleRepository cycleRepository;
+    private final AssignmentEngineService engine;
+    private final ForkJoinPool matchingPool;
+    private final SolverOptions solverOptions;
+    private final TransactionTemplate transactionTemplate;
+    private final CurrentCycleResolver currentCycles;
+    private final boolean async;
+    private final Semaphore slots;
+    private final ExecutorService executor;
+
+    private final Map<UUID, AssignmentJob> jobs = new ConcurrentHashMap<>();
+    private final Map<UUID, AssignmentJob> activeByCycle = new ConcurrentHashMap<>();
+    private final Map<UUID, AssignmentJob> lastCompletedByCycle = new ConcurrentHashMap<>();
+
+    public AssignmentJobService(MatchingCycleRepository cycleRepository,
+                                AssignmentEngineService engine,
+                                ForkJoinPool matchingPool,
+                                SolverOptions solverOptions,
+                                TransactionTemplate transactionTemplate,
+                                CurrentCycleResolver currentCycles,
+                                @Value("${smartdorm.assignment.async:true}") boolean async,
+                                @Value("${smartdorm.assignment.max-concurrent-jobs:1}") int maxConcurrentJobs) {
+        this.cycleRepository = cycleRepository;
+        this.engine = engine;
+        this.matchingPool = matchingPool;
+        this.solverOptions = solverOptions;
+        this.transactionTemplate = transactionTemplate;
+        this.currentCycles = currentCycles;
+        this.async = async;
+        this.slots = new Semaphore(maxConcurrentJobs);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrentJobs, runnable -> {
+            Thread thread = new Thread(runnable, "assignment-job-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public AssignmentJobDto startJob(UUID cycleId) {
+        AssignmentJob job = new AssignmentJob(cycleId);
+        if (activeByCycle.putIfAbsent(cycleId, job) != null) {
+            throw new DataConflictException("An assignment run is already in progress for cycle " + cycleId + ".");
+        }
+        if (!slots.tryAcquire()) {
+            activeByCycle.remove(cycleId, job);
+            throw new DataConflictException("Another assignment run is already in progress. Please retry once it has finished.");
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> markProcessing(cycleId));
+        } catch (RuntimeException e) {
+            activeByCycle.remove(cycleId, job);
+            slots.release();
+            throw e;
+        }
+
+        jobs.put(job.getId(), job);
+        pruneFinishedJobs();
+        if (async) {
+            executor.execute(() -> run(job));
+        } else {
+            run(job);
+        }
+        return toDto(job);
+    }
+
+    public AssignmentJobDto getJob(UUID cycleId, UUID jobId) {
+        return toDto(findJob(cycleId, jobId));
+    }
+
+    public AssignmentJobDto cancelJob(UUID cycleId, UUID jobId) {
+        AssignmentJob job = findJob(cycleId, jobId);
+        if (!job.requestCancel()) {
+            throw new DataConflictException("Assignment job " + jobId + " has already finished.");
+        }
+        return toDto(job);
+    }
+
+    /**
+     * The most recent successful run of a cycle since startup, if any.
+     */
+    public Optional<AssignmentJob> findLastCompletedJob(UUID cycleId) {
+        return Optional.ofNullable(lastCompletedByCycle.get(cycleId));
+    }
+
+    /**
+     * No job survives a restart, so a cycle left in PROCESSING by a crashed run is reopened.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reopenInterruptedCycles() {
+        transactionTemplate.executeWithoutResult(status ->
+                cycleRepository.findByStatus("PROCESSING").forEach(cycle -> {
+                    log.warn("Cycle {} was left in PROCESSING by an interrupted assignment run; reopening it", cycle.getId());
+                    cycle.setStatus("OPEN");
+                    currentCycles.refresh();
+                }));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(AssignmentJob::requestCancel);
+        executor.shutdownNow();
+    }
+
+    private void run(AssignmentJob job) {
+        UUID cycleId = job.getCycleId();
+        try {
+            job.enter(AssignmentJob.Phase.LOADING, "Loading survey responses and beds.");
+            PreparedAssignment prepared = transactionTemplate.execute(status -> engine.prepare(cycleId));
+            job.checkCancelled();
+
+            SolverOptions options = prepared.algorithm() == null ? solverOptions : solverOptions.withAlgorithm(prepared.algorithm());
+            job.enter(AssignmentJob.Phase.OPTIMIZING, "Matching " + prepared.students() + " students in "
+                    + prepared.partitions().size() + " partitions (" + options.algorithm() + ").");
+            AssignmentSolver.Solution solution = new AssignmentSolver(matchingPool, options)
+                    .solve(prepared.features(), prepared.constraints(), prepared.partitions(), job);
+            job.recordSolution(solution.stats(), solution.costCurve());
+            solution.stats().forEach(stats -> log.debug("Cycle {} partition {}: {} students, {} placed in {} ms, cost {} -> {}",
+                    cycleId, stats.key(), stats.students(), stats.placed(), stats.millis(), stats.greedyCost(), stats.finalCost()));
+            solution.stats().stream().filter(stats -> stats.violations() > 0).forEach(stats -> log.warn(
+                    "Cycle {} partition {}: {} students above a conflict-rule limit", cycleId, stats.key(), stats.violations()));
+            job.checkCancelled();
+
+            job.enter(AssignmentJob.Phase.PERSISTING, "Saving assignment results.");
+            Integer placed = transactionTemplate.execute(status -> {
+                int count = engine.saveResults(prepared, solution.roomOf());
+                updateStatus(cycleId, "COMPLETED");
+                return count;
+            });
+            job.finish(AssignmentJob.Phase.COMPLETED, "Placed " + placed + " of " + prepared.students() + " students.");
+            lastCompletedByCycle.put(cycleId, job);
+        } catch (MatchingCancelledException e) {
+            reopen(cycleId);
+            job.finish(AssignmentJob.Phase.CANCELLED, "Cancelled by an administrator.");
+        } catch (RuntimeException e) {
+            log.error("Assignment job {} for cycle {} failed", job.getId(), cycleId, e);
+            reopen(cycleId);
+            job.finish(AssignmentJob.Phase.FAILED, "Assignment failed: " + e.getMessage());
+        } finally {
+            activeByCycle.remove(cycleId, job);
+            slots.release();
+        }
+    }
+
+    private void markProcessing(UUID cycleId) {
+        MatchingCycle cycle = cycleRepository.findById(cycleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cycle not found with id: " + cycleId));
+        if (!"OPEN".equals(cycle.getStatus())) {
+            throw new DataConflictException("Cannot trigger assignment for a cycle that is not in 'OPEN' status.");
+        }
+        cycle.setStatus("PROCESSING");
+        cycleRepository.save(cycle);
+        currentCycles.refresh();
+    }
+
+    private void reopen(UUID cycleId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> updateStatus(cycleId, "OPEN"));
+        } catch (RuntimeException e) {
+            log.error("Could not reopen cycle {} after an unsuccessful assignment run", cycleId, e);
+        }
+    }
+
+    private void updateStatus(UUID cycleId, String status) {
+        cycleRepository.findById(cycleId).ifPresent(cycle -> {
+            cycle.setStatus(status);
+            cycleRepository.save(cycle);
+            currentCycles.refresh();
+        });
+    }
+
+    private AssignmentJob findJob(UUID cycleId, UUID jobId) {
+        AssignmentJob job = jobs.get(jobId);
+        if (job == null || !job.getCycleId().equals(cycleId)) {
+            throw new ResourceNotFoundException("Assignment job not found with id: " + jobId);
+        }
+        return job;
+    }
+
+    private void pruneFinishedJobs() {
+        if (jobs.size() <= MAX_RETAINED_JOBS) return;
+        jobs.values().stream()
+                .filter(j -> j.getPhase().isFinished())
+                .sorted(Comparator.comparing(AssignmentJob::getCreatedAt))
+                .limit(jobs.size() - MAX_RETAINED_JOBS)
+                .forEach(j -> jobs.remove(j.getId()));
+    }
+
+    private AssignmentJobDto toDto(AssignmentJob job) {
+        List<PartitionStatsDto> partitions = job.getPartitionStats().stream()
+                .map(s -> new PartitionStatsDto(s.key(), s.students(), s.beds(), s.placed(), s.millis(), s.greedyCost(), s.finalCost(), s.violations()))
+                .toList();
+        return new AssignmentJobDto(job.getId(), job.getCycleId(), job.getPhase().name(), job.getProgress(),
+                job.getMessage(), job.getCreatedAt(), job.getFinishedAt(), partitions);
+    }
+}
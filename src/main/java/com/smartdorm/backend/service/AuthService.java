@@ -1,48 +1,106 @@
 package com.smartdorm.backend.service;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.smartdorm.backend.dto.*;
-import com.smartdorm.backend.entity.User;
-import com.smartdorm.backend.repository.UserRepository;
+import com.smartdorm.backend.security.AuthenticatedUser;
 import com.smartdorm.backend.security.JwtUtil;
+import com.smartdorm.backend.security.LoginRateLimiter;
+import com.smartdorm.backend.security.PrincipalCache;
+import jakarta.transaction.Transactional;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+/**
+ * API login. Attempts over the {@link LoginRateLimiter} budget of the student id or client IP are refused before any
+ * hashing. The authentication provider loads the user once and checks the password on the bounded hashing pool
+ * (see {@link com.smartdorm.backend.security.BoundedPasswordEncoder}); the tokens and the returned user are built from
+ * the principal it produces, without further lookups.
+ * <p>
+ * Login returns a short-lived access token and a refresh token. Each refresh token can be exchanged once for a new
+ * pair: exchanging it revokes it through {@link TokenRevocationService}, so a replayed one is refused.
+ */
 @Service
 public class AuthService {
 
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
-    private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
+    private final LoginRateLimiter loginRateLimiter;
+    private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final PrincipalCache principalCache;
 
-    public AuthService(AuthenticationManager authenticationManager, UserDetailsService userDetailsService, UserRepository userRepository, JwtUtil jwtUtil) {
+    public AuthService(AuthenticationManager authenticationManager, JwtUtil jwtUtil, LoginRateLimiter loginRateLimiter,
+                       UserDetailsService userDetailsService, TokenRevocationService tokenRevocationService,
+                       PrincipalCache principalCache) {
         this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
-        this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
+        this.loginRateLimiter = loginRateLimiter;
+        this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.principalCache = principalCache;
     }
 
-    public LoginResponse login(LoginRequest loginRequest) {
+    public LoginResponse login(LoginRequest loginRequest, String clientIp) {
+        loginRateLimiter.acquire(loginRequest.studentId(), clientIp);
+        Authentication authentication;
         try {
-            authenticationManager.authenticate(
+            authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.studentId(), loginRequest.password())
             );
         } catch (BadCredentialsException e) {
             throw new BadCredentialsException("Invalid student ID or password");
         }
 
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.studentId());
-        final String token = jwtUtil.generateToken(userDetails);
+        return issueTokens((AuthenticatedUser) authentication.getPrincipal());
+    }
+
+    /**
+     * Exchanges a refresh token for a new access and refresh token. The user is loaded again, so a changed role or a
+     * deleted account takes effect here, also for the {@link PrincipalCache} entry behind the new access token.
+     */
+    @Transactional
+    public LoginResponse refresh(String refreshToken) {
+        DecodedJWT token = jwtUtil.validateToken(refreshToken);
+        if (token == null || !jwtUtil.isRefreshToken(token) || jwtUtil.tokenId(token) == null) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        AuthenticatedUser user;
+        try {
+            user = (AuthenticatedUser) userDetailsService.loadUserByUsername(token.getSubject());
+        } catch (UsernameNotFoundException e) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        if (!tokenRevocationService.revoke(jwtUtil.tokenId(token), token.getSubject(), token.getExpiresAtAsInstant())) {
+            throw new BadCredentialsException("Refresh token has already been used or revoked");
+        }
+        principalCache.evict(user.getUsername());
+        return issueTokens(user);
+    }
+
+    /**
+     * Revokes the caller's access token and, if given, their refresh token. Tokens that are invalid, already expired or
+     * not the caller's are ignored. The caller's cached principal is dropped as well.
+     */
+    @Transactional
+    public void logout(String studentId, String accessToken, String refreshToken) {
+        revokeIfValid(studentId, accessToken);
+        revokeIfValid(studentId, refreshToken);
+        principalCache.evict(studentId);
+    }
 
-        // Fetch user entity to create UserDto
-        User user = userRepository.findByStudentId(loginRequest.studentId()).orElseThrow(() -> new UsernameNotFoundException("User not found after successful authentication for: " + loginRequest.studentId()));
-        UserDto userDto = new UserDto(user.getId(), user.getStudentId(), user.getName(), user.getRole(), user.getGender(), user.getCollege());
+    private void revokeIfValid(String studentId, String rawToken) {
+        DecodedJWT token = rawToken == null ? null : jwtUtil.validateToken(rawToken);
+        if (token == null || jwtUtil.tokenId(token) == null || !token.getSubject().equals(studentId)) return;
+        tokenRevocationService.revoke(jwtUtil.tokenId(token), studentId, token.getExpiresAtAsInstant());
+    }
 
-        return new LoginResponse(token, userDto);
+    private LoginResponse issueTokens(AuthenticatedUser user) {
+        UserDto userDto = new UserDto(user.getId(), user.getUsername(), user.getName(), user.getRole(), user.getGender(), user.getCollege());
+        return new LoginResponse(jwtUtil.generateToken(user), jwtUtil.generateRefreshToken(user), userDto);
     }
-}
\ No newline at end of file
+}
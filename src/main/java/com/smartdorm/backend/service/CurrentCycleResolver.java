@@ -0,0 +1,71 @@
+package com.smartdorm.backend.service;
+
+import com.smartdorm.backend.entity.MatchingCycle;
+import com.smartdorm.backend.repository.MatchingCycleRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches which cycles the student pages work against: the OPEN cycle (survey) and the latest PROCESSING or COMPLETED
+ * cycle (feedback and swap requests).
+ * <p>
+ * Both are looked up together with two indexed queries on first use and kept until {@link #refresh} is called, which
+ * every status transition does ({@link CycleManagementService#updateCycle}, {@link AssignmentJobService}). Like
+ * {@link SurveyDefinitionCache}, loads and refreshes take effect when the caller's transaction commits.
+ */
+@Component
+public class CurrentCycleResolver {
+
+    static final List<String> ACTIVE_STATUSES = List.of("PROCESSING", "COMPLETED");
+
+    private final MatchingCycleRepository cycleRepository;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(UUID openCycleId, UUID latestActiveCycleId) {
+    }
+
+    public CurrentCycleResolver(MatchingCycleRepository cycleRepository) {
+        this.cycleRepository = cycleRepository;
+    }
+
+    /** The OPEN cycle; if several are open, the most recently created one. */
+    public Optional<UUID> openCycleId() {
+        return Optional.ofNullable(snapshot().openCycleId());
+    }
+
+    /** The most recently created PROCESSING or COMPLETED cycle. */
+    public Optional<UUID> latestActiveCycleId() {
+        return Optional.ofNullable(snapshot().latestActiveCycleId());
+    }
+
+    /** Forgets the current cycles after a status transition; the next call looks them up again. */
+    public void refresh() {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                generation.incrementAndGet();
+                snapshot = null;
+            }
+        });
+    }
+
+    private Snapshot snapshot() {
+        Snapshot cached = snapshot;
+        if (cached != null) return cached;
+        long loadedAt = generation.get();
+        Snapshot loaded = new Snapshot(
+                cycleRepository.findFirstByStatusOrderByCreatedAtDesc("OPEN").map(MatchingCycle::getId).orElse(null),
+                cycleRepository.findFirstByStatusInOrderByCreatedAtDesc(ACTIVE_STATUSES).map(MatchingCycle::getId).orElse(null));
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                if (generation.get() == loadedAt && snapshot == null) snapshot = loaded;
+            }
+        });
+        return loaded;
+    }
+}
@@ -3,20 +3,25 @@ package com.smartdorm.backend.service;
 import com.smartdorm.backend.dto.CycleDtos.*;
 import com.smartdorm.backend.entity.DimensionOption;
 import com.smartdorm.backend.entity.MatchingCycle;
+import com.smartdorm.backend.entity.RoomConstraintRule;
 import com.smartdorm.backend.entity.SurveyDimension;
 import com.smartdorm.backend.entity.UserResponse;
 import com.smartdorm.backend.exception.DataConflictException;
 import com.smartdorm.backend.exception.ResourceNotFoundException;
 import com.smartdorm.backend.mapper.CycleMapper;
+import com.smartdorm.backend.matching.ConflictRule;
 import com.smartdorm.backend.repository.MatchingCycleRepository;
+import com.smartdorm.backend.repository.RoomConstraintRuleRepository;
 import com.smartdorm.backend.repository.SurveyDimensionRepository;
 import com.smartdorm.backend.repository.UserResponseRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -26,15 +31,24 @@ public class CycleManagementService {
     private final SurveyDimensionRepository dimensionRepository;
     private final CycleMapper cycleMapper;
     private final UserResponseRepository userResponseRepository;
+    private final RoomConstraintRuleRepository ruleRepository;
+    private final SurveyDefinitionCache surveyCache;
+    private final CurrentCycleResolver currentCycles;
 
     public CycleManagementService(MatchingCycleRepository cycleRepository,
                                   SurveyDimensionRepository dimensionRepository,
                                   UserResponseRepository userResponseRepository,
-                                  CycleMapper cycleMapper) {
+                                  RoomConstraintRuleRepository ruleRepository,
+                                  CycleMapper cycleMapper,
+                                  SurveyDefinitionCache surveyCache,
+                                  CurrentCycleResolver currentCycles) {
         this.cycleRepository = cycleRepository;
         this.dimensionRepository = dimensionRepository;
         this.userResponseRepository = userResponseRepository;
+        this.ruleRepository = ruleRepository;
         this.cycleMapper = cycleMapper;
+        this.surveyCache = surveyCache;
+        this.currentCycles = currentCycles;
     }
 
     // --- Cycle Methods ---
@@ -63,7 +77,11 @@ public class CycleManagementService {
         if(dto.name() != null) cycle.setName(dto.name());
         if(dto.startDate() != null) cycle.setStartDate(dto.startDate());
         if(dto.endDate() != null) cycle.setEndDate(dto.endDate());
-        if(dto.status() != null) cycle.setStatus(dto.status());
+        if(dto.status() != null && !dto.status().equals(cycle.getStatus())) {
+            cycle.setStatus(dto.status());
+            currentCycles.refresh();
+        }
+        if(dto.algorithm() != null) cycle.setAlgorithm(dto.algorithm());
         return cycleMapper.toDto(cycleRepository.save(cycle));
     }
 
@@ -73,7 +91,9 @@ public class CycleManagementService {
         if (!"DRAFT".equals(cycle.getStatus())) {
             throw new DataConflictException("Cannot delete cycle in status '" + cycle.getStatus() + "'. Only 'DRAFT' cycles can be deleted.");
         }
+        ruleRepository.deleteAllInBatch(ruleRepository.findByCycleIdOrderByCreatedAtAsc(cycleId));
         cycleRepository.delete(cycle);
+        surveyCache.evict(cycleId);
     }
 
     // --- Dimension Methods ---
@@ -104,7 +124,9 @@ public class CycleManagementService {
             dimension.getOptions().addAll(options);
         }
 
-        return cycleMapper.toDto(dimensionRepository.save(dimension));
+        SurveyDimensionDto saved = cycleMapper.toDto(dimensionRepository.save(dimension));
+        surveyCache.evict(cycleId);
+        return saved;
     }
 
 
@@ -127,14 +149,16 @@ public class CycleManagementService {
         // [关键修改] record 的访问器就是字段名
         dimension.setReverseScored(dto.reverseScored());
 
-        return cycleMapper.toDto(dimensionRepository.save(dimension));
+        SurveyDimensionDto saved = cycleMapper.toDto(dimensionRepository.save(dimension));
+        surveyCache.evict(dimension.getCycle().getId());
+        return saved;
     }
 
     public void deleteDimension(UUID dimensionId) {
         // 1. 验证维度是否存在，如果不存在，后续操作无意义
-        if (!dimensionRepository.existsById(dimensionId)) {
-            throw new ResourceNotFoundException("Dimension not found with id: " + dimensionId);
-        }
+        UUID cycleId = dimensionRepository.findById(dimensionId)
+                .map(d -> d.getCycle().getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Dimension not found with id: " + dimensionId));
 
         // 2. 查找并删除所有相关的 UserResponse 记录
         List<UserResponse> responsesToDelete = userResponseRepository.findByDimensionId(dimensionId);
@@ -147,5 +171,60 @@ public class CycleManagementService {
         // 这意味着当我们删除 SurveyDimension 时，JPA 会自动删除其关联的所有 DimensionOption。
         // 所以我们不需要手动删除 options。
         dimensionRepository.deleteById(dimensionId);
+        surveyCache.evict(cycleId);
+    }
+
+    // --- Conflict Rule Methods ---
+
+    /**
+     * 内置规则 (高神经质 + 低宜人性) 对所有周期生效，排在管理员声明的规则之前。
+     */
+    public List<ConstraintRuleDto> getConstraintRules(UUID cycleId) {
+        if (!cycleRepository.existsById(cycleId)) {
+            throw new ResourceNotFoundException("Cycle not found with id: " + cycleId);
+        }
+        return Stream.concat(
+                Stream.of(cycleMapper.toDto(ConflictRule.HIGH_NEUROTICISM_LOW_AGREEABLENESS)),
+                ruleRepository.findByCycleIdOrderByCreatedAtAsc(cycleId).stream().map(cycleMapper::toDto)
+        ).collect(Collectors.toList());
+    }
+
+    public ConstraintRuleDto createConstraintRule(UUID cycleId, ConstraintRuleCreateDto dto) {
+        MatchingCycle cycle = cycleRepository.findById(cycleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cycle not found with id: " + cycleId));
+        if (ruleRepository.existsByCycleIdAndName(cycleId, dto.name())
+                || ConflictRule.HIGH_NEUROTICISM_LOW_AGREEABLENESS.name().equals(dto.name())) {
+            throw new DataConflictException("A rule named '" + dto.name() + "' already exists in this cycle.");
+        }
+        ConflictRule parsed;
+        try {
+            parsed = ConflictRule.parse(dto.name(), dto.expression(), dto.maxPerRoom());
+        } catch (IllegalArgumentException e) {
+            throw new DataConflictException(e.getMessage());
+        }
+        // 条件只能引用本周期的顶层 SOFT_FACTOR 维度，它们才会成为匹配特征
+        Set<String> features = dimensionRepository.findByCycleId(cycleId).stream()
+                .filter(d -> "SOFT_FACTOR".equals(d.getDimensionType()) && d.getParentDimensionKey() == null)
+                .map(SurveyDimension::getDimensionKey)
+                .collect(Collectors.toSet());
+        for (ConflictRule.Condition condition : parsed.conditions()) {
+            if (!features.contains(condition.feature())) {
+                throw new DataConflictException("Unknown SOFT_FACTOR dimension '" + condition.feature() + "' in rule expression.");
+            }
+        }
+
+        RoomConstraintRule rule = new RoomConstraintRule();
+        rule.setCycle(cycle);
+        rule.setName(dto.name());
+        rule.setExpression(parsed.expression());
+        rule.setMaxPerRoom(dto.maxPerRoom());
+        return cycleMapper.toDto(ruleRepository.save(rule));
+    }
+
+    public void deleteConstraintRule(UUID ruleId) {
+        if (!ruleRepository.existsById(ruleId)) {
+            throw new ResourceNotFoundException("Constraint rule not found with id: " + ruleId);
+        }
+        ruleRepository.deleteById(ruleId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+package com.smartdorm.backend.service;
+
+import com.smartdorm.backend.entity.User;
+import com.smartdorm.backend.matching.FeatureMatrix;
+import com.smartdorm.backend.matching.FeatureMatrixBuilder;
+import com.smartdorm.backend.repository.ResponseValue;
+import com.smartdorm.backend.repository.SurveyDimensionRepository;
+import com.smartdorm.backend.repository.UserRepository;
+import com.smartdorm.backend.repository.UserResponseRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Loads the survey answers of a cycle into a {@link FeatureMatrix} with a single streamed projection query.
+ * Normalization and reverse scoring are applied while the rows are read, so every consumer (the matcher,
+ * the quality report, analytics) works on the same ready-to-use primitive structure.
+ */
+@Service
+@Transactional
+public class FeatureMatrixLoader {
+
+    private final SurveyDimensionRepository dimensionRepository;
+    private final UserResponseRepository responseRepository;
+    private final UserRepository userRepository;
+
+    public FeatureMatrixLoader(SurveyDimensionRepository dimensionRepository,
+                               UserResponseRepository responseRepository,
+                               UserRepository userRepository) {
+        this.dimensionRepository = dimensionRepository;
+        this.responseRepository = responseRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Matrix of every student who answered the cycle's survey, ordered by student id.
+     */
+    public FeatureMatrix load(UUID cycleId) {
+        UUID[] students = userRepository.findRespondentsOfCycle(cycleId).stream()
+                .map(User::getId)
+                .toArray(UUID[]::new);
+        return load(cycleId, students);
+    }
+
+    /**
+     * Matrix whose row {@code i} belongs to {@code students[i]}; students without answers get neutral rows.
+     */
+    public FeatureMatrix load(UUID cycleId, UUID[] students) {
+        FeatureMatrixBuilder builder = new FeatureMatrixBuilder(dimensionRepository.findByCycleId(cycleId), students);
+        try (Stream<ResponseValue> values = responseRepository.streamValuesForCycle(cycleId)) {
+            values.forEach(v -> builder.accept(v.userId(), v.dimensionId(), v.rawValue()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Like {@link #load(UUID, UUID[])}, but reads only the answers of the given students instead of streaming the
+     * whole cycle; for a handful of students, e.g. the rooms around an approved swap request.
+     */
+    public FeatureMatrix loadFew(UUID cycleId, UUID[] students) {
+        FeatureMatrixBuilder builder = new FeatureMatrixBuilder(dimensionRepository.findByCycleId(cycleId), students);
+        for (ResponseValue v : responseRepository.findValuesForUsers(cycleId, Arrays.asList(students))) {
+            builder.accept(v.userId(), v.dimensionId(), v.rawValue());
+        }
+        return builder.build();
+    }
+}
@@ -3,13 +3,14 @@ package com.smartdorm.backend.service;
 import com.smartdorm.backend.dto.StudentDtos.*;
 import com.smartdorm.backend.entity.*;
 import com.smartdorm.backend.exception.ResourceNotFoundException;
-import com.smartdorm.backend.mapper.CycleMapper;
 import com.smartdorm.backend.repository.*;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -17,53 +18,57 @@ import java.util.stream.Collectors;
 @Transactional
 public class StudentService {
 
-    private final MatchingCycleRepository cycleRepository;
-    private final SurveyDimensionRepository dimensionRepository;
+    private final CurrentCycleResolver currentCycles;
     private final UserResponseRepository responseRepository;
     private final MatchingResultRepository resultRepository;
-    private final CycleMapper cycleMapper;
+    private final SurveyDefinitionCache surveyCache;
 
-    public StudentService(MatchingCycleRepository cycleRepository, SurveyDimensionRepository dimensionRepository, UserResponseRepository responseRepository, MatchingResultRepository resultRepository, CycleMapper cycleMapper) {
-        this.cycleRepository = cycleRepository;
-        this.dimensionRepository = dimensionRepository;
+    public StudentService(CurrentCycleResolver currentCycles, UserResponseRepository responseRepository, MatchingResultRepository resultRepository, SurveyDefinitionCache surveyCache) {
+        this.currentCycles = currentCycles;
         this.responseRepository = responseRepository;
         this.resultRepository = resultRepository;
-        this.cycleMapper = cycleMapper;
+        this.surveyCache = surveyCache;
     }
 
     public SurveyForStudentDto getSurveyForStudent() {
-        MatchingCycle openCycle = cycleRepository.findAll().stream()
-                .filter(c -> "OPEN".equals(c.getStatus()))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("No open survey is available at the moment."));
+        return getOpenSurvey().survey();
+    }
 
-        List<SurveyDimension> dimensions = dimensionRepository.findByCycleId(openCycle.getId());
-        return new SurveyForStudentDto(
-                openCycle.getId(),
-                dimensions.stream().map(cycleMapper::toDto).collect(Collectors.toList())
-        );
+    /** The open cycle's survey from {@link SurveyDefinitionCache}, with its serialized form and ETag. */
+    public SurveyDefinitionCache.OpenSurvey getOpenSurvey() {
+        return surveyCache.openSurvey()
+                .orElseThrow(() -> new ResourceNotFoundException("No open survey is available at the moment."));
     }
 
-    public void submitResponses(UserResponseSubmitDto dto, User currentUser) {
-        List<UserResponse> responsesToSave = new ArrayList<>();
+    /**
+     * Saves the student's answers, overwriting earlier answers to the same dimensions. Every dimension must belong to
+     * the open cycle; they are checked against {@link SurveyDefinitionCache} and written with a single upsert, so a
+     * submission costs one statement however many dimensions it answers. If a dimension appears twice, the last answer
+     * wins.
+     */
+    public void submitResponses(UserResponseSubmitDto dto, UUID userId) {
+        Map<UUID, Double> answers = new LinkedHashMap<>();
         for (ResponseItem item : dto.responses()) {
-            UserResponse response = responseRepository.findByUserIdAndDimensionId(currentUser.getId(), item.dimensionId())
-                    .orElse(new UserResponse());
-
-            // Check if dimension exists (optional but good practice)
-            SurveyDimension dimension = dimensionRepository.findById(item.dimensionId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Dimension not found with id: " + item.dimensionId()));
+            answers.put(item.dimensionId(), item.rawValue());
+        }
+        if (answers.isEmpty()) return;
 
-            response.setUser(currentUser);
-            response.setDimension(dimension);
-            response.setRawValue(item.rawValue());
-            responsesToSave.add(response);
+        UUID openCycleId = currentCycles.openCycleId()
+                .orElseThrow(() -> new ResourceNotFoundException("No open survey is available at the moment."));
+        Set<UUID> known = surveyCache.dimensionIds(openCycleId);
+        for (UUID dimensionId : answers.keySet()) {
+            if (!known.contains(dimensionId)) {
+                throw new ResourceNotFoundException("Dimension not found with id: " + dimensionId);
+            }
         }
-        responseRepository.saveAll(responsesToSave);
+
+        UUID[] dimensionIds = answers.keySet().toArray(UUID[]::new);
+        double[] rawValues = answers.values().stream().mapToDouble(Double::doubleValue).toArray();
+        responseRepository.upsertResponses(userId, dimensionIds, rawValues);
     }
 
-    public AssignmentResultStudentDto getStudentResult(User currentUser) {
-        MatchingResult result = resultRepository.findByUserId(currentUser.getId())
+    public AssignmentResultStudentDto getStudentResult(UUID userId) {
+        MatchingResult result = resultRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Your assignment result is not available yet."));
 
         Bed bed = result.getBed();
@@ -75,7 +80,7 @@ public class StudentService {
         // Find roommates in the same room, excluding the current user
         List<RoommateDto> roommates = resultRepository.findByBed_Room_Id(room.getId()).stream()
                 .map(MatchingResult::getUser)
-                .filter(user -> !user.getId().equals(currentUser.getId()))
+                .filter(user -> !user.getId().equals(userId))
                 .map(user -> new RoommateDto(user.getName(), user.getStudentId()))
                 .collect(Collectors.toList());
 
@@ -6,6 +6,7 @@ import com.smartdorm.backend.exception.DataConflictException;
 import com.smartdorm.backend.exception.ResourceNotFoundException;
 import com.smartdorm.backend.repository.*;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -17,34 +18,42 @@ import java.util.stream.Collectors;
 @Transactional
 public class SupportService {
 
+    /** Largest page of {@link #getNotificationsForUser(UUID, NotificationCursor, boolean, int)}; larger limits are capped. */
+    public static final int MAX_NOTIFICATION_PAGE_SIZE = 100;
+
     private final FeedbackRepository feedbackRepository;
     private final SwapRequestRepository swapRequestRepository;
     private final ContentArticleRepository articleRepository;
     private final NotificationRepository notificationRepository;
     private final MatchingCycleRepository cycleRepository;
+    private final SwapReassignmentService swapReassignmentService;
+    private final CurrentCycleResolver currentCycles;
+    private final UserRepository userRepository;
 
-    public SupportService(FeedbackRepository feedbackRepository, SwapRequestRepository swapRequestRepository, ContentArticleRepository articleRepository, NotificationRepository notificationRepository, MatchingCycleRepository cycleRepository) {
+    public SupportService(FeedbackRepository feedbackRepository, SwapRequestRepository swapRequestRepository, ContentArticleRepository articleRepository, NotificationRepository notificationRepository, MatchingCycleRepository cycleRepository, SwapReassignmentService swapReassignmentService, CurrentCycleResolver currentCycles, UserRepository userRepository) {
         this.feedbackRepository = feedbackRepository;
         this.swapRequestRepository = swapRequestRepository;
         this.articleRepository = articleRepository;
         this.notificationRepository = notificationRepository;
         this.cycleRepository = cycleRepository;
+        this.swapReassignmentService = swapReassignmentService;
+        this.currentCycles = currentCycles;
+        this.userRepository = userRepository;
     }
 
-    // --- Helper to find the latest completed or processing cycle ---
+    // --- Helper to find the latest completed or processing cycle (cached id, reference without a query) ---
     private MatchingCycle findLatestActiveCycle() {
-        return cycleRepository.findAll().stream()
-                .filter(c -> "COMPLETED".equals(c.getStatus()) || "PROCESSING".equals(c.getStatus()))
-                .max((c1, c2) -> c1.getCreatedAt().compareTo(c2.getCreatedAt()))
+        return currentCycles.latestActiveCycleId()
+                .map(cycleRepository::getReferenceById)
                 .orElseThrow(() -> new ResourceNotFoundException("No active or completed cycle found."));
     }
 
     // --- Feedback Logic ---
-    public void createFeedback(FeedbackCreateDto dto, User currentUser) {
+    public void createFeedback(FeedbackCreateDto dto, UUID userId) {
         MatchingCycle cycle = findLatestActiveCycle();
         Feedback feedback = new Feedback();
         feedback.setCycle(cycle);
-        feedback.setUser(currentUser);
+        feedback.setUser(userRepository.getReferenceById(userId));
         feedback.setAnonymous(dto.isAnonymous());
         feedback.setRating(dto.rating());
         feedback.setComment(dto.comment());
@@ -52,10 +61,10 @@ public class SupportService {
     }
 
     // --- Swap Request Logic ---
-    public void createSwapRequest(SwapRequestCreateDto dto, User currentUser) {
+    public void createSwapRequest(SwapRequestCreateDto dto, UUID userId) {
         MatchingCycle cycle = findLatestActiveCycle();
         SwapRequest request = new SwapRequest();
-        request.setUser(currentUser);
+        request.setUser(userRepository.getReferenceById(userId));
         request.setCycle(cycle);
         request.setReason(dto.reason());
         swapRequestRepository.save(request);
@@ -79,21 +88,30 @@ public class SupportService {
                 .orElseThrow(() -> new ResourceNotFoundException("Swap request not found with id: " + requestId));
     }
 
+    /**
+     * Approving a pending request moves the student within their neighbourhood, in this same transaction. If no move
+     * is possible the request stays PENDING and a {@link DataConflictException} tells the admin why.
+     */
     public SwapRequestDto processSwapRequest(UUID requestId, SwapRequestUpdateDto dto) {
         SwapRequest request = swapRequestRepository.findById(requestId)
                 .orElseThrow(() -> new ResourceNotFoundException("Swap request not found with id: " + requestId));
+        boolean approving = "APPROVED".equals(dto.status()) && "PENDING".equals(request.getStatus());
+        if (approving && !swapReassignmentService.relocate(request.getCycle().getId(), request.getUser().getId())) {
+            throw new DataConflictException("Cannot approve swap request " + requestId + ": the student has no bed in " +
+                    "this cycle, or no compatible room nearby has a free bed or a trade partner.");
+        }
         request.setStatus(dto.status());
         request.setAdminComment(dto.adminComment());
         return mapToSwapRequestDto(swapRequestRepository.save(request));
     }
 
     // --- Article Logic ---
-    public ArticleDto createArticle(ArticleCreateDto dto, User adminUser) {
+    public ArticleDto createArticle(ArticleCreateDto dto, UUID authorId) {
         ContentArticle article = new ContentArticle();
         article.setTitle(dto.title());
         article.setContent(dto.content());
         article.setCategory(dto.category());
-        article.setAuthor(adminUser);
+        article.setAuthor(userRepository.getReferenceById(authorId));
         return mapToArticleDto(articleRepository.save(article));
     }
 
@@ -136,16 +154,45 @@ public class SupportService {
     }
 
     // --- Notification Logic ---
-    public List<NotificationDto> getNotificationsForUser(User currentUser) {
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(currentUser.getId()).stream()
+    public List<NotificationDto> getNotificationsForUser(UUID userId) {
+        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
                 .map(this::mapToNotificationDto)
                 .collect(Collectors.toList());
     }
 
-    public void markNotificationAsRead(UUID notificationId, User currentUser) {
+    /**
+     * One page of the user's notifications, newest first, found by keyset so every page costs the same.
+     *
+     * @param before     the last notification of the previous page, or {@code null} for the first page
+     * @param unreadOnly whether to list only unread notifications
+     */
+    public List<NotificationDto> getNotificationsForUser(UUID userId, NotificationCursor before, boolean unreadOnly, int limit) {
+        Limit pageLimit = Limit.of(Math.max(1, Math.min(limit, MAX_NOTIFICATION_PAGE_SIZE)));
+        if (unreadOnly) {
+            return before == null
+                    ? notificationRepository.findUnreadPage(userId, pageLimit)
+                    : notificationRepository.findUnreadPageBefore(userId, before.createdAt(), before.id(), pageLimit);
+        }
+        return before == null
+                ? notificationRepository.findPage(userId, pageLimit)
+                : notificationRepository.findPageBefore(userId, before.createdAt(), before.id(), pageLimit);
+    }
+
+    public long countUnreadNotifications(UUID userId) {
+        return notificationRepository.countUnread(userId);
+    }
+
+    /**
+     * @return the number of notifications that were unread
+     */
+    public int markAllNotificationsAsRead(UUID userId) {
+        return notificationRepository.markAllRead(userId);
+    }
+
+    public void markNotificationAsRead(UUID notificationId, UUID userId) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Notification not found with id: " + notificationId));
-        if (!notification.getUser().getId().equals(currentUser.getId())) {
+        if (!notification.getUser().getId().equals(userId)) {
             throw new DataConflictException("User does not have permission to read this notification.");
         }
         notification.setRead(true);
@@ -0,0 +1,117 @@
+package com.smartdorm.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartdorm.backend.dto.StudentDtos.SurveyForStudentDto;
+import com.smartdorm.backend.mapper.CycleMapper;
+import com.smartdorm.backend.repository.SurveyDimensionRepository;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process cache of the survey definitions, so the burst of page views and submissions after a survey opens is
+ * served from memory.
+ * <p>
+ * It holds the dimension ids of each cycle, against which submissions are validated, and the survey of the OPEN
+ * cycle (as resolved by {@link CurrentCycleResolver}) as students see it, already serialized to JSON with an ETag.
+ * Dimensions only change through {@link CycleManagementService}, which calls {@link #evict}; when another cycle opens,
+ * the cached survey no longer matches the open cycle id and is rebuilt. Loads and evictions take effect when the
+ * caller's transaction commits, and a load that overlaps an eviction is returned but not kept, so the cache never
+ * holds uncommitted or outdated definitions.
+ */
+@Component
+public class SurveyDefinitionCache {
+
+    private final CurrentCycleResolver currentCycles;
+    private final SurveyDimensionRepository dimensionRepository;
+    private final CycleMapper cycleMapper;
+    private final ObjectMapper objectMapper;
+
+    private final Map<UUID, Set<UUID>> dimensionIdsByCycle = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile OpenSurvey openSurvey;
+
+    /**
+     * The open cycle's survey, with {@code json} the response body of {@code survey} and {@code etag} a quoted strong
+     * entity tag derived from it.
+     */
+    public record OpenSurvey(SurveyForStudentDto survey, byte[] json, String etag) {
+        public UUID cycleId() {
+            return survey.cycleId();
+        }
+    }
+
+    public SurveyDefinitionCache(CurrentCycleResolver currentCycles,
+                                 SurveyDimensionRepository dimensionRepository,
+                                 CycleMapper cycleMapper,
+                                 ObjectMapper objectMapper) {
+        this.currentCycles = currentCycles;
+        this.dimensionRepository = dimensionRepository;
+        this.cycleMapper = cycleMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    /** The survey of the OPEN cycle, or empty if no cycle is open. */
+    public Optional<OpenSurvey> openSurvey() {
+        UUID cycleId = currentCycles.openCycleId().orElse(null);
+        if (cycleId == null) return Optional.empty();
+        OpenSurvey cached = openSurvey;
+        if (cached != null && cached.cycleId().equals(cycleId)) return Optional.of(cached);
+        long loadedAt = generation.get();
+        OpenSurvey loaded = build(cycleId);
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                if (generation.get() == loadedAt) openSurvey = loaded;
+            }
+        });
+        return Optional.of(loaded);
+    }
+
+    /** Ids of the cycle's survey dimensions. */
+    public Set<UUID> dimensionIds(UUID cycleId) {
+        Set<UUID> cached = dimensionIdsByCycle.get(cycleId);
+        if (cached != null) return cached;
+        long loadedAt = generation.get();
+        Set<UUID> loaded = Set.copyOf(dimensionRepository.findIdsByCycleId(cycleId));
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                if (generation.get() == loadedAt) dimensionIdsByCycle.putIfAbsent(cycleId, loaded);
+            }
+        });
+        return loaded;
+    }
+
+    /** Drops the cycle's definition, including the open survey if it is this cycle's. */
+    public void evict(UUID cycleId) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                generation.incrementAndGet();
+                dimensionIdsByCycle.remove(cycleId);
+                if (openSurvey != null && openSurvey.cycleId().equals(cycleId)) openSurvey = null;
+            }
+        });
+    }
+
+    private OpenSurvey build(UUID cycleId) {
+        SurveyForStudentDto survey = new SurveyForStudentDto(cycleId,
+                dimensionRepository.findByCycleId(cycleId).stream().map(cycleMapper::toDto).toList());
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(survey);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            String etag = "\"" + HexFormat.of().formatHex(Arrays.copyOf(digest, 16)) + "\"";
+            return new OpenSurvey(survey, json, etag);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not serialize the survey of cycle " + cycleId, e);
+        }
+    }
+}
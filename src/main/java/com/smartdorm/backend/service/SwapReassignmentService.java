@@ -0,0 +1,236 @@
+package com.smartdorm.backend.service;
+
+import com.smartdorm.backend.dto.SupportDtos.SwapBatchResultDto;
+import com.smartdorm.backend.dto.SupportDtos.SwapExchangeDto;
+import com.smartdorm.backend.dto.SupportDtos.SwapExchangeMoveDto;
+import com.smartdorm.backend.entity.DormRoom;
+import com.smartdorm.backend.entity.MatchingResult;
+import com.smartdorm.backend.entity.SwapRequest;
+import com.smartdorm.backend.matching.FeatureMatrix;
+import com.smartdorm.backend.matching.RoomConstraints;
+import com.smartdorm.backend.matching.SwapRelocator;
+import com.smartdorm.backend.matching.SwapRelocator.Relocation;
+import com.smartdorm.backend.matching.TopTradingCycles;
+import com.smartdorm.backend.repository.BedOccupancy;
+import com.smartdorm.backend.repository.BedRepository;
+import com.smartdorm.backend.repository.MatchingResultRepository;
+import com.smartdorm.backend.repository.SwapRequestRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Moves the student of an approved swap request to another room without re-running the cycle.
+ * <p>
+ * The neighbourhood is the {@code smartdorm.matching.swap-neighbourhood-rooms} rooms of the same building and gender
+ * closest to the student's room (in room number order). Only rooms whose occupants share the student's college and
+ * HARD_FILTER answers are candidates, the same grouping the original run used. {@link SwapRelocator} picks the
+ * cheapest move or trade, and only the affected rows of {@code matching_results} are rewritten, inside the caller's
+ * transaction.
+ * <p>
+ * {@link #exchangePending} handles a cycle's whole backlog of pending requests at once with {@link TopTradingCycles}.
+ */
+@Service
+@Transactional
+public class SwapReassignmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(SwapReassignmentService.class);
+
+    private final MatchingResultRepository resultRepository;
+    private final BedRepository bedRepository;
+    private final SwapRequestRepository swapRequestRepository;
+    private final FeatureMatrixLoader featureLoader;
+    private final AssignmentEngineService engine;
+    private final int neighbourhoodRooms;
+
+    public SwapReassignmentService(MatchingResultRepository resultRepository,
+                                   BedRepository bedRepository,
+                                   SwapRequestRepository swapRequestRepository,
+                                   FeatureMatrixLoader featureLoader,
+                                   AssignmentEngineService engine,
+                                   @Value("${smartdorm.matching.swap-neighbourhood-rooms:40}") int neighbourhoodRooms) {
+        this.resultRepository = resultRepository;
+        this.bedRepository = bedRepository;
+        this.swapRequestRepository = swapRequestRepository;
+        this.featureLoader = featureLoader;
+        this.engine = engine;
+        this.neighbourhoodRooms = Math.max(2, neighbourhoodRooms);
+    }
+
+    /**
+     * @return whether the student was moved; {@code false} if they have no bed in the cycle or no compatible room
+     * has space or a trade partner
+     */
+    public boolean relocate(UUID cycleId, UUID userId) {
+        long start = System.nanoTime();
+        MatchingResult current = resultRepository.findByUserId(userId)
+                .filter(result -> result.getCycle().getId().equals(cycleId))
+                .orElse(null);
+        if (current == null) {
+            log.info("Swap for user {} in cycle {}: no assignment to change", userId, cycleId);
+            return false;
+        }
+        DormRoom home = current.getBed().getRoom();
+
+        // beds of the building's rooms of this gender, grouped per room in room number order
+        Map<UUID, List<BedOccupancy>> bedsByRoom = new LinkedHashMap<>();
+        for (BedOccupancy bed : bedRepository.findOccupancy(cycleId, home.getBuilding().getId(), home.getGenderType())) {
+            bedsByRoom.computeIfAbsent(bed.roomId(), id -> new ArrayList<>()).add(bed);
+        }
+        List<List<BedOccupancy>> rooms = window(new ArrayList<>(bedsByRoom.values()), home.getId());
+
+        List<UUID> students = new ArrayList<>();
+        List<String> colleges = new ArrayList<>();
+        List<Integer> roomList = new ArrayList<>();
+        int[] capacities = new int[rooms.size()];
+        for (int r = 0; r < rooms.size(); r++) {
+            capacities[r] = rooms.get(r).size();
+            for (BedOccupancy bed : rooms.get(r)) {
+                if (bed.userId() == null) continue;
+                students.add(bed.userId());
+                colleges.add(bed.college());
+                roomList.add(r);
+            }
+        }
+        int[] roomOf = roomList.stream().mapToInt(Integer::intValue).toArray();
+        int student = students.indexOf(userId);
+
+        FeatureMatrix features = featureLoader.loadFew(cycleId, students.toArray(UUID[]::new));
+        RoomConstraints constraints = engine.constraints(cycleId, features);
+        boolean[] compatible = new boolean[students.size()];
+        for (int s = 0; s < compatible.length; s++) {
+            compatible[s] = Objects.equals(colleges.get(s), colleges.get(student)) && sameFilters(features, s, student);
+        }
+
+        Relocation relocation = SwapRelocator.best(features, constraints, roomOf, capacities, student, compatible).orElse(null);
+        if (relocation == null) {
+            log.info("Swap for user {} in cycle {}: no compatible room among {} neighbouring rooms", userId, cycleId, rooms.size());
+            return false;
+        }
+
+        List<BedOccupancy> target = rooms.get(relocation.room());
+        UUID targetGroup = target.stream().map(BedOccupancy::matchGroupId).filter(Objects::nonNull).findFirst()
+                .orElseGet(UUID::randomUUID);
+        if (relocation.partner() < 0) {
+            UUID freeBed = target.stream().filter(bed -> bed.userId() == null).findFirst().orElseThrow().bedId();
+            resultRepository.replaceStudentResults(cycleId, new UUID[]{userId}, new UUID[]{freeBed}, new UUID[]{targetGroup});
+        } else {
+            UUID partnerId = students.get(relocation.partner());
+            UUID partnerBed = target.stream().filter(bed -> partnerId.equals(bed.userId())).findFirst().orElseThrow().bedId();
+            resultRepository.replaceStudentResults(cycleId,
+                    new UUID[]{userId, partnerId},
+                    new UUID[]{partnerBed, current.getBed().getId()},
+                    new UUID[]{targetGroup, current.getMatchGroupId()});
+        }
+        log.info("Swap for user {} in cycle {}: moved to room {} ({}), cost change {}, violation change {}, {} ms",
+                userId, cycleId, target.get(0).roomId(), relocation.partner() < 0 ? "free bed" : "trade",
+                relocation.costDelta(), relocation.violationDelta(), (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    /**
+     * Trades beds among the students with a PENDING swap request in exchange cycles that leave every participant with
+     * more compatible roommates (see {@link TopTradingCycles}). With {@code apply}, the moves are written and the
+     * participants' requests approved in this transaction; otherwise nothing changes and the result is a preview.
+     * Requests that are not part of any cycle stay pending.
+     */
+    public SwapBatchResultDto exchangePending(UUID cycleId, boolean apply) {
+        List<SwapRequest> pending = swapRequestRepository.findWithUserByCycleIdAndStatus(cycleId, "PENDING");
+        Map<UUID, List<SwapRequest>> requestsByUser = new LinkedHashMap<>();
+        for (SwapRequest request : pending) {
+            requestsByUser.computeIfAbsent(request.getUser().getId(), id -> new ArrayList<>()).add(request);
+        }
+        List<BedOccupancy> beds = requestsByUser.isEmpty()
+                ? List.of()
+                : resultRepository.findOccupancyOfRoomsOf(cycleId, requestsByUser.keySet());
+        if (beds.isEmpty()) return new SwapBatchResultDto(apply, pending.size(), 0, List.of());
+
+        UUID[] students = beds.stream().map(BedOccupancy::userId).toArray(UUID[]::new);
+        Map<UUID, Integer> roomIndex = new HashMap<>();
+        int[] roomOf = new int[students.length];
+        for (int s = 0; s < students.length; s++) {
+            roomOf[s] = roomIndex.computeIfAbsent(beds.get(s).roomId(), id -> roomIndex.size());
+        }
+        FeatureMatrix features = featureLoader.loadFew(cycleId, students);
+        RoomConstraints constraints = engine.constraints(cycleId, features);
+
+        // requesters in request order; each trades within the group of their gender, college and filter answers
+        Map<String, Integer> groups = new HashMap<>();
+        int[] groupOf = new int[students.length];
+        List<Integer> requesters = new ArrayList<>();
+        for (Map.Entry<UUID, List<SwapRequest>> entry : requestsByUser.entrySet()) {
+            int s = features.indexOf(entry.getKey());
+            if (s < 0) continue; // no bed in this cycle
+            StringBuilder key = new StringBuilder(entry.getValue().get(0).getUser().getGender())
+                    .append('/').append(beds.get(s).college());
+            for (int f = 0; f < features.filterKeys().size(); f++) key.append('/').append(features.filterValue(s, f));
+            groupOf[s] = groups.computeIfAbsent(key.toString(), k -> groups.size());
+            requesters.add(s);
+        }
+
+        List<TopTradingCycles.Exchange> exchanges = TopTradingCycles.solve(features, constraints, roomOf, groupOf,
+                requesters.stream().mapToInt(Integer::intValue).toArray());
+
+        List<SwapExchangeDto> result = new ArrayList<>();
+        List<UUID> movedUsers = new ArrayList<>();
+        List<UUID> newBeds = new ArrayList<>();
+        List<UUID> newGroups = new ArrayList<>();
+        for (TopTradingCycles.Exchange exchange : exchanges) {
+            int[] members = exchange.students();
+            List<SwapExchangeMoveDto> moves = new ArrayList<>();
+            for (int t = 0; t < members.length; t++) {
+                BedOccupancy from = beds.get(members[t]);
+                BedOccupancy to = beds.get(members[(t + 1) % members.length]);
+                SwapRequest request = requestsByUser.get(from.userId()).get(0);
+                moves.add(new SwapExchangeMoveDto(request.getId(), from.userId(), request.getUser().getName(),
+                        from.bedId(), to.bedId(), exchange.costBefore()[t], exchange.costAfter()[t]));
+                movedUsers.add(from.userId());
+                newBeds.add(to.bedId());
+                newGroups.add(to.matchGroupId());
+            }
+            result.add(new SwapExchangeDto(moves));
+        }
+
+        if (apply && !movedUsers.isEmpty()) {
+            resultRepository.replaceStudentResults(cycleId, movedUsers.toArray(UUID[]::new),
+                    newBeds.toArray(UUID[]::new), newGroups.toArray(UUID[]::new));
+            for (SwapExchangeDto exchange : result) {
+                String comment = "Approved by batch exchange (cycle of " + exchange.moves().size() + " students).";
+                for (SwapExchangeMoveDto move : exchange.moves()) {
+                    for (SwapRequest request : requestsByUser.get(move.userId())) {
+                        request.setStatus("APPROVED");
+                        request.setAdminComment(comment);
+                    }
+                }
+            }
+        }
+        log.info("Batch swap for cycle {}: {} pending requests, {} students in {} exchange cycles{}",
+                cycleId, pending.size(), movedUsers.size(), exchanges.size(), apply ? " applied" : " (preview)");
+        return new SwapBatchResultDto(apply, pending.size(), movedUsers.size(), result);
+    }
+
+    /** Up to {@link #neighbourhoodRooms} rooms centred on the student's room. */
+    private List<List<BedOccupancy>> window(List<List<BedOccupancy>> rooms, UUID homeRoomId) {
+        int home = 0;
+        while (!rooms.get(home).get(0).roomId().equals(homeRoomId)) home++;
+        int from = Math.max(0, Math.min(home - neighbourhoodRooms / 2, rooms.size() - neighbourhoodRooms));
+        return rooms.subList(from, Math.min(rooms.size(), from + neighbourhoodRooms));
+    }
+
+    private static boolean sameFilters(FeatureMatrix features, int a, int b) {
+        for (int f = 0; f < features.filterKeys().size(); f++) {
+            if (Double.compare(features.filterValue(a, f), features.filterValue(b, f)) != 0) return false;
+        }
+        return true;
+    }
+}
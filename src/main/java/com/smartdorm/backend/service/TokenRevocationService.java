@@ -0,0 +1,171 @@
+package com.smartdorm.backend.service;
+
+import com.smartdorm.backend.repository.RevokedTokenRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Revoked API tokens, identified by their {@code jti}. Revocations are stored in {@code revoked_tokens} until the
+ * token would have expired anyway, and mirrored in memory so that checking a token on every request costs no query:
+ * <ul>
+ *     <li>a Bloom filter of all unexpired revocations, loaded from the table on first use; a token it does not
+ *     contain is certainly not revoked, which is the answer for almost every request;</li>
+ *     <li>an exact set of the revocations made by this instance, so a freshly revoked token is rejected without a
+ *     query.</li>
+ * </ul>
+ * Only a token the filter reports, but the exact set does not hold (one revoked before a restart or a false positive),
+ * is looked up in the table. Once more revocations were added than the filter was sized for, expired rows are deleted
+ * and the filter is rebuilt from the table on the next check.
+ */
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final int recentMaxEntries;
+
+    private final Map<UUID, Instant> recent = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${jwt.revocation.expected-entries:100000}") int expectedEntries,
+                                  @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                                  @Value("${jwt.revocation.recent-max-entries:10000}") int recentMaxEntries) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedEntries = Math.max(1, expectedEntries);
+        this.falsePositiveRate = falsePositiveRate;
+        this.recentMaxEntries = Math.max(1, recentMaxEntries);
+    }
+
+    /** Whether the token was revoked; tokens without an id cannot be revoked. */
+    public boolean isRevoked(UUID jti) {
+        if (jti == null) return false;
+        if (recent.containsKey(jti)) return true;
+        BloomFilter current = filter;
+        if (current == null) current = rebuild();
+        return current.mightContain(jti) && revokedTokenRepository.existsById(jti);
+    }
+
+    /**
+     * Revokes the token until {@code expiresAt}; the in-memory checks see it once the transaction commits.
+     *
+     * @return {@code false} if the token had already been revoked
+     */
+    @Transactional
+    public boolean revoke(UUID jti, String studentId, Instant expiresAt) {
+        if (revokedTokenRepository.insertIfAbsent(jti, studentId, expiresAt) == 0) return false;
+        BloomFilter current = filter;
+        boolean saturated = current != null && current.size() >= current.capacity();
+        if (saturated) revokedTokenRepository.deleteExpired(Instant.now());
+        AfterCommit.run(() -> {
+            remember(jti, expiresAt);
+            if (saturated) filter = null;
+        });
+        return true;
+    }
+
+    private void remember(UUID jti, Instant expiresAt) {
+        recent.put(jti, expiresAt);
+        BloomFilter current = filter;
+        if (current != null) current.add(jti);
+        if (recent.size() > recentMaxEntries) {
+            // expired tokens fail verification anyway; beyond that, dropped entries are still in the filter and table
+            Instant now = Instant.now();
+            recent.values().removeIf(expiry -> !expiry.isAfter(now));
+            Iterator<UUID> it = recent.keySet().iterator();
+            while (recent.size() > recentMaxEntries && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Loads the unexpired revocations into a new filter. Revocations committed while it loads may be missing from it,
+     * but they are in {@link #recent}.
+     */
+    private synchronized BloomFilter rebuild() {
+        BloomFilter current = filter;
+        if (current != null) return current;
+        List<UUID> active = revokedTokenRepository.findActiveJtis(Instant.now());
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, 2 * active.size()), falsePositiveRate);
+        active.forEach(rebuilt::add);
+        filter = rebuilt;
+        return rebuilt;
+    }
+
+    /**
+     * Lock-free Bloom filter of UUIDs over an {@link AtomicLongArray}. The {@code k} probes are derived from the two
+     * halves of the (already random) UUID by double hashing.
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashes;
+        private final int capacity;
+        private final AtomicInteger size = new AtomicInteger();
+
+        BloomFilter(int capacity, double falsePositiveRate) {
+            double p = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+            long m = (long) Math.ceil(-capacity * Math.log(p) / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray((int) Math.max(1, (m + 63) / 64));
+            this.bitCount = bits.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+            this.capacity = capacity;
+        }
+
+        void add(UUID id) {
+            long h1 = mix(id.getMostSignificantBits());
+            long h2 = mix(id.getLeastSignificantBits()) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long old;
+                do {
+                    old = bits.get(word);
+                } while ((old & mask) == 0 && !bits.compareAndSet(word, old, old | mask));
+            }
+            size.incrementAndGet();
+        }
+
+        boolean mightContain(UUID id) {
+            long h1 = mix(id.getMostSignificantBits());
+            long h2 = mix(id.getLeastSignificantBits()) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        int size() {
+            return size.get();
+        }
+
+        int capacity() {
+            return capacity;
+        }
+
+        // version 4 UUIDs have fixed version and variant bits, so spread every half before using it
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB93F53FE1A85L;
+            return h ^ (h >>> 33);
+        }
+    }
+}
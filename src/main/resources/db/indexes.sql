@@ -0,0 +1,6 @@
+-- Hibernate 建表 (ddl-auto) 之后执行，补充 JPA 注解无法表达的索引；语句须可重复执行
+
+-- 学生端按状态查找当前周期；草稿周期不会被查询，不进索引
+CREATE INDEX IF NOT EXISTS idx_matching_cycles_status_created
+    ON matching_cycles (status, created_at DESC)
+    WHERE status IN ('OPEN', 'PROCESSING', 'COMPLETED');
@@ -4,6 +4,7 @@ package com.smartdorm.backend.controller;
 import com.smartdorm.backend.dto.AdminDtos;
 import com.smartdorm.backend.dto.CycleDtos;
 import com.smartdorm.backend.service.AdminAssignmentService;
+import com.smartdorm.backend.service.AssignmentJobService;
 import com.smartdorm.backend.service.CycleManagementService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -113,17 +114,23 @@ public class AdminCycleViewControllerTest {
     @MockBean
     private AdminAssignmentService adminAssignmentService; // 注入 mock
 
+    @MockBean
+    private AssignmentJobService assignmentJobService;
+
     @Test
     @DisplayName("[P5] POST /trigger-assignment - Should trigger assignment and redirect")
     void whenTriggerAssignment_thenRedirectsToResults() throws Exception {
         UUID cycleId = UUID.randomUUID();
-        doNothing().when(adminAssignmentService).triggerAssignment(cycleId);
+        when(assignmentJobService.startJob(cycleId)).thenReturn(new AdminDtos.AssignmentJobDto(
+                UUID.randomUUID(), cycleId, "QUEUED", 0.0, null, Instant.now(), null, List.of()));
 
         mockMvc.perform(post("/view/admin/cycles/" + cycleId + "/trigger-assignment")
                         .with(csrf()))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/view/admin/cycles/" + cycleId + "/results"))
                 .andExpect(flash().attributeExists("successMessage"));
+
+        verify(assignmentJobService).startJob(cycleId);
     }
 
     @Test
@@ -131,7 +138,7 @@ public class AdminCycleViewControllerTest {
     void whenGetResults_thenReturnsResultsListView() throws Exception {
         UUID cycleId = UUID.randomUUID();
         when(cycleService.getCycleById(cycleId)).thenReturn(new CycleDtos.MatchingCycleDto(cycleId, "Test Cycle", null, null, "COMPLETED"));
-        when(adminAssignmentService.getAssignmentResults(cycleId)).thenReturn(Collections.emptyList());
+        when(adminAssignmentService.getAssignmentResults(cycleId, null, 100)).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/view/admin/cycles/" + cycleId + "/results"))
                 .andExpect(status().isOk())
@@ -4,6 +4,7 @@ package com.smartdorm.backend.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartdorm.backend.dto.LoginRequest;
 import com.smartdorm.backend.dto.LoginResponse;
+import com.smartdorm.backend.dto.RefreshTokenRequest;
 import com.smartdorm.backend.entity.User;
 import com.smartdorm.backend.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -58,6 +59,8 @@ class AuthControllerIntegrationTest {
         registry.add("spring.datasource.password", postgres::getPassword);
         // 设置ddl-auto为create，确保为每个测试类运行时都创建一个干净的表结构
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+        // 本类中同一学号会多次登录，放宽按学号的登录限流
+        registry.add("smartdorm.security.login-limit.student-burst", () -> "100");
     }
 
     // 在每个测试方法运行前，清理数据库并创建一个标准测试用户
@@ -160,4 +163,130 @@ class AuthControllerIntegrationTest {
                 .andExpect(jsonPath("$.name").value("John Doe"))
                 .andExpect(jsonPath("$.role").value("STUDENT"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("认证用户信息在缓存有效期内被复用，登出时清除缓存")
+    void principalIsCachedUntilLogout() throws Exception {
+        LoginResponse session = login("S001", "password123");
+        mockMvc.perform(get("/api/users/me").header("Authorization", "Bearer " + session.token()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("John Doe"));
+
+        // 直接修改数据库：缓存有效期内，已签发的 Token 仍看到缓存的用户信息
+        User user = userRepository.findByStudentId("S001").orElseThrow();
+        user.setName("Jane Doe");
+        userRepository.save(user);
+        mockMvc.perform(get("/api/users/me").header("Authorization", "Bearer " + session.token()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("John Doe"));
+
+        // 登出清除缓存，重新登录后看到最新信息
+        mockMvc.perform(post("/api/auth/logout").header("Authorization", "Bearer " + session.token()))
+                .andExpect(status().isNoContent());
+        LoginResponse next = login("S001", "password123");
+        mockMvc.perform(get("/api/users/me").header("Authorization", "Bearer " + next.token()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Jane Doe"));
+    }
+
+    @Test
+    @DisplayName("@CurrentUser 注入的是 Token 对应的用户，字段与数据库一致")
+    void currentUser_isResolvedFromTokenPrincipal() throws Exception {
+        createTestUser("S002", "password456", "ADMIN", "Alice Admin");
+        User student = userRepository.findByStudentId("S001").orElseThrow();
+        User admin = userRepository.findByStudentId("S002").orElseThrow();
+
+        mockMvc.perform(get("/api/users/me").header("Authorization", "Bearer " + login("S001", "password123").token()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(student.getId().toString()))
+                .andExpect(jsonPath("$.studentId").value("S001"))
+                .andExpect(jsonPath("$.gender").value("MALE"))
+                .andExpect(jsonPath("$.college").value("Test College"));
+        mockMvc.perform(get("/api/users/me").header("Authorization", "Bearer " + login("S002", "password456").token()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(admin.getId().toString()))
+                .andExpect(jsonPath("$.name").value("Alice Admin"))
+                .andExpect(jsonPath("$.role").value("ADMIN"));
+    }
+
+    @Test
+    @DisplayName("@CurrentUser: 签发 Token 后账号被删除，请求不再被认证")
+    void currentUser_deletedAccount_shouldReturnUnauthorized() throws Exception {
+        createTestUser("S003", "password789", "STUDENT", "Gone Soon");
+        String token = login("S003", "password789").token();
+        userRepository.delete(userRepository.findByStudentId("S003").orElseThrow());
+
+        mockMvc.perform(get("/api/users/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("刷新令牌: 换取新令牌后旧刷新令牌再次使用返回401")
+    void refresh_replayedRefreshToken_shouldReturnUnauthorized() throws Exception {
+        LoginResponse session = login("S001", "password123");
+
+        MvcResult refreshed = mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest(session.refreshToken()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty())
+                .andExpect(jsonPath("$.refreshToken").isNotEmpty())
+                .andExpect(jsonPath("$.user.studentId").value("S001"))
+                .andReturn();
+        LoginResponse next = objectMapper.readValue(refreshed.getResponse().getContentAsString(), LoginResponse.class);
+        assertThat(next.refreshToken()).isNotEqualTo(session.refreshToken());
+
+        // 旧刷新令牌只能使用一次
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest(session.refreshToken()))))
+                .andExpect(status().isUnauthorized());
+        // 新签发的访问令牌可以正常使用
+        mockMvc.perform(get("/api/users/me").header("Authorization", "Bearer " + next.token()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("登出: 已吊销的访问令牌和刷新令牌均返回401")
+    void logout_revokedTokens_shouldReturnUnauthorized() throws Exception {
+        LoginResponse session = login("S001", "password123");
+        mockMvc.perform(get("/api/users/me").header("Authorization", "Bearer " + session.token()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer " + session.token())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest(session.refreshToken()))))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/users/me").header("Authorization", "Bearer " + session.token()))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest(session.refreshToken()))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("刷新令牌不能作为访问令牌使用，访问令牌也不能用于刷新")
+    void refreshToken_usedAsBearer_shouldReturnUnauthorized() throws Exception {
+        LoginResponse session = login("S001", "password123");
+
+        mockMvc.perform(get("/api/users/me").header("Authorization", "Bearer " + session.refreshToken()))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest(session.token()))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // 辅助方法，登录并返回令牌
+    private LoginResponse login(String studentId, String password) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(studentId, password))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), LoginResponse.class);
+    }
+}
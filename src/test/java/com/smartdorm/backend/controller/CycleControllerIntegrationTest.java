@@ -136,7 +136,7 @@ class CycleControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].prompt", is("你的作息习惯是？")));
 
         // 4. Update status to OPEN, then attempt to delete (should fail)
-        MatchingCycleUpdateDto updateStatusDto = new MatchingCycleUpdateDto(null, null, null, "OPEN");
+        MatchingCycleUpdateDto updateStatusDto = new MatchingCycleUpdateDto(null, null, null, "OPEN", null);
         mockMvc.perform(put("/api/admin/cycles/" + cycleId)
                         .header("Authorization", adminToken)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -147,7 +147,7 @@ class CycleControllerIntegrationTest {
                 .andExpect(status().isConflict());
 
         // 5. Change status back to DRAFT and delete successfully
-        MatchingCycleUpdateDto revertStatusDto = new MatchingCycleUpdateDto(null, null, null, "DRAFT");
+        MatchingCycleUpdateDto revertStatusDto = new MatchingCycleUpdateDto(null, null, null, "DRAFT", null);
         mockMvc.perform(put("/api/admin/cycles/" + cycleId)
                         .header("Authorization", adminToken)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -72,6 +72,7 @@ public class FullLifecycleIntegrationTest {
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+        registry.add("smartdorm.assignment.async", () -> "false"); // run assignment inline so results are visible to the test
         registry.add("logging.level.org.springframework.security", () -> "INFO"); // Reduce noise in test logs
     }
 
@@ -178,7 +179,7 @@ public class FullLifecycleIntegrationTest {
         System.out.println("问卷维度创建成功: " + createdDimension.prompt());
 
         // Admin opens the cycle for students
-        MatchingCycleUpdateDto cycleUpdateDto = new MatchingCycleUpdateDto(null, null, null, "OPEN");
+        MatchingCycleUpdateDto cycleUpdateDto = new MatchingCycleUpdateDto(null, null, null, "OPEN", null);
         mockMvc.perform(put("/api/admin/cycles/" + cycleId)
                         .header("Authorization", adminToken)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -216,11 +217,11 @@ public class FullLifecycleIntegrationTest {
                 .andExpect(status().isOk());
         System.out.println("学生2 (李四) 成功提交问卷答案。");
 
-        // Admin triggers the assignment (placeholder logic)
+        // Admin triggers the assignment
         mockMvc.perform(post("/api/admin/cycles/" + cycleId + "/trigger-assignment")
                         .header("Authorization", adminToken))
                 .andExpect(status().isAccepted());
-        System.out.println("管理员已触发分配流程 (占位符)。");
+        System.out.println("管理员已触发分配流程。");
 
         // Verify cycle status changed to COMPLETED
         mockMvc.perform(get("/api/admin/cycles/" + cycleId).header("Authorization", adminToken))
@@ -228,12 +229,9 @@ public class FullLifecycleIntegrationTest {
                 .andExpect(jsonPath("$.status", is("COMPLETED")));
         System.out.println("分配周期状态已验证为: COMPLETED");
 
-        System.out.println("\n====== 关键步骤: 手动模拟算法分配结果 ======");
-        // Manually create mock results since algorithm is a placeholder
-        // This is a crucial step to test the result-viewing endpoints
-        createMockResult(cycleId, studentUser1, createdBeds.get(0));
-        createMockResult(cycleId, studentUser2, createdBeds.get(1));
-        System.out.println("已手动在数据库中插入模拟的分配结果。");
+        // The assignment engine has written the results: 张三 seeds room 101, 李四 joins him
+        assertThat(resultRepository.findByCycleId(cycleId)).hasSize(2);
+        System.out.println("分配算法已写入分配结果。");
 
         System.out.println("\n====== PHASE P4 (続き): 学生查看结果 ======");
         // Student 1 (张三) checks his assignment result
@@ -288,17 +286,4 @@ public class FullLifecycleIntegrationTest {
         assertThat(response.token()).isNotBlank();
         return "Bearer " + response.token();
     }
-
-    private void createMockResult(UUID cycleId, User user, BedDto bedDto) {
-        MatchingCycle cycle = cycleRepository.findById(cycleId).orElseThrow();
-        Bed bed = bedRepository.findById(bedDto.id()).orElseThrow();
-        UUID groupId = bed.getRoom().getId(); // Use room ID as group ID for simplicity
-
-        MatchingResult result = new MatchingResult();
-        result.setCycle(cycle);
-        result.setUser(user);
-        result.setBed(bed);
-        result.setMatchGroupId(groupId);
-        resultRepository.save(result);
-    }
 }
\ No newline at end of file
@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -83,6 +84,7 @@ public class FullSystemFlowIntegrationTest {
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+        registry.add("smartdorm.assignment.async", () -> "false"); // run assignment inline so results are visible to the test
     }
 
     @BeforeAll
@@ -230,7 +232,7 @@ public class FullSystemFlowIntegrationTest {
     @DisplayName("步骤3 [STU-02]: 管理员开放周期，学生获取问卷并提交")
     void step3_AdminOpensCycleAndStudentsSubmitSurvey() throws Exception {
         // 1. Admin opens the cycle
-        MatchingCycleUpdateDto updateDto = new MatchingCycleUpdateDto(null, null, null, "OPEN");
+        MatchingCycleUpdateDto updateDto = new MatchingCycleUpdateDto(null, null, null, "OPEN", null);
         mockMvc.perform(put("/api/admin/cycles/" + this.cycleId)
                         .header("Authorization", adminToken)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -276,10 +278,8 @@ public class FullSystemFlowIntegrationTest {
                         .header("Authorization", adminToken))
                 .andExpect(status().isAccepted());
 
-        // *** MOCKING THE ALGORITHM'S RESULT ***
-        UUID groupId = UUID.randomUUID();
-        createMatchingResult(cycleId, studentUser.getId(), bed1Id, groupId);
-        createMatchingResult(cycleId, roommateUser.getId(), bed2Id, groupId);
+        // The assignment engine places both students (same gender, same atmosphere) in room 401
+        assertEquals(2, resultRepository.findByCycleId(cycleId).size());
 
         // 2. Admin verifies the results
         mockMvc.perform(get("/api/admin/cycles/" + cycleId + "/validate-results")
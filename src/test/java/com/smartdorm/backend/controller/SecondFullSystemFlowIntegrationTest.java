@@ -1,6 +1,7 @@
 // src/test/java/com/smartdorm/backend/controller/SecondFullSystemFlowIntegrationTest.java
 package com.smartdorm.backend.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartdorm.backend.dto.CycleDtos.*;
 import com.smartdorm.backend.dto.DormDtos.*;
@@ -25,13 +26,18 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -87,6 +93,7 @@ public class SecondFullSystemFlowIntegrationTest {
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+        registry.add("smartdorm.assignment.async", () -> "false"); // run assignment inline so results are visible to the test
     }
 
     @BeforeAll
@@ -230,7 +237,7 @@ public class SecondFullSystemFlowIntegrationTest {
     @Order(3)
     @DisplayName("步骤3 [STU-02]: 管理员开放周期，学生获取问卷并提交")
     void step3_AdminOpensCycleAndStudentsSubmitSurvey() throws Exception {
-        MatchingCycleUpdateDto updateDto = new MatchingCycleUpdateDto(null, null, null, "OPEN");
+        MatchingCycleUpdateDto updateDto = new MatchingCycleUpdateDto(null, null, null, "OPEN", null);
         mockMvc.perform(put("/api/admin/cycles/" + this.cycleId).header("Authorization", adminToken).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updateDto))).andExpect(status().isOk());
 
         mockMvc.perform(get("/api/student/survey").header("Authorization", studentToken)).andExpect(status().isOk()).andExpect(jsonPath("$.dimensions", hasSize(2)));
@@ -253,9 +260,8 @@ public class SecondFullSystemFlowIntegrationTest {
                         .header("Authorization", adminToken))
                 .andExpect(status().isAccepted());
 
-        // *** MOCKING THE ALGORITHM'S RESULT ***
-        createMatchingResult(cycleId, studentUser.getId(), bed1Id, roomId);
-        createMatchingResult(cycleId, roommateUser.getId(), bed2Id, roomId);
+        // The assignment engine places both students (same gender, same atmosphere) in room 401
+        assertEquals(2, resultRepository.findByCycleId(cycleId).size());
 
         // 2. Admin validates the results and we assert the full response structure
         mockMvc.perform(get("/api/admin/cycles/" + this.cycleId + "/validate-results")
@@ -263,10 +269,11 @@ public class SecondFullSystemFlowIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.isValid", is(true)))
                 .andExpect(jsonPath("$.message", is("Results meet all validation criteria.")))
+                // the survey has neither personality nor schedule dimensions, so only the summary row remains
                 .andExpect(jsonPath("$.details", hasSize(1)))
-                .andExpect(jsonPath("$.details[0].dorm", is("Zijing Building 1-301")))
-                .andExpect(jsonPath("$.details[0].metric", is("Neuroticism Mean")))
-                .andExpect(jsonPath("$.details[0].value", is(0.55)))
+                .andExpect(jsonPath("$.details[0].dorm", is("All rooms")))
+                .andExpect(jsonPath("$.details[0].metric", is("Schedule Conflicts")))
+                .andExpect(jsonPath("$.details[0].value", is(0.0)))
                 .andExpect(jsonPath("$.details[0].isCompliant", is(true)));
     }
 
@@ -281,6 +288,65 @@ public class SecondFullSystemFlowIntegrationTest {
                 .andExpect(jsonPath("$[*].user.name", containsInAnyOrder("张三", "李四")))
                 .andExpect(jsonPath("$[0].building", is("紫荆公寓")))
                 .andExpect(jsonPath("$[0].room", is("401")));
+
+        // keyset pages: a full page links to the next one, which continues after its last row
+        String next = mockMvc.perform(get("/api/admin/cycles/" + this.cycleId + "/results").param("limit", "1")
+                        .header("Authorization", adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].bed", is(1)))
+                .andReturn().getResponse().getHeader("Link");
+        assertNotNull(next);
+        mockMvc.perform(get(next.substring(next.indexOf('<') + 1, next.indexOf('>'))).header("Authorization", adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].bed", is(2)));
+
+        // limits outside [1, MAX_PAGE_SIZE] are capped, and the next link follows the size actually used
+        mockMvc.perform(get("/api/admin/cycles/" + this.cycleId + "/results").param("limit", "5000")
+                        .header("Authorization", adminToken))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().doesNotExist("Link"));
+        mockMvc.perform(get("/api/admin/cycles/" + this.cycleId + "/results").param("limit", "0")
+                        .header("Authorization", adminToken))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string("Link", containsString("limit=1")));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("步骤5b [ADM-04]: 管理员导出分配结果 (CSV / NDJSON)")
+    void step5b_AdminExportsAssignmentResults() throws Exception {
+        // CSV: BOM + header + one line per student, ordered by building, room and bed
+        String csv = mockMvc.perform(get("/api/admin/cycles/" + this.cycleId + "/results/export.csv")
+                        .header("Authorization", adminToken))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", containsString("results-" + this.cycleId + ".csv")))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String[] lines = csv.split("\n");
+        assertEquals("\uFEFFstudent_id,name,gender,college,building,room,bed,match_group_id", lines[0]);
+        assertEquals(3, lines.length);
+        assertTrue(lines[1].startsWith("student_0") && lines[1].contains(",紫荆公寓,401,"));
+
+        // NDJSON: one JSON object per line with the same rows
+        String ndjson = mockMvc.perform(get("/api/admin/cycles/" + this.cycleId + "/results/export.ndjson")
+                        .header("Authorization", adminToken))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String[] rows = ndjson.split("\n");
+        assertEquals(2, rows.length);
+        for (String row : rows) {
+            JsonNode node = objectMapper.readTree(row);
+            assertEquals("紫荆公寓", node.get("building").asText());
+            assertEquals("401", node.get("room").asText());
+        }
+
+        // an unknown cycle is 404 before anything is written
+        mockMvc.perform(get("/api/admin/cycles/" + UUID.randomUUID() + "/results/export.csv")
+                        .header("Authorization", adminToken))
+                .andExpect(status().isNotFound());
     }
 
     @Test
@@ -14,7 +14,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -29,7 +31,12 @@ import java.util.UUID;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -53,6 +60,7 @@ public class StudentFlowIntegrationTest {
     @Autowired private DormRoomRepository roomRepository;
     @Autowired private BedRepository bedRepository;
     @Autowired private MatchingResultRepository resultRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
 
     private String adminToken;
     private String studentToken;
@@ -67,6 +75,7 @@ public class StudentFlowIntegrationTest {
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+        registry.add("smartdorm.assignment.async", () -> "false"); // run assignment inline so results are visible to the test
     }
 
     @BeforeEach
@@ -141,6 +150,83 @@ public class StudentFlowIntegrationTest {
                 .andExpect(jsonPath("$.roommates[0].name", is("Roommate P4")));
     }
 
+    @Test
+    @DisplayName("问卷响应带 ETag, 携带 If-None-Match 再次请求返回 304, 问卷变化后返回新版本")
+    void surveyIsRevalidatedWithETag() throws Exception {
+        String etag = mockMvc.perform(get("/api/student/survey").header("Authorization", studentToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.dimensions", hasSize(1)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        // unchanged survey: 304 without a body
+        mockMvc.perform(get("/api/student/survey")
+                        .header("Authorization", studentToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        // a stale tag gets the full survey
+        mockMvc.perform(get("/api/student/survey")
+                        .header("Authorization", studentToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        // adding a dimension changes the survey and therefore its tag
+        SurveyDimension second = new SurveyDimension();
+        second.setCycle(openCycle);
+        second.setDimensionKey("second_key");
+        second.setPrompt("Second Prompt");
+        second.setDimensionType("SOFT_FACTOR");
+        second.setResponseType("SCALE");
+        dimensionRepository.save(second);
+
+        String changed = mockMvc.perform(get("/api/student/survey")
+                        .header("Authorization", studentToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dimensions", hasSize(2)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    @DisplayName("重复提交同一维度的答案会覆盖之前的答案, 而不是新增一行")
+    void resubmittingResponsesOverwritesEarlierAnswers() throws Exception {
+        submitResponse(surveyDimension.getId(), 4.0);
+        submitResponse(surveyDimension.getId(), 2.0);
+
+        List<Double> stored = jdbcTemplate.queryForList(
+                "SELECT raw_value FROM user_responses WHERE user_id = ? AND dimension_id = ?",
+                Double.class, studentUser.getId(), surveyDimension.getId());
+        assertEquals(List.of(2.0), stored);
+
+        // an unknown dimension is rejected before anything is written
+        mockMvc.perform(post("/api/student/responses")
+                        .header("Authorization", studentToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new StudentDtos.UserResponseSubmitDto(List.of(
+                                new StudentDtos.ResponseItem(surveyDimension.getId(), 5.0),
+                                new StudentDtos.ResponseItem(UUID.randomUUID(), 1.0))))))
+                .andExpect(status().isNotFound());
+        assertEquals(2.0, jdbcTemplate.queryForObject(
+                "SELECT raw_value FROM user_responses WHERE user_id = ? AND dimension_id = ?",
+                Double.class, studentUser.getId(), surveyDimension.getId()));
+    }
+
+    private void submitResponse(UUID dimensionId, double rawValue) throws Exception {
+        StudentDtos.UserResponseSubmitDto submitDto = new StudentDtos.UserResponseSubmitDto(
+                List.of(new StudentDtos.ResponseItem(dimensionId, rawValue)));
+        mockMvc.perform(post("/api/student/responses")
+                        .header("Authorization", studentToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(submitDto)))
+                .andExpect(status().isOk());
+    }
+
     private User createUser(String studentId, String password, String role, String name) {
         User user = new User();
         user.setStudentId(studentId);
@@ -20,7 +20,6 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -42,10 +41,13 @@ public class StudentSurveyViewControllerTest {
     @MockBean
     private UserRepository userRepository;
 
+    private final UUID userId = UUID.randomUUID();
+
     @BeforeEach
     void setUp() {
         // Mock the user repository to return a user for the authenticated principal
         User mockUser = new User();
+        mockUser.setId(userId);
         mockUser.setStudentId("student");
         when(userRepository.findByStudentId("student")).thenReturn(Optional.of(mockUser));
     }
@@ -83,7 +85,7 @@ public class StudentSurveyViewControllerTest {
         List<StudentDtos.RoommateDto> roommates = List.of(new StudentDtos.RoommateDto("李四", "20240002"));
         StudentDtos.AssignmentResultStudentDto resultDto = new StudentDtos.AssignmentResultStudentDto(details, roommates);
 
-        when(studentService.getStudentResult(any(User.class))).thenReturn(resultDto);
+        when(studentService.getStudentResult(userId)).thenReturn(resultDto);
 
         mockMvc.perform(get("/view/student/result"))
                 .andExpect(status().isOk())
@@ -4,9 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartdorm.backend.dto.LoginRequest;
 import com.smartdorm.backend.dto.LoginResponse;
 import com.smartdorm.backend.dto.SupportDtos.*;
-import com.smartdorm.backend.entity.MatchingCycle;
-import com.smartdorm.backend.entity.Notification;
-import com.smartdorm.backend.entity.User;
+import com.smartdorm.backend.entity.*;
 import com.smartdorm.backend.repository.*;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -27,6 +26,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -49,6 +49,11 @@ public class SupportFeaturesIntegrationTest {
     @Autowired private NotificationRepository notificationRepository;
     @Autowired private SwapRequestRepository swapRequestRepository;
     @Autowired private ContentArticleRepository articleRepository;
+    @Autowired private DormBuildingRepository buildingRepository;
+    @Autowired private DormRoomRepository roomRepository;
+    @Autowired private BedRepository bedRepository;
+    @Autowired private MatchingResultRepository resultRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
 
     private String adminToken;
     private String studentToken;
@@ -119,15 +124,61 @@ public class SupportFeaturesIntegrationTest {
         SwapRequestDto[] requests = objectMapper.readValue(jsonResponse, SwapRequestDto[].class);
         UUID requestId = requests[0].id();
 
-        // 4. Admin processes (approves) the swap request
-        SwapRequestUpdateDto updateDto = new SwapRequestUpdateDto("APPROVED", "Approved after review.");
+        // 4. The student has no bed in the cycle, so approving cannot move them: 409 and the request stays pending
+        SwapRequestUpdateDto approveDto = new SwapRequestUpdateDto("APPROVED", "Approved after review.");
+        mockMvc.perform(put("/api/admin/swap-requests/" + requestId + "/process")
+                        .header("Authorization", adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(approveDto)))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/api/admin/swap-requests").header("Authorization", adminToken))
+                .andExpect(jsonPath("$[0].status", is("PENDING")));
+
+        // 5. Admin rejects the swap request instead
+        SwapRequestUpdateDto rejectDto = new SwapRequestUpdateDto("REJECTED", "No room available.");
         mockMvc.perform(put("/api/admin/swap-requests/" + requestId + "/process")
+                        .header("Authorization", adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rejectDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("REJECTED")))
+                .andExpect(jsonPath("$.adminComment", is("No room available.")));
+    }
+
+    @Test
+    @DisplayName("批准调宿申请后，学生被移到附近房间的空床位")
+    void testApprovedSwapRequestMovesStudent() throws Exception {
+        // 101 住着学生和室友，102 有一个空床位
+        DormBuilding building = new DormBuilding();
+        building.setName("Swap Building");
+        buildingRepository.save(building);
+        DormRoom home = createRoom(building, "101");
+        Bed homeBed = createBed(home, 1);
+        Bed roommateBed = createBed(home, 2);
+        Bed freeBed = createBed(createRoom(building, "102"), 1);
+        User roommate = createUser("roommate-p5", "pass", "STUDENT", "Support Roommate");
+        UUID groupId = UUID.randomUUID();
+        createResult(studentUser, homeBed, groupId);
+        createResult(roommate, roommateBed, groupId);
+
+        SwapRequest request = new SwapRequest();
+        request.setUser(studentUser);
+        request.setCycle(completedCycle);
+        request.setReason("Too noisy.");
+        request = swapRequestRepository.saveAndFlush(request);
+
+        SwapRequestUpdateDto updateDto = new SwapRequestUpdateDto("APPROVED", "Approved after review.");
+        mockMvc.perform(put("/api/admin/swap-requests/" + request.getId() + "/process")
                         .header("Authorization", adminToken)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(updateDto)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.status", is("APPROVED")))
-                .andExpect(jsonPath("$.adminComment", is("Approved after review.")));
+                .andExpect(jsonPath("$.status", is("APPROVED")));
+
+        UUID bedNow = jdbcTemplate.queryForObject(
+                "SELECT bed_id FROM matching_results WHERE user_id = ? AND cycle_id = ?", UUID.class,
+                studentUser.getId(), completedCycle.getId());
+        assertThat(bedNow).isEqualTo(freeBed.getId());
     }
 
     @Test
@@ -206,8 +257,81 @@ public class SupportFeaturesIntegrationTest {
                 .andExpect(jsonPath("$[0].isRead", is(true)));
     }
 
+    @Test
+    @DisplayName("学生可以分页获取通知、查看未读数并一次性全部标记为已读")
+    void testNotificationPagingAndReadAll() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            Notification notification = new Notification();
+            notification.setUser(studentUser);
+            notification.setMessage("通知 " + i);
+            notificationRepository.save(notification);
+        }
+
+        // 1. First page of two, newest first, with a link to the next page, which holds the rest
+        String next = mockMvc.perform(get("/api/student/notifications").param("limit", "2").header("Authorization", studentToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string("Link", containsString("beforeId=")))
+                .andReturn().getResponse().getHeader("Link");
+        mockMvc.perform(get(next.substring(next.indexOf('<') + 1, next.indexOf('>'))).header("Authorization", studentToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist("Link"));
+
+        // limits are capped to [1, MAX_NOTIFICATION_PAGE_SIZE], and the link follows the size actually used
+        mockMvc.perform(get("/api/student/notifications").param("limit", "0").header("Authorization", studentToken))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string("Link", containsString("limit=1")));
+        mockMvc.perform(get("/api/student/notifications").param("limit", "500").header("Authorization", studentToken))
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(header().doesNotExist("Link"));
+
+        // 2. Unread count
+        mockMvc.perform(get("/api/student/notifications/unread-count").header("Authorization", studentToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.unread", is(3)));
+
+        // 3. Mark all as read in one request
+        mockMvc.perform(post("/api/student/notifications/read-all").header("Authorization", studentToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", is(3)));
+
+        mockMvc.perform(get("/api/student/notifications/unread-count").header("Authorization", studentToken))
+                .andExpect(jsonPath("$.unread", is(0)));
+        mockMvc.perform(get("/api/student/notifications").param("limit", "10").param("unreadOnly", "true")
+                        .header("Authorization", studentToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andExpect(header().doesNotExist("Link"));
+    }
+
 
     // Helper methods
+    private DormRoom createRoom(DormBuilding building, String roomNumber) {
+        DormRoom room = new DormRoom();
+        room.setBuilding(building);
+        room.setRoomNumber(roomNumber);
+        room.setCapacity(2);
+        room.setGenderType("MALE");
+        return roomRepository.save(room);
+    }
+
+    private Bed createBed(DormRoom room, int bedNumber) {
+        Bed bed = new Bed();
+        bed.setRoom(room);
+        bed.setBedNumber(bedNumber);
+        return bedRepository.save(bed);
+    }
+
+    private void createResult(User user, Bed bed, UUID groupId) {
+        MatchingResult result = new MatchingResult();
+        result.setCycle(completedCycle);
+        result.setUser(user);
+        result.setBed(bed);
+        result.setMatchGroupId(groupId);
+        resultRepository.saveAndFlush(result);
+    }
+
     private User createUser(String studentId, String password, String role, String name) {
         User user = new User();
         user.setStudentId(studentId);
@@ -110,7 +110,7 @@ public class SupportFeaturesViewControllerTest {
                 .andExpect(redirectedUrl("/view/admin/support/articles"))
                 .andExpect(flash().attributeExists("successMessage"));
 
-        verify(supportService, times(1)).createArticle(any(SupportDtos.ArticleCreateDto.class), any(User.class));
+        verify(supportService, times(1)).createArticle(any(SupportDtos.ArticleCreateDto.class), eq(mockAdmin.getId()));
     }
 
 
@@ -137,7 +137,7 @@ public class SupportFeaturesViewControllerTest {
                 .andExpect(redirectedUrl("/view/student/dashboard"))
                 .andExpect(flash().attributeExists("successMessage"));
 
-        verify(supportService, times(1)).createSwapRequest(any(SupportDtos.SwapRequestCreateDto.class), any(User.class));
+        verify(supportService, times(1)).createSwapRequest(any(SupportDtos.SwapRequestCreateDto.class), eq(mockStudent.getId()));
     }
 
     @Test
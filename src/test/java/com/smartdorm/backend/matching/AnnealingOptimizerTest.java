@@ -0,0 +1,99 @@
+package com.smartdorm.backend.matching;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("单元测试: AnnealingOptimizer")
+class AnnealingOptimizerTest {
+
+    private final ScoringModel model = new ScoringModel(
+            List.of("neuroticism", "agreeableness", "sleep_time"),
+            List.of(0.3, 0.3, 0.4));
+
+    @Test
+    @DisplayName("退火应降低贪心结果的总代价，且增量代价与全量重算一致")
+    void improvesGreedyPlacementWithConsistentDeltas() {
+        FeatureMatrix features = randomStudents(200, 1);
+        int[] capacities = new int[55]; // 220 个床位，留出空床供移动
+        Arrays.fill(capacities, 4);
+        int[] greedy = GreedyRoomAssigner.assign(features, capacities, MatchingMonitor.NONE);
+
+        OptimizationResult result = AnnealingOptimizer.optimize(
+                features, capacities, greedy, 200_000, 60_000, 42, MatchingMonitor.NONE);
+
+        assertThat(result.initialCost()).isCloseTo(features.placementCost(greedy), within(1e-6));
+        assertThat(result.finalCost()).isCloseTo(features.placementCost(result.roomOf()), within(1e-6));
+        assertThat(result.finalCost()).isLessThan(result.initialCost());
+        assertThat(result.curve()).hasSize(OptimizationResult.CURVE_POINTS + 1);
+        assertThat(greedy).doesNotContain(GreedyRoomAssigner.UNASSIGNED);
+
+        int[] occupancy = new int[capacities.length];
+        for (int room : result.roomOf()) occupancy[room]++;
+        for (int r = 0; r < capacities.length; r++) assertThat(occupancy[r]).isLessThanOrEqualTo(capacities[r]);
+    }
+
+    @Test
+    @DisplayName("相同种子应得到相同结果")
+    void isReproducibleForAFixedSeed() {
+        FeatureMatrix features = randomStudents(60, 2);
+        int[] capacities = new int[15];
+        Arrays.fill(capacities, 4);
+        int[] greedy = GreedyRoomAssigner.assign(features, capacities, MatchingMonitor.NONE);
+
+        int[] first = AnnealingOptimizer.optimize(features, capacities, greedy, 20_000, 60_000, 7, MatchingMonitor.NONE).roomOf();
+        int[] second = AnnealingOptimizer.optimize(features, capacities, greedy, 20_000, 60_000, 7, MatchingMonitor.NONE).roomOf();
+
+        assertThat(second).containsExactly(first);
+    }
+
+    @Test
+    @DisplayName("时间预算为 0 时直接返回原分配")
+    void returnsInitialPlacementWithoutBudget() {
+        FeatureMatrix features = randomStudents(40, 3);
+        int[] capacities = new int[10];
+        Arrays.fill(capacities, 4);
+        int[] greedy = GreedyRoomAssigner.assign(features, capacities, MatchingMonitor.NONE);
+
+        OptimizationResult result = AnnealingOptimizer.optimize(features, capacities, greedy, 20_000, 0, 7, MatchingMonitor.NONE);
+
+        assertThat(result.roomOf()).containsExactly(greedy);
+        assertThat(result.iterations()).isZero();
+        assertThat(result.finalCost()).isEqualTo(result.initialCost());
+    }
+
+    @Test
+    @DisplayName("迭代次数很少、仍处于高温时，返回走过的最优分配而不是最后一步")
+    void returnsBestPlacementSeenOnShortWalk() {
+        FeatureMatrix features = randomStudents(80, 4);
+        int[] capacities = new int[22];
+        Arrays.fill(capacities, 4);
+        int[] greedy = GreedyRoomAssigner.assign(features, capacities, MatchingMonitor.NONE);
+
+        for (long seed = 0; seed < 20; seed++) {
+            OptimizationResult result = AnnealingOptimizer.optimize(
+                    features, capacities, greedy, 50, 60_000, seed, MatchingMonitor.NONE);
+
+            assertThat(result.finalCost()).isLessThanOrEqualTo(result.initialCost());
+            assertThat(result.finalCost()).isCloseTo(features.placementCost(result.roomOf()), within(1e-6));
+            for (int p = 1; p < result.curve().length; p++) {
+                assertThat(result.curve()[p]).isLessThanOrEqualTo(result.curve()[p - 1]);
+            }
+        }
+    }
+
+    private FeatureMatrix randomStudents(int n, long seed) {
+        Random random = new Random(seed);
+        double[][] rows = new double[n][3];
+        for (double[] row : rows) {
+            for (int f = 0; f < row.length; f++) row[f] = random.nextDouble();
+        }
+        return FeatureMatrix.of(model, rows);
+    }
+}
@@ -0,0 +1,86 @@
+package com.smartdorm.backend.matching;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("单元测试: AssignmentSolver")
+class AssignmentSolverTest {
+
+    private final ScoringModel model = new ScoringModel(
+            List.of("neuroticism", "agreeableness", "sleep_time"),
+            List.of(0.3, 0.3, 0.4));
+
+    @Test
+    @DisplayName("并行求解的结果应与单线程求解完全一致")
+    void parallelSolveIsDeterministic() {
+        Random random = new Random(7);
+        double[][] rows = new double[400][3];
+        for (double[] row : rows) {
+            for (int f = 0; f < row.length; f++) row[f] = random.nextDouble();
+        }
+        FeatureMatrix features = FeatureMatrix.of(model, rows);
+
+        List<Partition> partitions = new ArrayList<>();
+        for (int p = 0; p < 8; p++) {
+            int[] students = new int[50];
+            for (int k = 0; k < students.length; k++) students[k] = p * 50 + k;
+            int[] capacities = new int[12];
+            Arrays.fill(capacities, 4);
+            partitions.add(new Partition("P" + p, students, new int[capacities.length], capacities));
+        }
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            // 迭代次数足够小，不会触及时间上限，因此结果只取决于种子；缓存上限只够部分分区使用距离矩阵
+            SolverOptions options = new SolverOptions(MatchingAlgorithm.ANNEALING, 0, 60_000, 200, 0, 0, 0, 0, 20_000, 42);
+            AssignmentSolver.Solution expected = new AssignmentSolver(single, options).solve(features, partitions, MatchingMonitor.NONE);
+            AssignmentSolver.Solution actual = new AssignmentSolver(parallel, options).solve(features, partitions, MatchingMonitor.NONE);
+
+            assertThat(actual.roomOf()).isDeepEqualTo(expected.roomOf());
+            assertThat(actual.stats()).extracting(AssignmentSolver.PartitionStats::key)
+                    .containsExactly("P0", "P1", "P2", "P3", "P4", "P5", "P6", "P7");
+            assertThat(actual.stats()).allSatisfy(stats -> {
+                assertThat(stats.placed()).isEqualTo(48);
+                assertThat(stats.finalCost()).isLessThanOrEqualTo(stats.greedyCost());
+            });
+        } finally {
+            single.shutdownNow();
+            parallel.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("取消请求应终止求解")
+    void stopsWhenCancelled() {
+        FeatureMatrix features = FeatureMatrix.of(model, new double[][]{{0.1, 0.2, 0.3}, {0.4, 0.5, 0.6}});
+        List<Partition> partitions = List.of(new Partition("P0", new int[]{0, 1}, new int[]{0}, new int[]{2}));
+        MatchingMonitor cancelled = new MatchingMonitor() {
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+
+            @Override
+            public void progress(int done, int total) {
+            }
+        };
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertThatThrownBy(() -> new AssignmentSolver(pool, SolverOptions.GREEDY_ONLY).solve(features, partitions, cancelled))
+                    .isInstanceOf(MatchingCancelledException.class);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.smartdorm.backend.matching;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways of scoring every pair of a partition: row-major pair by pair ({@link ScoringModel}), the
+ * blocked structure-of-arrays {@link DissimilarityKernel}, and lookups in the cached distance matrix.
+ * Not a unit test: after {@code mvn test-compile}, run {@link #main} from the IDE or
+ * {@code org.openjdk.jmh.Main DissimilarityKernelBenchmark} on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DissimilarityKernelBenchmark {
+
+    @Param({"500", "2000"})
+    public int students;
+
+    private FeatureMatrix features;
+    private FeatureMatrix cached;
+    private DissimilarityKernel kernel;
+    private double[] row;
+
+    @Setup
+    public void setUp() {
+        ScoringModel model = new ScoringModel(
+                List.of("neuroticism", "extraversion", "openness", "agreeableness", "conscientiousness",
+                        "wake_time", "sleep_time", "clean_freq"),
+                List.of(0.3, 0.2, 0.2, 0.3, 0.2, 0.4, 0.4, 0.3));
+        Random random = new Random(42);
+        double[][] rows = new double[students][model.dimensions()];
+        for (double[] r : rows) {
+            for (int f = 0; f < r.length; f++) r[f] = random.nextDouble();
+        }
+        features = FeatureMatrix.of(model, rows);
+        cached = features.withDistanceCache();
+        kernel = DissimilarityKernel.of(features);
+        row = new double[students];
+    }
+
+    @Benchmark
+    public double scalar() {
+        double sum = 0.0;
+        for (int a = 0; a < students; a++) {
+            for (int b = a + 1; b < students; b++) sum += features.score(a, b);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double blocked() {
+        double sum = 0.0;
+        for (int a = 0; a < students - 1; a++) {
+            kernel.scoreAgainst(a, a + 1, students, row);
+            for (int j = 0, len = students - a - 1; j < len; j++) sum += row[j];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double cached() {
+        double sum = 0.0;
+        for (int a = 0; a < students; a++) {
+            for (int b = a + 1; b < students; b++) sum += cached.score(a, b);
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DissimilarityKernelBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,59 @@
+package com.smartdorm.backend.matching;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("单元测试: DissimilarityKernel")
+class DissimilarityKernelTest {
+
+    private final ScoringModel model = new ScoringModel(
+            List.of("neuroticism", "agreeableness", "openness", "sleep_time"),
+            List.of(0.3, 0.3, 0.2, 0.4));
+
+    @Test
+    @DisplayName("批量计算结果应与逐对计算完全一致")
+    void blockedScoresMatchScalarModel() {
+        FeatureMatrix features = randomStudents(37, 1);
+        DissimilarityKernel kernel = DissimilarityKernel.of(features);
+        double[] out = new double[features.size()];
+
+        for (int a = 0; a < features.size(); a++) {
+            kernel.scoreAgainst(a, 0, features.size(), out);
+            for (int b = 0; b < features.size(); b++) {
+                assertThat(out[b]).isEqualTo(features.score(a, b));
+                assertThat(kernel.score(a, b)).isEqualTo(features.score(a, b));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("距离矩阵缓存应与直接计算在 float 精度内一致")
+    void cachedScoresMatchDirectScores() {
+        FeatureMatrix features = randomStudents(53, 2);
+        FeatureMatrix cached = features.withDistanceCache();
+
+        assertThat(features.hasDistanceCache()).isFalse();
+        assertThat(cached.hasDistanceCache()).isTrue();
+        assertThat(FeatureMatrix.distanceCacheBytes(53)).isEqualTo(53L * 52 / 2 * Float.BYTES);
+        for (int a = 0; a < features.size(); a++) {
+            for (int b = 0; b < features.size(); b++) {
+                assertThat(cached.score(a, b)).isCloseTo(features.score(a, b), within(1e-6));
+            }
+        }
+    }
+
+    private FeatureMatrix randomStudents(int n, long seed) {
+        Random random = new Random(seed);
+        double[][] rows = new double[n][4];
+        for (double[] row : rows) {
+            for (int f = 0; f < row.length; f++) row[f] = random.nextDouble();
+        }
+        return FeatureMatrix.of(model, rows);
+    }
+}
@@ -0,0 +1,72 @@
+package com.smartdorm.backend.matching;
+
+import com.smartdorm.backend.entity.DimensionOption;
+import com.smartdorm.backend.entity.SurveyDimension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("单元测试: FeatureMatrixBuilder")
+class FeatureMatrixBuilderTest {
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @Test
+    @DisplayName("复合维度取子问题的均值，反向计分题应被翻转")
+    void averagesChildQuestionsAndFlipsReverseScored() {
+        SurveyDimension neuroticism = dimension("neuroticism", "SOFT_FACTOR", null, false);
+        SurveyDimension q1 = dimension("n_q1", "SOFT_FACTOR", "neuroticism", false);
+        SurveyDimension q2 = dimension("n_q2", "SOFT_FACTOR", "neuroticism", true);
+
+        FeatureMatrixBuilder builder = new FeatureMatrixBuilder(List.of(neuroticism, q1, q2), new UUID[]{alice, bob});
+        builder.accept(alice, q1.getId(), 5.0); // 1.0
+        builder.accept(alice, q2.getId(), 2.0); // 反向: 4 -> 0.75
+        FeatureMatrix matrix = builder.build();
+
+        assertThat(matrix.size()).isEqualTo(2);
+        assertThat(matrix.get(0, 0)).isCloseTo(0.875, within(1e-9));
+        assertThat(matrix.get(1, 0)).isEqualTo(0.5); // 未作答取中性值
+    }
+
+    @Test
+    @DisplayName("硬性筛选维度保留原始答案，不参与评分特征")
+    void keepsHardFiltersOutOfTheScoringModel() {
+        SurveyDimension sleep = dimension("sleep_time", "SOFT_FACTOR", null, false);
+        SurveyDimension atmosphere = dimension("atmosphere", "HARD_FILTER", null, false);
+        atmosphere.getOptions().addAll(List.of(option(1), option(2)));
+
+        FeatureMatrixBuilder builder = new FeatureMatrixBuilder(List.of(sleep, atmosphere), new UUID[]{alice, bob});
+        builder.accept(alice, atmosphere.getId(), 2.0);
+        builder.accept(bob, sleep.getId(), 3.0);
+        builder.accept(UUID.randomUUID(), sleep.getId(), 1.0); // 不在矩阵中的学生被忽略
+        FeatureMatrix matrix = builder.build();
+
+        assertThat(matrix.model().dimensions()).isEqualTo(1);
+        assertThat(matrix.get(1, 0)).isEqualTo(0.5);
+        assertThat(matrix.filterValue(0, matrix.indexOfFilter("atmosphere"))).isEqualTo(2.0);
+        assertThat(matrix.filterValue(1, 0)).isNaN();
+        assertThat(matrix.indexOf(bob)).isEqualTo(1);
+    }
+
+    private static SurveyDimension dimension(String key, String type, String parent, boolean reverse) {
+        SurveyDimension dimension = new SurveyDimension();
+        dimension.setId(UUID.randomUUID());
+        dimension.setDimensionKey(key);
+        dimension.setDimensionType(type);
+        dimension.setParentDimensionKey(parent);
+        dimension.setReverseScored(reverse);
+        return dimension;
+    }
+
+    private static DimensionOption option(double value) {
+        DimensionOption option = new DimensionOption();
+        option.setOptionValue(value);
+        return option;
+    }
+}
@@ -0,0 +1,78 @@
+package com.smartdorm.backend.matching;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("单元测试: GeneticOptimizer")
+class GeneticOptimizerTest {
+
+    private final ScoringModel model = new ScoringModel(
+            List.of("neuroticism", "agreeableness", "sleep_time"),
+            List.of(0.3, 0.3, 0.4));
+
+    private final SolverOptions options = new SolverOptions(MatchingAlgorithm.GENETIC, 0, 0, 0, 60_000, 32, 300, 300, 0, 42);
+
+    @Test
+    @DisplayName("遗传算法不应劣于贪心结果，且不超出房间容量")
+    void improvesGreedyPlacementWithinCapacities() {
+        FeatureMatrix features = randomStudents(120, 1);
+        int[] capacities = new int[32]; // 128 个床位，含空床
+        Arrays.fill(capacities, 4);
+        int[] greedy = GreedyRoomAssigner.assign(features, capacities, MatchingMonitor.NONE);
+
+        OptimizationResult result = GeneticOptimizer.optimize(
+                features, capacities, greedy, options, 60_000, 42, MatchingMonitor.NONE);
+
+        assertThat(result.initialCost()).isCloseTo(features.placementCost(greedy), within(1e-6));
+        assertThat(result.finalCost()).isCloseTo(features.placementCost(result.roomOf()), within(1e-6));
+        assertThat(result.finalCost()).isLessThan(result.initialCost());
+        assertThat(result.curve()).hasSize(OptimizationResult.CURVE_POINTS + 1);
+
+        int[] occupancy = new int[capacities.length];
+        for (int room : result.roomOf()) {
+            assertThat(room).isNotEqualTo(GreedyRoomAssigner.UNASSIGNED);
+            occupancy[room]++;
+        }
+        for (int r = 0; r < capacities.length; r++) assertThat(occupancy[r]).isLessThanOrEqualTo(capacities[r]);
+    }
+
+    @Test
+    @DisplayName("相同种子在不同线程数下应得到相同结果")
+    void isReproducibleAcrossThreadCounts() throws Exception {
+        FeatureMatrix features = randomStudents(60, 2);
+        int[] capacities = new int[15];
+        Arrays.fill(capacities, 4);
+        int[] greedy = GreedyRoomAssigner.assign(features, capacities, MatchingMonitor.NONE);
+        SolverOptions shortRun = new SolverOptions(MatchingAlgorithm.GENETIC, 0, 0, 0, 60_000, 16, 50, 50, 0, 7);
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool quad = new ForkJoinPool(4);
+        try {
+            int[] first = single.submit(() -> GeneticOptimizer.optimize(
+                    features, capacities, greedy, shortRun, 60_000, 7, MatchingMonitor.NONE)).get().roomOf();
+            int[] second = quad.submit(() -> GeneticOptimizer.optimize(
+                    features, capacities, greedy, shortRun, 60_000, 7, MatchingMonitor.NONE)).get().roomOf();
+            assertThat(second).containsExactly(first);
+        } finally {
+            single.shutdownNow();
+            quad.shutdownNow();
+        }
+    }
+
+    private FeatureMatrix randomStudents(int n, long seed) {
+        Random random = new Random(seed);
+        double[][] rows = new double[n][3];
+        for (double[] row : rows) {
+            for (int f = 0; f < row.length; f++) row[f] = random.nextDouble();
+        }
+        return FeatureMatrix.of(model, rows);
+    }
+}
@@ -0,0 +1,65 @@
+package com.smartdorm.backend.matching;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("单元测试: GreedyRoomAssigner")
+class GreedyRoomAssignerTest {
+
+    private final ScoringModel model = new ScoringModel(
+            List.of("neuroticism", "agreeableness", "sleep_time"),
+            List.of(0.3, 0.3, 0.4));
+
+    @Test
+    @DisplayName("相似的学生应被分到同一宿舍，且不超过床位数")
+    void groupsSimilarStudentsWithinCapacity() {
+        double[][] vectors = {
+                {0.1, 0.9, 0.0}, // 早睡
+                {0.9, 0.2, 1.0}, // 晚睡
+                {0.1, 0.8, 0.1}, // 早睡
+                {0.8, 0.3, 0.9}  // 晚睡
+        };
+
+        int[] roomOf = GreedyRoomAssigner.assign(vectors, new int[]{2, 2}, model);
+
+        assertThat(roomOf[0]).isEqualTo(roomOf[2]);
+        assertThat(roomOf[1]).isEqualTo(roomOf[3]);
+        assertThat(roomOf[0]).isNotEqualTo(roomOf[1]);
+    }
+
+    @Test
+    @DisplayName("床位不足时多余的学生保持未分配")
+    void leavesStudentsUnassignedWhenBedsRunOut() {
+        double[][] vectors = {{0.1, 0.5, 0.5}, {0.2, 0.5, 0.5}, {0.3, 0.5, 0.5}};
+
+        int[] roomOf = GreedyRoomAssigner.assign(vectors, new int[]{2}, model);
+
+        assertThat(roomOf).containsExactlyInAnyOrder(0, 0, GreedyRoomAssigner.UNASSIGNED);
+    }
+
+    @Test
+    @DisplayName("12000 名学生的分配应在一分钟内完成")
+    void handlesFullIntake() {
+        Random random = new Random(42);
+        int n = 12_000;
+        double[][] vectors = new double[n][3];
+        for (double[] v : vectors) {
+            for (int f = 0; f < v.length; f++) v[f] = random.nextDouble();
+        }
+        int[] capacities = new int[n / 4];
+        Arrays.fill(capacities, 4);
+
+        long start = System.nanoTime();
+        int[] roomOf = GreedyRoomAssigner.assign(vectors, capacities, model);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(roomOf).doesNotContain(GreedyRoomAssigner.UNASSIGNED);
+        assertThat(elapsedMs).isLessThan(60_000);
+    }
+}
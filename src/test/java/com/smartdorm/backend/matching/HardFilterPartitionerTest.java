@@ -0,0 +1,79 @@
+package com.smartdorm.backend.matching;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("单元测试: HardFilterPartitioner")
+class HardFilterPartitionerTest {
+
+    private static final String M = "MALE";
+    private static final String F = "FEMALE";
+
+    @Test
+    @DisplayName("按性别、学院和硬性筛选条件分组，剩余学生溢出到上一级")
+    void bucketsByConstraintsAndSpillsLeftovers() {
+        // 0-3: 男/计算机/安静，4: 男/计算机/热闹，5: 男/物理/安静，6-7: 女/计算机/安静
+        String[] gender = {M, M, M, M, M, M, F, F};
+        String[] college = {"CS", "CS", "CS", "CS", "CS", "PHY", "CS", "CS"};
+        double[] atmosphere = {1, 1, 1, 1, 2, 1, 1, 1};
+        FeatureMatrix features = withFilter(atmosphere);
+
+        String[] roomGender = {M, M, F};
+        int[] roomCapacity = {4, 4, 2};
+
+        List<Partition> partitions = HardFilterPartitioner.partition(
+                new int[]{0, 1, 2, 3, 4, 5, 6, 7}, gender, college, features, roomGender, roomCapacity);
+
+        assertThat(partitions).extracting(Partition::key)
+                .containsExactly("FEMALE/CS/atmosphere=1.0", "MALE/CS/atmosphere=1.0", "MALE");
+        assertThat(partitions.get(1).students()).containsExactly(0, 1, 2, 3);
+        assertThat(partitions.get(1).rooms()).containsExactly(0);
+        assertThat(partitions.get(2).students()).containsExactly(4, 5);
+        assertThat(partitions.get(2).rooms()).containsExactly(1);
+        assertThat(partitions.get(0).rooms()).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("没有对应性别的空房间时，学生保留在分区中但不分配房间")
+    void keepsStudentsWithoutMatchingRooms() {
+        List<Partition> partitions = HardFilterPartitioner.partition(
+                new int[]{0, 1}, new String[]{F, F}, new String[]{"CS", "CS"}, withFilter(new double[]{1, 1}),
+                new String[]{M}, new int[]{4});
+
+        assertThat(partitions).hasSize(1);
+        assertThat(partitions.get(0).students()).containsExactly(0, 1);
+        assertThat(partitions.get(0).beds()).isZero();
+    }
+
+    @Test
+    @DisplayName("特殊需求学生按性别单独分组，住不满整间房的溢出到普通分组")
+    void groupsSpecialNeedsStudentsFirst() {
+        // 0-2: 特殊需求男生，3-5: 普通男生
+        String[] gender = {M, M, M, M, M, M};
+        String[] college = {"CS", "CS", "CS", "CS", "CS", "CS"};
+        boolean[] specialNeeds = {true, true, true, false, false, false};
+
+        List<Partition> partitions = HardFilterPartitioner.partition(
+                new int[]{0, 1, 2, 3, 4, 5}, gender, college, specialNeeds, withFilter(new double[]{1, 1, 1, 1, 1, 1}),
+                new String[]{M, M, M}, new int[]{2, 2, 2});
+
+        assertThat(partitions).extracting(Partition::key)
+                .containsExactly("MALE/special-needs", "MALE/CS/atmosphere=1.0");
+        assertThat(partitions.get(0).students()).containsExactly(0, 1);
+        assertThat(partitions.get(0).rooms()).containsExactly(0);
+        assertThat(partitions.get(1).students()).containsExactly(2, 3, 4, 5);
+        assertThat(partitions.get(1).rooms()).containsExactly(1, 2);
+    }
+
+    private static FeatureMatrix withFilter(double[] filterValues) {
+        ScoringModel model = new ScoringModel(List.of("sleep_time"), List.of(1.0));
+        UUID[] ids = new UUID[filterValues.length];
+        for (int i = 0; i < ids.length; i++) ids[i] = UUID.randomUUID();
+        return new FeatureMatrix(model, ids, new double[filterValues.length], List.of("atmosphere"), filterValues);
+    }
+}
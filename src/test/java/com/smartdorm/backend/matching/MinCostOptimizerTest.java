@@ -0,0 +1,70 @@
+package com.smartdorm.backend.matching;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("单元测试: MinCostOptimizer")
+class MinCostOptimizerTest {
+
+    private final ScoringModel model = new ScoringModel(
+            List.of("neuroticism", "agreeableness", "sleep_time"),
+            List.of(0.3, 0.3, 0.4));
+
+    @Test
+    @DisplayName("匈牙利算法应得到与穷举相同的最小代价")
+    void hungarianMatchesBruteForce() {
+        Random random = new Random(3);
+        int m = 6;
+        double[] cost = new double[m * m];
+        for (int i = 0; i < cost.length; i++) cost[i] = random.nextInt(100);
+
+        int[] columnOf = MinCostOptimizer.hungarian(cost, m);
+
+        assertThat(columnOf).containsExactlyInAnyOrder(0, 1, 2, 3, 4, 5);
+        double total = 0;
+        for (int i = 0; i < m; i++) total += cost[i * m + columnOf[i]];
+        assertThat(total).isEqualTo(bruteForce(cost, m, 0, new boolean[m]));
+    }
+
+    @Test
+    @DisplayName("小分区应优于贪心结果，且不超出房间容量")
+    void improvesGreedyPlacementWithinCapacities() {
+        Random random = new Random(1);
+        double[][] rows = new double[150][3];
+        for (double[] row : rows) {
+            for (int f = 0; f < row.length; f++) row[f] = random.nextDouble();
+        }
+        FeatureMatrix features = FeatureMatrix.of(model, rows);
+        int[] capacities = new int[40]; // 160 个床位，含空床
+        Arrays.fill(capacities, 4);
+        int[] greedy = GreedyRoomAssigner.assign(features, capacities, MatchingMonitor.NONE);
+
+        OptimizationResult result = MinCostOptimizer.optimize(features, capacities, greedy, 60_000, MatchingMonitor.NONE);
+
+        assertThat(result.finalCost()).isCloseTo(features.placementCost(result.roomOf()), within(1e-6));
+        assertThat(result.finalCost()).isLessThan(result.initialCost());
+        assertThat(result.curve()).hasSize(OptimizationResult.CURVE_POINTS + 1);
+        int[] occupancy = new int[capacities.length];
+        for (int room : result.roomOf()) occupancy[room]++;
+        for (int r = 0; r < capacities.length; r++) assertThat(occupancy[r]).isLessThanOrEqualTo(capacities[r]);
+    }
+
+    private static double bruteForce(double[] cost, int m, int row, boolean[] used) {
+        if (row == m) return 0;
+        double best = Double.POSITIVE_INFINITY;
+        for (int c = 0; c < m; c++) {
+            if (used[c]) continue;
+            used[c] = true;
+            best = Math.min(best, cost[row * m + c] + bruteForce(cost, m, row + 1, used));
+            used[c] = false;
+        }
+        return best;
+    }
+}
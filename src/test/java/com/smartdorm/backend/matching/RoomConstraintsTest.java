@@ -0,0 +1,127 @@
+package com.smartdorm.backend.matching;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("单元测试: RoomConstraints")
+class RoomConstraintsTest {
+
+    private final ScoringModel model = new ScoringModel(
+            List.of("neuroticism", "agreeableness", "sleep_time"),
+            List.of(0.3, 0.3, 0.4));
+
+    @Test
+    @DisplayName("解析规则表达式，格式错误时抛出异常")
+    void parsesExpressions() {
+        ConflictRule rule = ConflictRule.parse("noisy", "neuroticism >= 0.8 and sleep_time<0.2", 2);
+
+        assertThat(rule.conditions()).containsExactly(
+                new ConflictRule.Condition("neuroticism", ">=", 0.8),
+                new ConflictRule.Condition("sleep_time", "<", 0.2));
+        assertThat(rule.expression()).isEqualTo("neuroticism >= 0.8 AND sleep_time < 0.2");
+        assertThatThrownBy(() -> ConflictRule.parse("bad", "neuroticism = 0.8", 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("增量计算的违规变化应与全量重算一致")
+    void incrementalDeltasMatchRecount() {
+        FeatureMatrix features = randomStudents(60, 10, 1);
+        RoomConstraints constraints = RoomConstraints.compile(List.of(ConflictRule.HIGH_NEUROTICISM_LOW_AGREEABLENESS), features);
+        int rooms = 15;
+        int[] roomOf = new int[60];
+        for (int s = 0; s < roomOf.length; s++) roomOf[s] = s % rooms;
+        RoomConstraints.Tracker tracker = constraints.tracker(rooms);
+        for (int s = 0; s < roomOf.length; s++) tracker.add(s, roomOf[s]);
+
+        Random random = new Random(2);
+        for (int i = 0; i < 500; i++) {
+            int a = random.nextInt(60);
+            int b = random.nextInt(60);
+            int ra = roomOf[a];
+            int rb = roomOf[b];
+            if (ra == rb) continue;
+            int before = constraints.violations(roomOf, rooms);
+            int delta = tracker.excessDelta(ra, a, b) + tracker.excessDelta(rb, b, a);
+            roomOf[a] = rb;
+            roomOf[b] = ra;
+            tracker.remove(a, ra);
+            tracker.add(b, ra);
+            tracker.remove(b, rb);
+            tracker.add(a, rb);
+            assertThat(constraints.violations(roomOf, rooms)).isEqualTo(before + delta);
+        }
+    }
+
+    @Test
+    @DisplayName("每种求解方式都应让冲突学生分住不同宿舍")
+    void everyAlgorithmSeparatesConflictingStudents() {
+        assertSeparatedByEveryAlgorithm(model);
+    }
+
+    @Test
+    @DisplayName("维度权重很大时，惩罚随权重增大，冲突学生仍然分住不同宿舍")
+    void penaltyScalesWithWeights() {
+        ScoringModel heavy = new ScoringModel(
+                List.of("neuroticism", "agreeableness", "sleep_time"),
+                List.of(200.0, 100.0, 50.0));
+        RoomConstraints constraints = RoomConstraints.compile(
+                List.of(ConflictRule.HIGH_NEUROTICISM_LOW_AGREEABLENESS), randomStudents(heavy, 40, 10, 3));
+
+        // 四人间的一次交换最多改变 2 * 3 对室友的差异度，每对不超过权重之和 350
+        assertThat(constraints.penalty(4)).isGreaterThan(2 * 3 * 350.0);
+        assertThat(RoomConstraints.NONE.penalty(4)).isPositive();
+        assertSeparatedByEveryAlgorithm(heavy);
+    }
+
+    private void assertSeparatedByEveryAlgorithm(ScoringModel model) {
+        // 前 10 名学生高神经质、低宜人性，10 个四人间恰好每间一名
+        FeatureMatrix features = randomStudents(model, 40, 10, 3);
+        RoomConstraints constraints = RoomConstraints.compile(List.of(ConflictRule.HIGH_NEUROTICISM_LOW_AGREEABLENESS), features);
+        int[] capacities = new int[10];
+        Arrays.fill(capacities, 4);
+        int[] students = new int[40];
+        Arrays.setAll(students, s -> s);
+        List<Partition> partitions = List.of(new Partition("P0", students, new int[capacities.length], capacities));
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for (MatchingAlgorithm algorithm : MatchingAlgorithm.values()) {
+                for (int exactMax : new int[]{0, 100}) {
+                    SolverOptions options = new SolverOptions(algorithm, exactMax, 60_000, 500, 60_000, 16, 100, 30, 0, 42);
+                    AssignmentSolver.Solution solution = new AssignmentSolver(pool, options)
+                            .solve(features, constraints, partitions, MatchingMonitor.NONE);
+
+                    assertThat(solution.stats().get(0).violations()).as("%s, exact up to %d", algorithm, exactMax).isZero();
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private FeatureMatrix randomStudents(int n, int flagged, long seed) {
+        return randomStudents(model, n, flagged, seed);
+    }
+
+    /** The first {@code flagged} students have neuroticism 0.9 and agreeableness 0.1, the others are unflagged. */
+    private static FeatureMatrix randomStudents(ScoringModel model, int n, int flagged, long seed) {
+        Random random = new Random(seed);
+        double[][] rows = new double[n][3];
+        for (int s = 0; s < n; s++) {
+            boolean conflict = s < flagged;
+            rows[s][0] = conflict ? 0.9 : 0.6 * random.nextDouble();
+            rows[s][1] = conflict ? 0.1 : 0.5 + 0.5 * random.nextDouble();
+            rows[s][2] = random.nextDouble();
+        }
+        return FeatureMatrix.of(model, rows);
+    }
+}
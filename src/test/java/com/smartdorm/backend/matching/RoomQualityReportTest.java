@@ -0,0 +1,81 @@
+package com.smartdorm.backend.matching;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("单元测试: RoomQualityReport")
+class RoomQualityReportTest {
+
+    private final ScoringModel model = new ScoringModel(
+            List.of("neuroticism", "agreeableness", "wake_time", "sleep_time"),
+            List.of(0.3, 0.3, 0.4, 0.4));
+
+    @Test
+    @DisplayName("按房间计算神经质、宜人性均值（0-100）并按文档标准判定")
+    void computesRoomMeansAgainstCriteria() {
+        FeatureMatrix features = FeatureMatrix.of(model, new double[][]{
+                {0.2, 0.8, 0.0, 0.0},
+                {0.4, 0.6, 0.0, 0.0},
+                {0.9, 0.3, 0.0, 0.0},
+                {0.7, 0.5, 0.0, 0.0},
+                {0.5, 0.5, 0.0, 0.0}, // 未分配
+        });
+
+        RoomQualityReport report = RoomQualityReport.of(features, new int[]{0, 0, 1, 1, -1}, 3);
+
+        assertThat(report.occupants(0)).isEqualTo(2);
+        assertThat(report.neuroticismMean(0)).isCloseTo(30.0, within(1e-9));
+        assertThat(report.agreeablenessMean(0)).isCloseTo(70.0, within(1e-9));
+        assertThat(report.neuroticismCompliant(0)).isTrue();
+        assertThat(report.agreeablenessCompliant(0)).isTrue();
+
+        assertThat(report.neuroticismMean(1)).isCloseTo(80.0, within(1e-9));
+        assertThat(report.agreeablenessMean(1)).isCloseTo(40.0, within(1e-9));
+        assertThat(report.neuroticismCompliant(1)).isFalse();
+        assertThat(report.agreeablenessCompliant(1)).isFalse();
+
+        // 空房间不参与判定
+        assertThat(report.neuroticismMean(2)).isNaN();
+        assertThat(report.neuroticismCompliant(2)).isTrue();
+
+        assertThat(report.compliant()).isFalse();
+        assertThat(report.maxNeuroticismMean()).isCloseTo(80.0, within(1e-9));
+        assertThat(report.minAgreeablenessMean()).isCloseTo(40.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("统计作息差超过阈值的室友对，问卷未包含的维度不参与")
+    void countsScheduleConflicts() {
+        FeatureMatrix features = FeatureMatrix.of(model, new double[][]{
+                {0.3, 0.7, 0.0, 0.0},
+                {0.3, 0.7, 1.0, 0.0},
+                {0.3, 0.7, 0.0, 1.0},
+                {0.3, 0.7, 0.5, 0.5},
+        });
+
+        RoomQualityReport report = RoomQualityReport.of(features, new int[]{0, 0, 0, 1}, 2);
+
+        assertThat(report.scheduleConflicts(0)).isEqualTo(3);
+        assertThat(report.scheduleConflicts(1)).isZero();
+        assertThat(report.totalScheduleConflicts()).isEqualTo(3);
+        // 作息冲突同样使房间不达标
+        assertThat(report.scheduleCompliant(0)).isFalse();
+        assertThat(report.compliant(0)).isFalse();
+        assertThat(report.compliant(1)).isTrue();
+        assertThat(report.compliant()).isFalse();
+
+        FeatureMatrix withoutSchedule = FeatureMatrix.of(
+                new ScoringModel(List.of("neuroticism"), List.of(1.0)), new double[][]{{0.9}, {0.1}});
+        RoomQualityReport partial = RoomQualityReport.of(withoutSchedule, new int[]{0, 0}, 1);
+
+        assertThat(partial.neuroticismMean(0)).isCloseTo(50.0, within(1e-9));
+        assertThat(partial.agreeablenessMean(0)).isNaN();
+        assertThat(partial.scheduleConflicts(0)).isZero();
+        assertThat(partial.compliant()).isTrue();
+    }
+}
@@ -0,0 +1,73 @@
+package com.smartdorm.backend.matching;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("单元测试: SwapRelocator")
+class SwapRelocatorTest {
+
+    private final ScoringModel model = new ScoringModel(List.of("sleep_time"), List.of(1.0));
+
+    @Test
+    @DisplayName("在空床位与交换之间选择代价最低的方案")
+    void picksCheapestMoveOrTrade() {
+        // 学生0 作息为 0.9，与室友1 (0.1) 不合；房间1 的学生3 (0.9) 与学生0 相同，房间2 有空床位但室友为 0.0
+        FeatureMatrix features = FeatureMatrix.of(model, new double[][]{
+                {0.9}, {0.1}, {0.1}, {0.9}, {0.0}});
+        int[] roomOf = {0, 0, 1, 1, 2};
+        boolean[] compatible = {true, true, true, true, true};
+
+        Optional<SwapRelocator.Relocation> best = SwapRelocator.best(
+                features, RoomConstraints.NONE, roomOf, new int[]{2, 2, 2}, 0, compatible);
+
+        // 与学生2 交换：0 与 3 同住、1 与 2 同住，两间房的差异度均降为 0
+        assertThat(best).isPresent();
+        assertThat(best.get().room()).isEqualTo(1);
+        assertThat(best.get().partner()).isEqualTo(2);
+        assertThat(best.get().costDelta()).isCloseTo(-1.6, within(1e-9));
+        assertThat(best.get().violationDelta()).isZero();
+    }
+
+    @Test
+    @DisplayName("排除含不兼容成员的房间，没有候选时返回空")
+    void skipsIncompatibleRooms() {
+        FeatureMatrix features = FeatureMatrix.of(model, new double[][]{
+                {0.9}, {0.1}, {0.9}, {0.5}});
+        int[] roomOf = {0, 0, 1, 2};
+        boolean[] compatible = {true, true, false, true};
+
+        SwapRelocator.Relocation move = SwapRelocator.best(
+                features, RoomConstraints.NONE, roomOf, new int[]{2, 2, 2}, 0, compatible).orElseThrow();
+
+        // 房间1 有更合适的室友，但其成员不兼容，只能去房间2
+        assertThat(move.room()).isEqualTo(2);
+        assertThat(move.partner()).isEqualTo(-1);
+
+        assertThat(SwapRelocator.best(features, RoomConstraints.NONE, new int[]{0, 0, 1, -1},
+                new int[]{2, 1}, 0, compatible)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("冲突规则的惩罚优先于差异度")
+    void avoidsConflictRuleViolations() {
+        ScoringModel personality = new ScoringModel(List.of("neuroticism", "agreeableness"), List.of(0.3, 0.3));
+        FeatureMatrix features = FeatureMatrix.of(personality, new double[][]{
+                {0.9, 0.2}, {0.5, 0.5}, {0.9, 0.2}, {0.1, 0.9}});
+        RoomConstraints constraints = RoomConstraints.compile(
+                List.of(ConflictRule.HIGH_NEUROTICISM_LOW_AGREEABLENESS), features);
+        int[] roomOf = {0, 0, 1, 2};
+        boolean[] compatible = {true, true, true, true};
+
+        SwapRelocator.Relocation move = SwapRelocator.best(
+                features, constraints, roomOf, new int[]{2, 2, 2}, 0, compatible).orElseThrow();
+
+        assertThat(move.room()).isEqualTo(2);
+        assertThat(move.violationDelta()).isZero();
+    }
+}
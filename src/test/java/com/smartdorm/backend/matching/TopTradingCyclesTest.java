@@ -0,0 +1,52 @@
+package com.smartdorm.backend.matching;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("单元测试: TopTradingCycles")
+class TopTradingCyclesTest {
+
+    private final ScoringModel model = new ScoringModel(List.of("sleep_time"), List.of(1.0));
+
+    @Test
+    @DisplayName("找到三人循环交换，每个参与者的差异度都下降")
+    void findsThreeCycle() {
+        // 申请人 0、1、2 分别住在房间 0、1、2，室友为 3、4、5
+        FeatureMatrix features = FeatureMatrix.of(model, new double[][]{
+                {0.0}, {0.5}, {1.0}, {0.5}, {1.0}, {0.0}});
+        int[] roomOf = {0, 1, 2, 0, 1, 2};
+
+        List<TopTradingCycles.Exchange> exchanges = TopTradingCycles.solve(
+                features, RoomConstraints.NONE, roomOf, new int[6], new int[]{0, 1, 2});
+
+        assertThat(exchanges).hasSize(1);
+        TopTradingCycles.Exchange exchange = exchanges.get(0);
+        // 0 搬入 2 的床位，2 搬入 1 的床位，1 搬入 0 的床位
+        assertThat(exchange.students()).containsExactly(0, 2, 1);
+        assertThat(exchange.costAfter()).containsOnly(0.0);
+        for (int t = 0; t < exchange.size(); t++) {
+            assertThat(exchange.costAfter()[t]).isLessThan(exchange.costBefore()[t]);
+        }
+    }
+
+    @Test
+    @DisplayName("两人互换；不同分组或不能改善时不交换")
+    void swapsPairsWithinGroupsOnly() {
+        FeatureMatrix features = FeatureMatrix.of(model, new double[][]{
+                {0.0}, {1.0}, {1.0}, {0.0}, {0.5}, {0.5}});
+        int[] roomOf = {0, 1, 0, 1, 2, 2};
+
+        List<TopTradingCycles.Exchange> exchanges = TopTradingCycles.solve(
+                features, RoomConstraints.NONE, roomOf, new int[6], new int[]{0, 1, 4});
+
+        assertThat(exchanges).hasSize(1);
+        assertThat(exchanges.get(0).students()).containsExactlyInAnyOrder(0, 1);
+
+        int[] groups = {0, 1, 0, 1, 0, 0};
+        assertThat(TopTradingCycles.solve(features, RoomConstraints.NONE, roomOf, groups, new int[]{0, 1, 4})).isEmpty();
+    }
+}
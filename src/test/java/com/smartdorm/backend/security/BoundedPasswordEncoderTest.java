@@ -0,0 +1,63 @@
+package com.smartdorm.backend.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("单元测试: BoundedPasswordEncoder")
+class BoundedPasswordEncoderTest {
+
+    @Test
+    @DisplayName("在线程池中编码和校验，并识别需要提高强度的旧哈希")
+    void encodesMatchesAndUpgrades() {
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 4)) {
+            String hash = encoder.encode("password");
+            assertThat(encoder.matches("password", hash)).isTrue();
+            assertThat(encoder.matches("wrong", hash)).isFalse();
+            assertThat(encoder.upgradeEncoding(hash)).isFalse();
+            assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("队列已满时立即拒绝，不等待哈希")
+    void rejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1)) {
+            Thread running = new Thread(() -> encoder.matches("a", "hash"));
+            Thread queued = new Thread(() -> encoder.matches("b", "hash"));
+            running.start();
+            started.await();
+            queued.start();
+            while (encoder.queued() == 0) Thread.onSpinWait();
+
+            assertThatThrownBy(() -> encoder.matches("c", "hash"))
+                    .isInstanceOf(LoginThrottledException.class)
+                    .satisfies(e -> assertThat(((LoginThrottledException) e).getRetryAfterSeconds()).isPositive());
+            assertThat(encoder.upgradeEncoding("$2a$04$abcdefghijklmnopqrstuv")).isFalse();
+
+            release.countDown();
+            running.join();
+            queued.join();
+        }
+    }
+}
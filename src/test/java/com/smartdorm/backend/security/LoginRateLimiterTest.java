@@ -0,0 +1,56 @@
+package com.smartdorm.backend.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("单元测试: LoginRateLimiter")
+class LoginRateLimiterTest {
+
+    @Test
+    @DisplayName("同一学号用完突发额度后被拒绝，其他学号不受影响")
+    void limitsPerStudentId() {
+        LoginRateLimiter limiter = new LoginRateLimiter(1 << 20, 3, 10, 100, 300);
+        for (int i = 0; i < 3; i++) limiter.acquire("S001", "10.0.0.1");
+
+        assertThatThrownBy(() -> limiter.acquire("S001", "10.0.0.2"))
+                .isInstanceOf(LoginThrottledException.class)
+                .satisfies(e -> assertThat(((LoginThrottledException) e).getRetryAfterSeconds()).isBetween(1L, 6L));
+        limiter.acquire("S002", "10.0.0.1");
+
+        assertThat(limiter.stats().allowed()).isEqualTo(4);
+        assertThat(limiter.stats().rejectedByStudentId()).isEqualTo(1);
+        assertThat(limiter.stats().rejectedByClientIp()).isZero();
+    }
+
+    @Test
+    @DisplayName("同一 IP 超出额度后被拒绝；每分钟 0 次表示不限制")
+    void limitsPerClientIp() {
+        LoginRateLimiter limiter = new LoginRateLimiter(1 << 20, 100, 0, 2, 60);
+        limiter.acquire("S001", "10.0.0.1");
+        limiter.acquire("S002", "10.0.0.1");
+
+        assertThatThrownBy(() -> limiter.acquire("S003", "10.0.0.1")).isInstanceOf(LoginThrottledException.class);
+        for (int i = 0; i < 10; i++) limiter.acquire("S001", "10.0.0." + (i + 2));
+        assertThat(limiter.stats().rejectedByClientIp()).isEqualTo(1);
+        assertThat(limiter.stats().rejectedByStudentId()).isZero();
+    }
+
+    @Test
+    @DisplayName("被 IP 限流的请求不消耗学号额度，其他 IP 上的真实学生仍可登录")
+    void throttledIpDoesNotDrainStudentIds() {
+        LoginRateLimiter limiter = new LoginRateLimiter(1 << 20, 2, 10, 2, 60);
+        limiter.acquire("S001", "10.0.0.1");
+        limiter.acquire("S002", "10.0.0.1");
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> limiter.acquire("S003", "10.0.0.1")).isInstanceOf(LoginThrottledException.class);
+        }
+
+        limiter.acquire("S003", "10.0.0.2");
+        limiter.acquire("S003", "10.0.0.3");
+        assertThat(limiter.stats().rejectedByClientIp()).isEqualTo(10);
+        assertThat(limiter.stats().rejectedByStudentId()).isZero();
+    }
+}
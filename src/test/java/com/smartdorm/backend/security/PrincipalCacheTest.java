@@ -0,0 +1,67 @@
+package com.smartdorm.backend.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("单元测试: PrincipalCache")
+class PrincipalCacheTest {
+
+    private final List<String> loads = new ArrayList<>();
+    private final UserDetailsService users = username -> {
+        loads.add(username);
+        return User.withUsername(username).password("{noop}secret").roles("STUDENT").build();
+    };
+
+    @Test
+    @DisplayName("有效期内命中缓存，过期后重新加载；TTL 为 0 时不缓存")
+    void reloadsAfterTtl() throws InterruptedException {
+        PrincipalCache cache = new PrincipalCache(users, 50, 100);
+        UserDetails first = cache.get("S001");
+        assertThat(cache.get("S001")).isSameAs(first);
+        assertThat(first.getPassword()).isNull();
+        assertThat(loads).containsExactly("S001");
+
+        Thread.sleep(80);
+        assertThat(cache.get("S001")).isNotSameAs(first);
+        assertThat(loads).containsExactly("S001", "S001");
+
+        PrincipalCache uncached = new PrincipalCache(users, 0, 100);
+        uncached.get("S002");
+        uncached.get("S002");
+        assertThat(loads).endsWith("S002", "S002");
+    }
+
+    @Test
+    @DisplayName("超出上限时淘汰最早加载的用户，最近加载的仍然命中")
+    void evictsOldestLoadWhenFull() {
+        PrincipalCache cache = new PrincipalCache(users, 60_000, 3);
+        for (int i = 1; i <= 4; i++) cache.get("S00" + i);
+        loads.clear();
+
+        cache.get("S002");
+        cache.get("S003");
+        cache.get("S004");
+        assertThat(loads).isEmpty();
+        cache.get("S001");
+        assertThat(loads).containsExactly("S001");
+    }
+
+    @Test
+    @DisplayName("evict 之后下一次请求重新加载")
+    void evictForcesReload() {
+        PrincipalCache cache = new PrincipalCache(users, 60_000, 100);
+        cache.get("S001");
+        cache.evict("S001");
+        cache.get("S001");
+        cache.get("S001");
+        assertThat(loads).containsExactly("S001", "S001");
+    }
+}
@@ -0,0 +1,63 @@
+package com.smartdorm.backend.service;
+
+import com.smartdorm.backend.dto.AdminDtos.AdminAssignmentValidationDto;
+import com.smartdorm.backend.dto.AdminDtos.ValidationDetailDto;
+import com.smartdorm.backend.matching.FeatureMatrix;
+import com.smartdorm.backend.matching.RoomQualityReport;
+import com.smartdorm.backend.matching.ScoringModel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("单元测试: AdminAssignmentService 结果检验")
+class AdminAssignmentServiceTest {
+
+    private final ScoringModel model = new ScoringModel(
+            List.of("neuroticism", "agreeableness", "wake_time", "sleep_time"),
+            List.of(0.3, 0.3, 0.4, 0.4));
+
+    @Test
+    @DisplayName("只有作息冲突的房间也计为不达标，结论与明细一致")
+    void scheduleConflictsFailTheRoom() {
+        FeatureMatrix features = FeatureMatrix.of(model, new double[][]{
+                {0.3, 0.7, 0.0, 0.0},
+                {0.3, 0.7, 1.0, 0.0}, // 与室友起床时间相差过大
+                {0.3, 0.7, 0.5, 0.5},
+                {0.3, 0.7, 0.5, 0.5},
+        });
+        RoomQualityReport report = RoomQualityReport.of(features, new int[]{0, 0, 1, 1}, 2);
+
+        AdminAssignmentValidationDto validation =
+                AdminAssignmentService.toValidation(report, List.of("A-101", "A-102"), List.of());
+
+        assertThat(validation.isValid()).isFalse();
+        assertThat(validation.message()).isEqualTo("1 of 2 rooms miss the neuroticism, agreeableness or schedule criterion.");
+        assertThat(validation.details()).contains(
+                new ValidationDetailDto("All rooms", "Schedule Conflicts", 1, false),
+                new ValidationDetailDto("A-101", "Schedule Conflicts", 1, false));
+        assertThat(validation.details()).noneMatch(detail -> detail.dorm().equals("A-102"));
+    }
+
+    @Test
+    @DisplayName("所有房间达标时结果有效，且没有不达标的明细")
+    void compliantRoomsAreValid() {
+        FeatureMatrix features = FeatureMatrix.of(model, new double[][]{
+                {0.3, 0.7, 0.2, 0.8},
+                {0.4, 0.6, 0.3, 0.7},
+                {0.2, 0.8, 0.5, 0.5},
+                {0.3, 0.7, 0.6, 0.4},
+        });
+        RoomQualityReport report = RoomQualityReport.of(features, new int[]{0, 0, 1, 1}, 2);
+
+        AdminAssignmentValidationDto validation =
+                AdminAssignmentService.toValidation(report, List.of("A-101", "A-102"), List.of(3.0, 2.0));
+
+        assertThat(validation.isValid()).isTrue();
+        assertThat(validation.message()).isEqualTo("Results meet all validation criteria.");
+        assertThat(validation.details()).allMatch(ValidationDetailDto::isCompliant);
+        assertThat(validation.costCurve()).containsExactly(3.0, 2.0);
+    }
+}
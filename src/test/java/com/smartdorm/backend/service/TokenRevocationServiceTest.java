@@ -0,0 +1,62 @@
+package com.smartdorm.backend.service;
+
+import com.smartdorm.backend.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("单元测试: TokenRevocationService")
+class TokenRevocationServiceTest {
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+
+    @Test
+    @DisplayName("未吊销的令牌只查内存；新吊销的令牌无需查询即被拒绝；重复吊销返回 false")
+    void checksInMemory() {
+        UUID persisted = UUID.randomUUID();
+        when(repository.findActiveJtis(any())).thenReturn(List.of(persisted));
+        when(repository.existsById(persisted)).thenReturn(true);
+        TokenRevocationService service = new TokenRevocationService(repository, 1000, 0.001, 100);
+
+        for (int i = 0; i < 100; i++) assertThat(service.isRevoked(UUID.randomUUID())).isFalse();
+        assertThat(service.isRevoked(persisted)).isTrue();
+        assertThat(service.isRevoked(null)).isFalse();
+
+        UUID fresh = UUID.randomUUID();
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        when(repository.insertIfAbsent(fresh, "S001", expiresAt)).thenReturn(1, 0);
+        assertThat(service.revoke(fresh, "S001", expiresAt)).isTrue();
+        assertThat(service.isRevoked(fresh)).isTrue();
+        assertThat(service.revoke(fresh, "S001", expiresAt)).isFalse();
+
+        verify(repository, times(1)).findActiveJtis(any());
+        verify(repository, never()).existsById(fresh);
+        // the persisted token, plus at most a false positive or two among the random ones
+        verify(repository, atMost(3)).existsById(any());
+    }
+
+    @Test
+    @DisplayName("布隆过滤器没有漏报，误判率接近设定值")
+    void bloomFilterHasNoFalseNegatives() {
+        TokenRevocationService.BloomFilter filter = new TokenRevocationService.BloomFilter(10_000, 0.01);
+        List<UUID> added = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            filter.add(id);
+            added.add(id);
+        }
+        assertThat(added).allMatch(filter::mightContain);
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) if (filter.mightContain(UUID.randomUUID())) falsePositives++;
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+}